@@ -1,12 +1,53 @@
 package com.grocery.cartservice.client;
 
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+import java.util.Map;
 
 @FeignClient(name = "product-catalog-service", url = "${service.product.url}")
 public interface ProductClient {
     
     @GetMapping("/api/products/{id}")
     ProductResponse getProductById(@PathVariable("id") Long id);
+    
+    // Returns only active products, in request order; use ProductLookupService to respect the batch size
+    @PostMapping("/api/products/batch")
+    List<ProductResponse> getProductsByIds(@RequestBody List<Long> ids);
+    
+    // Keyset listing of active products; a null cursor starts from the lowest id
+    @GetMapping("/api/products/cursor")
+    CursorPage<ProductSummary> getProductsByCursor(@RequestParam(value = "cursor", required = false) String cursor,
+                                                   @RequestParam("size") int size);
+    
+    // Committed changes after the cursor, oldest first; nextCursor is always set
+    @GetMapping("/api/products/changes")
+    CursorPage<ProductChangeResponse> getProductChanges(@RequestParam(value = "cursor", required = false) String cursor,
+                                                       @RequestParam("limit") int limit);
+    
+    @GetMapping("/api/products/changes/head")
+    String getProductChangesHead();
+    
+    // Sets the user's hold on a product to quantity; responds 409 when stock is not available
+    @PutMapping("/api/reservations/{ownerId}/products/{productId}")
+    void holdStock(@PathVariable("ownerId") String ownerId,
+                   @PathVariable("productId") Long productId,
+                   @RequestParam("quantity") int quantity);
+    
+    // Sets several holds in one call, zero releasing; all or nothing, 409 when any is not available
+    @PutMapping("/api/reservations/{ownerId}/products")
+    void holdAllStock(@PathVariable("ownerId") String ownerId, @RequestBody Map<Long, Integer> quantities);
+    
+    @DeleteMapping("/api/reservations/{ownerId}/products/{productId}")
+    void releaseStock(@PathVariable("ownerId") String ownerId, @PathVariable("productId") Long productId);
+    
+    @DeleteMapping("/api/reservations/{ownerId}")
+    void releaseAllStock(@PathVariable("ownerId") String ownerId);
 }
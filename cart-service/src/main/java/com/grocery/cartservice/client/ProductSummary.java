@@ -0,0 +1,57 @@
+package com.grocery.cartservice.client;
+
+import java.math.BigDecimal;
+
+// Row of the catalog's keyset listing, which only returns active products
+public class ProductSummary {
+    
+    private Long id;
+    private String name;
+    private String unit;
+    private BigDecimal price;
+    private Integer stockQuantity;
+    
+    // Constructors
+    public ProductSummary() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getUnit() {
+        return unit;
+    }
+    
+    public void setUnit(String unit) {
+        this.unit = unit;
+    }
+    
+    public BigDecimal getPrice() {
+        return price;
+    }
+    
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+    
+    public Integer getStockQuantity() {
+        return stockQuantity;
+    }
+    
+    public void setStockQuantity(Integer stockQuantity) {
+        this.stockQuantity = stockQuantity;
+    }
+}
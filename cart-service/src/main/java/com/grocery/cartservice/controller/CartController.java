@@ -1,5 +1,6 @@
 package com.grocery.cartservice.controller;
 
+import com.grocery.cartservice.dto.CartBatchRequest;
 import com.grocery.cartservice.dto.CartItemRequest;
 import com.grocery.cartservice.dto.CartResponse;
 import com.grocery.cartservice.service.CartService;
@@ -8,6 +9,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -31,6 +34,8 @@ public class CartController {
         try {
             CartResponse cart = cartService.getCart(userId);
             return ResponseEntity.ok(cart);
+        } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -49,6 +54,29 @@ public class CartController {
         try {
             CartResponse cart = cartService.addItemToCart(userId, request);
             return ResponseEntity.ok(cart);
+        } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PatchMapping("/items")
+    @Operation(summary = "Apply item operations",
+            description = "Add, update and remove several items in one request; all operations succeed or none do")
+    public ResponseEntity<CartResponse> applyItemOperations(
+            @Valid @RequestBody CartBatchRequest request,
+            HttpServletRequest httpRequest) {
+        String userId = (String) httpRequest.getAttribute("firebaseUid");
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
+        try {
+            CartResponse cart = cartService.applyItemOperations(userId, request.getOperations());
+            return ResponseEntity.ok(cart);
+        } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -68,6 +96,8 @@ public class CartController {
         try {
             CartResponse cart = cartService.updateCartItem(userId, productId, request);
             return ResponseEntity.ok(cart);
+        } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -86,6 +116,8 @@ public class CartController {
         try {
             CartResponse cart = cartService.removeItemFromCart(userId, productId);
             return ResponseEntity.ok(cart);
+        } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -102,6 +134,8 @@ public class CartController {
         try {
             CartResponse cart = cartService.clearCart(userId);
             return ResponseEntity.ok(cart);
+        } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
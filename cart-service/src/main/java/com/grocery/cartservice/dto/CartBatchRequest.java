@@ -0,0 +1,30 @@
+package com.grocery.cartservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public class CartBatchRequest {
+    
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = 100, message = "At most 100 operations per request")
+    @Valid
+    private List<CartItemOperation> operations;
+    
+    // Constructors
+    public CartBatchRequest() {}
+    
+    public CartBatchRequest(List<CartItemOperation> operations) {
+        this.operations = operations;
+    }
+    
+    // Getters and Setters
+    public List<CartItemOperation> getOperations() {
+        return operations;
+    }
+    
+    public void setOperations(List<CartItemOperation> operations) {
+        this.operations = operations;
+    }
+}
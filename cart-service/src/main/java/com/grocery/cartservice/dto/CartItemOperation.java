@@ -0,0 +1,63 @@
+package com.grocery.cartservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public class CartItemOperation {
+    
+    public enum Type {
+        ADD,
+        UPDATE,
+        REMOVE;
+        
+        @JsonCreator
+        public static Type from(String value) {
+            return valueOf(value.trim().toUpperCase());
+        }
+    }
+    
+    @NotNull(message = "Operation is required")
+    private Type op;
+    
+    @NotNull(message = "Product ID is required")
+    private Long productId;
+    
+    // Required for add and update, ignored for remove
+    @Positive(message = "Quantity must be positive")
+    private Integer quantity;
+    
+    // Constructors
+    public CartItemOperation() {}
+    
+    public CartItemOperation(Type op, Long productId, Integer quantity) {
+        this.op = op;
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+    
+    // Getters and Setters
+    public Type getOp() {
+        return op;
+    }
+    
+    public void setOp(Type op) {
+        this.op = op;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public Integer getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+}
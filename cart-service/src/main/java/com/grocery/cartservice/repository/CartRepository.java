@@ -1,6 +1,7 @@
 package com.grocery.cartservice.repository;
 
 import com.grocery.cartservice.model.Cart;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -9,6 +10,8 @@ import java.util.Optional;
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
     
+    // Items are fetched in the same statement; every cart operation starts here
+    @EntityGraph(attributePaths = "items")
     Optional<Cart> findByUserId(String userId);
     
     boolean existsByUserId(String userId);
@@ -1,85 +1,124 @@
 package com.grocery.cartservice.service;
 
-import com.grocery.cartservice.client.ProductClient;
 import com.grocery.cartservice.client.ProductResponse;
+import com.grocery.cartservice.dto.CartItemOperation;
 import com.grocery.cartservice.dto.CartItemRequest;
 import com.grocery.cartservice.dto.CartItemResponse;
 import com.grocery.cartservice.dto.CartResponse;
 import com.grocery.cartservice.model.Cart;
 import com.grocery.cartservice.model.CartItem;
-import com.grocery.cartservice.repository.CartRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+/**
+ * Cart changes run optimistically: each one reads the cart, applies the change
+ * and saves it in its own transaction, and the save fails if another change to
+ * the same cart committed in between (the cart version moved on, or a
+ * duplicate cart or cart line was inserted). The change is then rerun from a
+ * fresh read, up to cart.concurrency.max-attempts times, after a random wait of
+ * up to cart.concurrency.backoff doubled per attempt.
+ *
+ * Products are validated from ProductLookupService, which answers from the
+ * local replica while it is fresh. Stock holds are not touched inside a
+ * change: once it commits, StockHoldSynchronizer resizes them from the
+ * committed cart, so a slow or unreachable catalog does not hold up carts.
+ */
 @Service
-@Transactional
 public class CartService {
     
     @Autowired
-    private CartRepository cartRepository;
+    private CartStore cartStore;
     
     @Autowired
-    private ProductClient productClient;
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ProductLookupService productLookupService;
+    
+    @Autowired
+    private StockHoldSynchronizer stockHolds;
+    
+    @Value("${cart.concurrency.max-attempts:4}")
+    private int maxAttempts;
+    
+    @Value("${cart.concurrency.backoff:20ms}")
+    private Duration backoff;
     
     public CartResponse getCart(String userId) {
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseGet(() -> createNewCart(userId));
-        
-        return convertToResponse(cart);
+        return withRetry(() -> {
+            Cart cart = cartStore.find(userId)
+                    .orElseGet(() -> createNewCart(userId));
+            
+            return convertToResponse(cart);
+        });
     }
     
     public CartResponse addItemToCart(String userId, CartItemRequest request) {
         // Validate product exists and is active
-        ProductResponse product = productClient.getProductById(request.getProductId());
-        if (product == null || !product.getIsActive()) {
+        ProductResponse product = productLookupService.getProduct(request.getProductId());
+        if (product == null) {
             throw new RuntimeException("Product not found or inactive");
         }
         
-        // Check stock availability
-        if (product.getStockQuantity() < request.getQuantity()) {
-            throw new RuntimeException("Insufficient stock");
-        }
-        
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseGet(() -> createNewCart(userId));
-        
-        // Check if item already exists in cart
-        Optional<CartItem> existingItem = cart.getItems().stream()
-                .filter(item -> item.getProductId().equals(request.getProductId()))
-                .findFirst();
-        
-        if (existingItem.isPresent()) {
-            // Update quantity
-            CartItem item = existingItem.get();
-            item.setQuantity(item.getQuantity() + request.getQuantity());
-        } else {
-            // Add new item
-            CartItem newItem = new CartItem(
-                    product.getId(),
-                    product.getName(),
-                    product.getUnit(),
-                    request.getQuantity(),
-                    product.getPrice()
-            );
-            cart.addItem(newItem);
-        }
-        
-        Cart savedCart = cartRepository.save(cart);
-        return convertToResponse(savedCart);
+        CartResponse response = withRetry(() -> {
+            Cart cart = cartStore.find(userId)
+                    .orElseGet(() -> createNewCart(userId));
+            
+            // Check if item already exists in cart
+            Optional<CartItem> existingItem = cart.getItems().stream()
+                    .filter(item -> item.getProductId().equals(request.getProductId()))
+                    .findFirst();
+            
+            // Check stock availability for the new line total
+            int newQuantity = existingItem.map(CartItem::getQuantity).orElse(0) + request.getQuantity();
+            if (product.getStockQuantity() < newQuantity) {
+                throw new RuntimeException("Insufficient stock");
+            }
+            
+            if (existingItem.isPresent()) {
+                // Update quantity
+                CartItem item = existingItem.get();
+                item.setQuantity(item.getQuantity() + request.getQuantity());
+            } else {
+                // Add new item
+                CartItem newItem = new CartItem(
+                        product.getId(),
+                        product.getName(),
+                        product.getUnit(),
+                        request.getQuantity(),
+                        product.getPrice()
+                );
+                cart.addItem(newItem);
+            }
+            cart.calculateTotal();
+            
+            Cart savedCart = cartStore.save(cart);
+            return convertToResponse(savedCart);
+        });
+        stockHolds.markChanged(userId, List.of(request.getProductId()));
+        return response;
     }
     
     public CartResponse updateCartItem(String userId, Long productId, CartItemRequest request) {
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseThrow(() -> new RuntimeException("Cart not found"));
-        
         // Validate product exists and is active
-        ProductResponse product = productClient.getProductById(productId);
-        if (product == null || !product.getIsActive()) {
+        ProductResponse product = productLookupService.getProduct(productId);
+        if (product == null) {
             throw new RuntimeException("Product not found or inactive");
         }
         
@@ -88,52 +127,194 @@ public class CartService {
             throw new RuntimeException("Insufficient stock");
         }
         
-        // Find and update item
-        Optional<CartItem> existingItem = cart.getItems().stream()
-                .filter(item -> item.getProductId().equals(productId))
-                .findFirst();
-        
-        if (existingItem.isPresent()) {
-            CartItem item = existingItem.get();
-            item.setQuantity(request.getQuantity());
-            item.setPrice(product.getPrice()); // Update price in case it changed
-        } else {
-            throw new RuntimeException("Item not found in cart");
-        }
-        
-        Cart savedCart = cartRepository.save(cart);
-        return convertToResponse(savedCart);
+        CartResponse response = withRetry(() -> {
+            Cart cart = cartStore.find(userId)
+                    .orElseThrow(() -> new RuntimeException("Cart not found"));
+            
+            // Find and update item
+            Optional<CartItem> existingItem = cart.getItems().stream()
+                    .filter(item -> item.getProductId().equals(productId))
+                    .findFirst();
+            
+            if (existingItem.isPresent()) {
+                CartItem item = existingItem.get();
+                item.setQuantity(request.getQuantity());
+                item.setPrice(product.getPrice()); // Update price in case it changed
+            } else {
+                throw new RuntimeException("Item not found in cart");
+            }
+            cart.calculateTotal();
+            
+            Cart savedCart = cartStore.save(cart);
+            return convertToResponse(savedCart);
+        });
+        stockHolds.markChanged(userId, List.of(productId));
+        return response;
     }
     
     public CartResponse removeItemFromCart(String userId, Long productId) {
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseThrow(() -> new RuntimeException("Cart not found"));
-        
-        // Find and remove item
-        Optional<CartItem> itemToRemove = cart.getItems().stream()
-                .filter(item -> item.getProductId().equals(productId))
-                .findFirst();
-        
-        if (itemToRemove.isPresent()) {
-            cart.removeItem(itemToRemove.get());
-            cartRepository.save(cart);
+        CartResponse response = withRetry(() -> {
+            Cart cart = cartStore.find(userId)
+                    .orElseThrow(() -> new RuntimeException("Cart not found"));
+            
+            // Find and remove item
+            Optional<CartItem> itemToRemove = cart.getItems().stream()
+                    .filter(item -> item.getProductId().equals(productId))
+                    .findFirst();
+            
+            if (itemToRemove.isPresent()) {
+                cart.removeItem(itemToRemove.get());
+                cartStore.save(cart);
+            }
+            
+            return convertToResponse(cart);
+        });
+        stockHolds.markChanged(userId, List.of(productId));
+        return response;
+    }
+    
+    /**
+     * Applies add, update and remove operations in request order with one
+     * product lookup and one cart save; any failing operation rejects the
+     * whole batch.
+     */
+    public CartResponse applyItemOperations(String userId, List<CartItemOperation> operations) {
+        Set<Long> productIds = operations.stream()
+                .filter(operation -> operation.getOp() != CartItemOperation.Type.REMOVE)
+                .map(CartItemOperation::getProductId)
+                .collect(Collectors.toSet());
+        Map<Long, ProductResponse> products = productIds.isEmpty()
+                ? Map.of()
+                : productLookupService.getProducts(productIds);
+        for (Long productId : productIds) {
+            if (!products.containsKey(productId)) {
+                throw new RuntimeException("Product not found or inactive: " + productId);
+            }
         }
         
-        return convertToResponse(cart);
+        Set<Long> changed = new HashSet<>();
+        CartResponse response = withRetry(() -> {
+            Cart cart = cartStore.find(userId)
+                    .orElseGet(() -> createNewCart(userId));
+            Map<Long, CartItem> lines = new HashMap<>();
+            Map<Long, Integer> quantitiesBefore = new HashMap<>();
+            for (CartItem item : cart.getItems()) {
+                lines.put(item.getProductId(), item);
+                quantitiesBefore.put(item.getProductId(), item.getQuantity());
+            }
+            
+            Map<Long, CartItem> removed = new HashMap<>();
+            Set<Long> touched = new HashSet<>();
+            for (CartItemOperation operation : operations) {
+                Long productId = operation.getProductId();
+                CartItem line = lines.get(productId);
+                touched.add(productId);
+                switch (operation.getOp()) {
+                    case ADD -> {
+                        int quantity = requireQuantity(operation);
+                        if (line != null) {
+                            line.setQuantity(line.getQuantity() + quantity);
+                        } else if (removed.containsKey(productId)) {
+                            // Put the removed line back rather than insert a second row for the product
+                            CartItem restored = removed.remove(productId);
+                            restored.setQuantity(quantity);
+                            restored.setPrice(products.get(productId).getPrice());
+                            cart.addItem(restored);
+                            lines.put(productId, restored);
+                        } else {
+                            ProductResponse product = products.get(productId);
+                            CartItem newItem = new CartItem(
+                                    product.getId(),
+                                    product.getName(),
+                                    product.getUnit(),
+                                    quantity,
+                                    product.getPrice()
+                            );
+                            cart.addItem(newItem);
+                            lines.put(productId, newItem);
+                        }
+                    }
+                    case UPDATE -> {
+                        if (line == null) {
+                            throw new RuntimeException("Item not found in cart: " + productId);
+                        }
+                        line.setQuantity(requireQuantity(operation));
+                        line.setPrice(products.get(productId).getPrice());
+                    }
+                    case REMOVE -> {
+                        if (line != null) {
+                            cart.removeItem(line);
+                            lines.remove(productId);
+                            removed.put(productId, line);
+                        }
+                    }
+                }
+            }
+            cart.calculateTotal();
+            
+            // Only lines whose quantity changed need a stock check and a hold resize
+            changed.clear();
+            for (Long productId : touched) {
+                int quantity = lines.containsKey(productId) ? lines.get(productId).getQuantity() : 0;
+                if (quantity != quantitiesBefore.getOrDefault(productId, 0)) {
+                    if (quantity > 0 && products.get(productId).getStockQuantity() < quantity) {
+                        throw new RuntimeException("Insufficient stock: " + productId);
+                    }
+                    changed.add(productId);
+                }
+            }
+            
+            Cart savedCart = cartStore.save(cart);
+            return convertToResponse(savedCart);
+        });
+        stockHolds.markChanged(userId, changed);
+        return response;
     }
     
     public CartResponse clearCart(String userId) {
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseThrow(() -> new RuntimeException("Cart not found"));
-        
-        cart.clearItems();
-        Cart savedCart = cartRepository.save(cart);
-        return convertToResponse(savedCart);
+        Set<Long> cleared = new HashSet<>();
+        CartResponse response = withRetry(() -> {
+            Cart cart = cartStore.find(userId)
+                    .orElseThrow(() -> new RuntimeException("Cart not found"));
+            
+            cleared.clear();
+            cart.getItems().forEach(item -> cleared.add(item.getProductId()));
+            cart.clearItems();
+            Cart savedCart = cartStore.save(cart);
+            return convertToResponse(savedCart);
+        });
+        stockHolds.markChanged(userId, cleared);
+        return response;
+    }
+    
+    private <T> T withRetry(Supplier<T> change) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transaction.execute(status -> change.get());
+            } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(ThreadLocalRandom.current().nextLong((backoff.toMillis() << (attempt - 1)) + 1));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+    
+    private static int requireQuantity(CartItemOperation operation) {
+        if (operation.getQuantity() == null) {
+            throw new RuntimeException("Quantity is required for " + operation.getOp() + ": " + operation.getProductId());
+        }
+        return operation.getQuantity();
     }
     
     private Cart createNewCart(String userId) {
-        Cart cart = new Cart(userId);
-        return cartRepository.save(cart);
+        return cartStore.create(userId);
     }
     
     private CartResponse convertToResponse(Cart cart) {
@@ -0,0 +1,20 @@
+package com.grocery.cartservice.service;
+
+import com.grocery.cartservice.model.Cart;
+
+import java.util.Optional;
+
+/**
+ * Where CartService reads and writes carts.
+ */
+public interface CartStore {
+    
+    Optional<Cart> find(String userId);
+    
+    /**
+     * Creates and durably stores an empty cart for the user.
+     */
+    Cart create(String userId);
+    
+    Cart save(Cart cart);
+}
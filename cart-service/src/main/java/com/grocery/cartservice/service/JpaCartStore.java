@@ -0,0 +1,33 @@
+package com.grocery.cartservice.service;
+
+import com.grocery.cartservice.model.Cart;
+import com.grocery.cartservice.repository.CartRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Component
+public class JpaCartStore implements CartStore {
+    
+    @Autowired
+    private CartRepository cartRepository;
+    
+    @Override
+    public Optional<Cart> find(String userId) {
+        return cartRepository.findByUserId(userId);
+    }
+    
+    @Override
+    public Cart create(String userId) {
+        return cartRepository.save(new Cart(userId));
+    }
+    
+    @Override
+    public Cart save(Cart cart) {
+        // Touching the cart row bumps its version even when only a line changed
+        cart.setUpdatedAt(LocalDateTime.now());
+        return cartRepository.save(cart);
+    }
+}
@@ -0,0 +1,66 @@
+package com.grocery.cartservice.service;
+
+import com.grocery.cartservice.client.ProductClient;
+import com.grocery.cartservice.client.ProductResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class ProductLookupService {
+    
+    @Autowired
+    private ProductClient productClient;
+    
+    @Autowired
+    private ProductReplica productReplica;
+    
+    // Must not exceed product.batch.max-size on the catalog side
+    @Value("${service.product.batch-size:100}")
+    private int batchSize;
+    
+    /**
+     * The active product with this id, or null. Served from the local replica
+     * while it is fresh, otherwise from the catalog.
+     */
+    public ProductResponse getProduct(Long productId) {
+        if (productReplica.canAnswer(productId)) {
+            return productReplica.get(productId);
+        }
+        ProductResponse product = productClient.getProductById(productId);
+        return product != null && Boolean.TRUE.equals(product.getIsActive()) ? product : null;
+    }
+    
+    /**
+     * Fetches many products, from the replica where it can answer and with one
+     * catalog round trip per batchSize remaining ids. Unknown or inactive
+     * products are absent from the returned map.
+     */
+    public Map<Long, ProductResponse> getProducts(Collection<Long> productIds) {
+        Map<Long, ProductResponse> products = new HashMap<>();
+        List<Long> ids = new ArrayList<>();
+        for (Long productId : productIds.stream().distinct().toList()) {
+            if (productReplica.canAnswer(productId)) {
+                ProductResponse product = productReplica.get(productId);
+                if (product != null) {
+                    products.put(productId, product);
+                }
+            } else {
+                ids.add(productId);
+            }
+        }
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = new ArrayList<>(ids.subList(from, Math.min(from + batchSize, ids.size())));
+            for (ProductResponse product : productClient.getProductsByIds(chunk)) {
+                products.put(product.getId(), product);
+            }
+        }
+        return products;
+    }
+}
@@ -0,0 +1,199 @@
+package com.grocery.cartservice.service;
+
+import com.grocery.cartservice.client.CursorPage;
+import com.grocery.cartservice.client.ProductChangeResponse;
+import com.grocery.cartservice.client.ProductClient;
+import com.grocery.cartservice.client.ProductResponse;
+import com.grocery.cartservice.client.ProductSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local copy of the catalog fields carts validate against: name, unit, price,
+ * stock and the active flag.
+ *
+ * At startup the head of the catalog's product change feed is taken first and
+ * the active catalog is then read through its keyset listing; after that the
+ * feed is polled from that head every cart.product-replica.poll-interval-ms.
+ * Changes carry the whole row, so replaying one the listing already saw is
+ * harmless. Deactivated products are dropped. At most
+ * cart.product-replica.max-products are held; once that bound is hit the
+ * replica only answers for the products it has.
+ *
+ * Lookups are served only while the last successful poll is within
+ * cart.product-replica.max-staleness; otherwise ProductLookupService goes to
+ * the catalog.
+ */
+@Component
+public class ProductReplica {
+    
+    private static final Logger log = LoggerFactory.getLogger(ProductReplica.class);
+    
+    @Autowired
+    private ProductClient productClient;
+    
+    @Value("${cart.product-replica.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${cart.product-replica.max-products:100000}")
+    private int maxProducts;
+    
+    // Must not exceed product.changes.max-batch-size on the catalog side
+    @Value("${cart.product-replica.page-size:500}")
+    private int pageSize;
+    
+    @Value("${cart.product-replica.max-staleness:10s}")
+    private Duration maxStaleness;
+    
+    private final Map<Long, Entry> products = new ConcurrentHashMap<>();
+    
+    // Change feed position; null until the initial load succeeds
+    private String cursor;
+    
+    // False once max-products turned a product away, so absence no longer means inactive
+    private volatile boolean complete;
+    
+    private volatile boolean synced;
+    private volatile long syncedAt;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        poll();
+    }
+    
+    @Scheduled(initialDelayString = "${cart.product-replica.poll-interval-ms:1000}",
+               fixedDelayString = "${cart.product-replica.poll-interval-ms:1000}")
+    public synchronized void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (cursor == null) {
+                load();
+            }
+            catchUp();
+        } catch (RuntimeException e) {
+            // Lookups fall back to the catalog once the replica is stale
+            log.warn("Product replica sync failed: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Whether the replica is fresh and can tell if this product is active.
+     */
+    public boolean canAnswer(Long productId) {
+        return isFresh() && (complete || products.containsKey(productId));
+    }
+    
+    /**
+     * The active product with this id, or null when it is not in the replica.
+     */
+    public ProductResponse get(Long productId) {
+        Entry entry = products.get(productId);
+        return entry == null ? null : entry.toResponse();
+    }
+    
+    public boolean isFresh() {
+        return synced && System.nanoTime() - syncedAt <= maxStaleness.toNanos();
+    }
+    
+    private void load() {
+        long start = System.currentTimeMillis();
+        String head = productClient.getProductChangesHead();
+        
+        Map<Long, Entry> loaded = new HashMap<>();
+        boolean truncated = false;
+        String listCursor = null;
+        CursorPage<ProductSummary> page;
+        do {
+            page = productClient.getProductsByCursor(listCursor, pageSize);
+            for (ProductSummary product : page.getContent()) {
+                if (loaded.size() >= maxProducts) {
+                    truncated = true;
+                    break;
+                }
+                loaded.put(product.getId(), new Entry(product.getId(), product.getName(), product.getUnit(),
+                        product.getPrice(), product.getStockQuantity()));
+            }
+            listCursor = page.getNextCursor();
+        } while (page.isHasNext() && !truncated);
+        
+        products.clear();
+        products.putAll(loaded);
+        complete = !truncated;
+        cursor = head;
+        log.info("Product replica loaded {} products{} in {} ms", loaded.size(),
+                truncated ? " (max-products reached)" : "", System.currentTimeMillis() - start);
+    }
+    
+    private void catchUp() {
+        CursorPage<ProductChangeResponse> page;
+        int applied = 0;
+        do {
+            page = productClient.getProductChanges(cursor, pageSize);
+            for (ProductChangeResponse change : page.getContent()) {
+                apply(change);
+            }
+            applied += page.getContent().size();
+            cursor = page.getNextCursor();
+        } while (page.isHasNext());
+        
+        syncedAt = System.nanoTime();
+        synced = true;
+        if (applied > 0) {
+            log.debug("Product replica applied {} changes", applied);
+        }
+    }
+    
+    private void apply(ProductChangeResponse change) {
+        Long productId = change.getProductId();
+        if (!Boolean.TRUE.equals(change.getIsActive())) {
+            products.remove(productId);
+        } else if (products.size() < maxProducts || products.containsKey(productId)) {
+            products.put(productId, new Entry(productId, change.getName(), change.getUnit(),
+                    change.getPrice(), change.getStockQuantity()));
+        } else {
+            complete = false;
+        }
+    }
+    
+    private static final class Entry {
+        
+        private final Long id;
+        private final String name;
+        private final String unit;
+        private final BigDecimal price;
+        private final Integer stockQuantity;
+        
+        private Entry(Long id, String name, String unit, BigDecimal price, Integer stockQuantity) {
+            this.id = id;
+            this.name = name;
+            this.unit = unit;
+            this.price = price;
+            this.stockQuantity = stockQuantity;
+        }
+        
+        private ProductResponse toResponse() {
+            ProductResponse response = new ProductResponse();
+            response.setId(id);
+            response.setName(name);
+            response.setUnit(unit);
+            response.setPrice(price);
+            response.setStockQuantity(stockQuantity);
+            response.setIsActive(true);
+            return response;
+        }
+    }
+}
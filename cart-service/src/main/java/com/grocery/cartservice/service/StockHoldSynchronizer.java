@@ -0,0 +1,129 @@
+package com.grocery.cartservice.service;
+
+import com.grocery.cartservice.client.ProductClient;
+import com.grocery.cartservice.model.Cart;
+import com.grocery.cartservice.model.CartItem;
+import feign.FeignException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the catalog's stock holds in line with committed carts, off the
+ * request path.
+ *
+ * CartService marks the products a change touched once the change has
+ * committed. Every cart.stock-holds.sync-interval-ms the marked carts are read
+ * back and the user's holds on those products are set to the committed line
+ * quantities in one catalog call, zero releasing a hold. If the catalog cannot
+ * be reached the user stays marked and is synced on a later run. A change
+ * committed elsewhere while the call was in flight moves the cart version, and
+ * the user is then synced again so the holds end up matching the newest
+ * cart, not the one that was read. Holds are
+ * best-effort: an order commit takes lines without a hold from free stock and
+ * is only refused when stock is really short.
+ */
+@Component
+public class StockHoldSynchronizer {
+    
+    private static final Logger log = LoggerFactory.getLogger(StockHoldSynchronizer.class);
+    
+    @Autowired
+    private CartStore cartStore;
+    
+    @Autowired
+    private ProductClient productClient;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    // User id -> products whose hold may not match the committed cart
+    private final Map<String, Set<Long>> pending = new ConcurrentHashMap<>();
+    
+    /**
+     * Queues the user's holds on these products for syncing. Call only after
+     * the cart change has committed.
+     */
+    public void markChanged(String userId, Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        pending.merge(userId, new HashSet<>(productIds), (queued, added) -> {
+            queued.addAll(added);
+            return queued;
+        });
+    }
+    
+    @Scheduled(initialDelayString = "${cart.stock-holds.sync-interval-ms:200}",
+               fixedDelayString = "${cart.stock-holds.sync-interval-ms:200}")
+    public void syncPending() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        for (String userId : new ArrayList<>(pending.keySet())) {
+            Set<Long> productIds = pending.remove(userId);
+            if (productIds == null) {
+                continue;
+            }
+            try {
+                sync(userId, productIds, transaction);
+            } catch (RuntimeException e) {
+                // The catalog is most likely down; everyone left waits for the next run
+                markChanged(userId, productIds);
+                log.warn("Stock holds of user {} not synced, will retry: {}", userId, e.getMessage());
+                return;
+            }
+        }
+    }
+    
+    private void sync(String userId, Set<Long> productIds, TransactionTemplate transaction) {
+        Optional<Cart> cart = transaction.execute(status -> cartStore.find(userId));
+        Map<Long, Integer> committed = cart
+                .map(found -> found.getItems().stream()
+                        .collect(Collectors.toMap(CartItem::getProductId, CartItem::getQuantity)))
+                .orElse(Map.of());
+        
+        Map<Long, Integer> holds = new HashMap<>();
+        for (Long productId : productIds) {
+            holds.put(productId, committed.getOrDefault(productId, 0));
+        }
+        try {
+            productClient.holdAllStock(userId, holds);
+        } catch (FeignException.Conflict e) {
+            // Some line is short of stock; hold the others one by one
+            holds.forEach((productId, quantity) -> holdLine(userId, productId, quantity));
+        }
+        
+        Long syncedVersion = cart.map(Cart::getVersion).orElse(null);
+        Long currentVersion = transaction.execute(status -> cartStore.find(userId).map(Cart::getVersion).orElse(null));
+        if (!Objects.equals(syncedVersion, currentVersion)) {
+            markChanged(userId, productIds);
+        }
+    }
+    
+    private void holdLine(String userId, Long productId, int quantity) {
+        try {
+            if (quantity == 0) {
+                productClient.releaseStock(userId, productId);
+            } else {
+                productClient.holdStock(userId, productId, quantity);
+            }
+        } catch (FeignException.Conflict e) {
+            log.debug("Hold of {} units of product {} for user {} refused", quantity, productId, userId);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.grocery.cartservice;
+
+import com.grocery.cartservice.client.ProductClient;
+import com.grocery.cartservice.client.ProductResponse;
+import com.grocery.cartservice.dto.CartItemRequest;
+import com.grocery.cartservice.dto.CartResponse;
+import com.grocery.cartservice.service.CartService;
+import com.grocery.cartservice.service.StockHoldSynchronizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Concurrent changes to one cart must neither duplicate lines nor lose quantity
+@SpringBootTest(properties = {
+        "spring.config.import=optional:configserver:",
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=update",
+        "service.product.url=http://localhost:1",
+        "cart.product-replica.enabled=false",
+        "cart.concurrency.max-attempts=50",
+        "cart.concurrency.backoff=5ms",
+        "cart.stock-holds.sync-interval-ms=3600000"
+})
+@Testcontainers
+class CartConcurrencyIntegrationTest {
+
+    private static final int THREADS = 8;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("cart_service_test_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private StockHoldSynchronizer stockHoldSynchronizer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private ProductClient productClient;
+
+    @BeforeEach
+    void stubCatalog() {
+        when(productClient.getProductById(anyLong())).thenAnswer(invocation -> {
+            ProductResponse product = new ProductResponse();
+            product.setId(invocation.getArgument(0));
+            product.setName("Product " + invocation.getArgument(0));
+            product.setUnit("each");
+            product.setPrice(new BigDecimal("2.00"));
+            product.setStockQuantity(1000);
+            product.setIsActive(true);
+            return product;
+        });
+    }
+
+    @Test
+    void testConcurrentAddsOfOneProductKeepEveryUnit() throws Exception {
+        // Given
+        CartResponse cart = cartService.getCart("concurrent-user-1");
+
+        // When
+        runConcurrently(() -> cartService.addItemToCart("concurrent-user-1", new CartItemRequest(1L, 1)));
+
+        // Then
+        assertEquals(1, countItems(cart.getId()));
+        assertEquals(THREADS, jdbcTemplate.queryForObject(
+                "SELECT quantity FROM cart_items WHERE cart_id = ? AND product_id = 1", Integer.class, cart.getId()));
+    }
+
+    @Test
+    void testConcurrentFirstAddsCreateOneCartAndOneLine() throws Exception {
+        // When
+        runConcurrently(() -> cartService.addItemToCart("concurrent-user-2", new CartItemRequest(1L, 1)));
+
+        // Then
+        Long cartId = jdbcTemplate.queryForObject(
+                "SELECT id FROM carts WHERE user_id = ?", Long.class, "concurrent-user-2");
+        assertEquals(1, countItems(cartId));
+        assertEquals(new BigDecimal("16.00"), cartService.getCart("concurrent-user-2").getTotalAmount());
+    }
+
+    @Test
+    void testHoldsFollowTheCommittedCartAfterConcurrentAdds() throws Exception {
+        // Given
+        runConcurrently(() -> cartService.addItemToCart("concurrent-user-3", new CartItemRequest(1L, 1)));
+
+        // When
+        stockHoldSynchronizer.syncPending();
+
+        // Then: one hold for every committed unit, none set while changes were being retried
+        verify(productClient, times(1)).holdAllStock(eq("concurrent-user-3"), eq(Map.of(1L, THREADS)));
+        verify(productClient, never()).holdStock(anyString(), anyLong(), anyInt());
+    }
+
+    @Test
+    void testRejectedChangeLeavesHoldsAlone() {
+        // Given
+        cartService.addItemToCart("concurrent-user-4", new CartItemRequest(1L, 1));
+        stockHoldSynchronizer.syncPending();
+
+        // When: more than the product's stock
+        assertThrows(RuntimeException.class,
+                () -> cartService.addItemToCart("concurrent-user-4", new CartItemRequest(1L, 2000)));
+        stockHoldSynchronizer.syncPending();
+
+        // Then
+        verify(productClient, times(1)).holdAllStock(eq("concurrent-user-4"), anyMap());
+        verify(productClient).holdAllStock(eq("concurrent-user-4"), eq(Map.of(1L, 1)));
+    }
+
+    @Test
+    void testChangeCommittedDuringSyncIsSyncedAgain() {
+        // Given
+        CartResponse cart = cartService.addItemToCart("concurrent-user-5", new CartItemRequest(1L, 2));
+        AtomicBoolean first = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            if (first.getAndSet(false)) {
+                // Another instance commits a change while the holds are being set
+                jdbcTemplate.update("UPDATE cart_items SET quantity = 5 WHERE cart_id = ?", cart.getId());
+                jdbcTemplate.update("UPDATE carts SET version = version + 1 WHERE id = ?", cart.getId());
+            }
+            return null;
+        }).when(productClient).holdAllStock(eq("concurrent-user-5"), anyMap());
+
+        // When
+        stockHoldSynchronizer.syncPending();
+        stockHoldSynchronizer.syncPending();
+
+        // Then: the second run sets the hold from the newer cart
+        verify(productClient).holdAllStock(eq("concurrent-user-5"), eq(Map.of(1L, 2)));
+        verify(productClient).holdAllStock(eq("concurrent-user-5"), eq(Map.of(1L, 5)));
+    }
+
+    private void runConcurrently(Runnable change) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    change.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                // Rethrows if any change failed after exhausting its retries
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int countItems(Long cartId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cart_items WHERE cart_id = ?", Integer.class, cartId);
+    }
+}
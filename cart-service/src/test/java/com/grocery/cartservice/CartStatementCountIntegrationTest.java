@@ -0,0 +1,240 @@
+package com.grocery.cartservice;
+
+import com.grocery.cartservice.client.ProductClient;
+import com.grocery.cartservice.client.ProductResponse;
+import com.grocery.cartservice.dto.CartItemOperation;
+import com.grocery.cartservice.dto.CartItemRequest;
+import com.grocery.cartservice.dto.CartResponse;
+import com.grocery.cartservice.model.Cart;
+import com.grocery.cartservice.model.CartItem;
+import com.grocery.cartservice.repository.CartRepository;
+import com.grocery.cartservice.service.CartService;
+import com.grocery.cartservice.service.StockHoldSynchronizer;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Every cart operation should load the cart and its items with a single SELECT
+@SpringBootTest(properties = {
+        "spring.config.import=optional:configserver:",
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=update",
+        "service.product.url=http://localhost:1",
+        "cart.product-replica.enabled=false",
+        // Holds are synced by hand below so the sync's own SELECT is not counted
+        "cart.stock-holds.sync-interval-ms=3600000",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.grocery.cartservice.CartStatementCountIntegrationTest$SelectCounter"
+})
+@Testcontainers
+class CartStatementCountIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("cart_service_test_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private StockHoldSynchronizer stockHoldSynchronizer;
+
+    @MockBean
+    private ProductClient productClient;
+
+    @BeforeEach
+    void stubCatalog() {
+        when(productClient.getProductById(anyLong())).thenAnswer(invocation -> product(invocation.getArgument(0)));
+    }
+
+    @Test
+    void testGetCartIsOneSelect() {
+        // Given
+        seedCart("count-user-1");
+
+        // When
+        SelectCounter.reset();
+        CartResponse cart = cartService.getCart("count-user-1");
+
+        // Then
+        assertEquals(3, cart.getItems().size());
+        assertEquals(1, SelectCounter.count());
+    }
+
+    @Test
+    void testGetNewCartIsOneSelect() {
+        // When
+        SelectCounter.reset();
+        CartResponse cart = cartService.getCart("count-user-2");
+
+        // Then
+        assertTrue(cart.getItems().isEmpty());
+        assertEquals(1, SelectCounter.count());
+    }
+
+    @Test
+    void testAddItemIsOneSelect() {
+        // Given
+        seedCart("count-user-3");
+
+        // When
+        SelectCounter.reset();
+        CartResponse cart = cartService.addItemToCart("count-user-3", new CartItemRequest(4L, 1));
+
+        // Then
+        assertEquals(4, cart.getItems().size());
+        assertEquals(1, SelectCounter.count());
+    }
+
+    @Test
+    void testUpdateItemIsOneSelect() {
+        // Given
+        seedCart("count-user-4");
+
+        // When
+        SelectCounter.reset();
+        CartResponse cart = cartService.updateCartItem("count-user-4", 2L, new CartItemRequest(2L, 5));
+
+        // Then
+        assertEquals(3, cart.getItems().size());
+        assertEquals(1, SelectCounter.count());
+    }
+
+    @Test
+    void testRemoveItemIsOneSelect() {
+        // Given
+        seedCart("count-user-5");
+
+        // When
+        SelectCounter.reset();
+        CartResponse cart = cartService.removeItemFromCart("count-user-5", 1L);
+
+        // Then
+        assertEquals(2, cart.getItems().size());
+        assertEquals(1, SelectCounter.count());
+    }
+
+    @Test
+    void testClearCartIsOneSelect() {
+        // Given
+        seedCart("count-user-6");
+
+        // When
+        SelectCounter.reset();
+        CartResponse cart = cartService.clearCart("count-user-6");
+
+        // Then
+        assertTrue(cart.getItems().isEmpty());
+        assertEquals(1, SelectCounter.count());
+    }
+
+    @Test
+    void testBatchOperationsAreOneSelectAndOneCatalogCall() {
+        // Given
+        seedCart("count-user-7");
+        when(productClient.getProductsByIds(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(CartStatementCountIntegrationTest::product).toList();
+        });
+        List<CartItemOperation> operations = List.of(
+                new CartItemOperation(CartItemOperation.Type.ADD, 4L, 2),
+                new CartItemOperation(CartItemOperation.Type.ADD, 1L, 1),
+                new CartItemOperation(CartItemOperation.Type.UPDATE, 2L, 5),
+                new CartItemOperation(CartItemOperation.Type.REMOVE, 3L, null));
+
+        // When
+        SelectCounter.reset();
+        CartResponse cart = cartService.applyItemOperations("count-user-7", operations);
+
+        // Then
+        assertEquals(3, cart.getItems().size());
+        assertEquals(new BigDecimal("18.00"), cart.getTotalAmount());
+        assertEquals(1, SelectCounter.count());
+        verify(productClient, times(1)).getProductsByIds(anyList());
+        verify(productClient, never()).getProductById(anyLong());
+        verify(productClient, never()).holdAllStock(anyString(), anyMap());
+
+        // When: the committed change is synced to the catalog
+        stockHoldSynchronizer.syncPending();
+
+        // Then: one call resizes every changed line, zero releasing the removed one
+        verify(productClient, times(1)).holdAllStock(eq("count-user-7"), eq(Map.of(4L, 2, 1L, 2, 2L, 5, 3L, 0)));
+    }
+
+    private static ProductResponse product(Long id) {
+        ProductResponse product = new ProductResponse();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setUnit("each");
+        product.setPrice(new BigDecimal("2.00"));
+        product.setStockQuantity(100);
+        product.setIsActive(true);
+        return product;
+    }
+
+    private void seedCart(String userId) {
+        Cart cart = new Cart(userId);
+        for (long productId = 1; productId <= 3; productId++) {
+            cart.addItem(new CartItem(productId, "Product " + productId, "each", 1, new BigDecimal("2.00")));
+        }
+        cartRepository.save(cart);
+    }
+
+    public static class SelectCounter implements StatementInspector {
+
+        private static final AtomicInteger SELECTS = new AtomicInteger();
+
+        static void reset() {
+            SELECTS.set(0);
+        }
+
+        static int count() {
+            return SELECTS.get();
+        }
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.trim().toLowerCase(Locale.ROOT).startsWith("select")) {
+                SELECTS.incrementAndGet();
+            }
+            return sql;
+        }
+    }
+}
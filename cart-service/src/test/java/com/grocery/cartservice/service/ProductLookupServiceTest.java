@@ -0,0 +1,95 @@
+package com.grocery.cartservice.service;
+
+import com.grocery.cartservice.client.ProductClient;
+import com.grocery.cartservice.client.ProductResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductLookupServiceTest {
+
+    private ProductClient productClient;
+
+    private ProductReplica productReplica;
+
+    private ProductLookupService lookupService;
+
+    @BeforeEach
+    void setUp() {
+        productClient = mock(ProductClient.class);
+        productReplica = mock(ProductReplica.class);
+        lookupService = new ProductLookupService();
+        ReflectionTestUtils.setField(lookupService, "productClient", productClient);
+        ReflectionTestUtils.setField(lookupService, "productReplica", productReplica);
+        ReflectionTestUtils.setField(lookupService, "batchSize", 2);
+    }
+
+    @Test
+    void testRemainingIdsAreFetchedInBatchSizedChunks() {
+        // Given: the catalog leaves out id 3, which is unknown or inactive
+        when(productReplica.canAnswer(any())).thenReturn(false);
+        when(productClient.getProductsByIds(List.of(1L, 2L))).thenReturn(List.of(product(1L), product(2L)));
+        when(productClient.getProductsByIds(List.of(3L, 4L))).thenReturn(List.of(product(4L)));
+        when(productClient.getProductsByIds(List.of(5L))).thenReturn(List.of(product(5L)));
+
+        // When: repeated ids are asked for once
+        Map<Long, ProductResponse> products = lookupService.getProducts(List.of(1L, 2L, 3L, 2L, 4L, 5L));
+
+        // Then
+        assertEquals(Set.of(1L, 2L, 4L, 5L), products.keySet());
+        verify(productClient).getProductsByIds(List.of(1L, 2L));
+        verify(productClient).getProductsByIds(List.of(3L, 4L));
+        verify(productClient).getProductsByIds(List.of(5L));
+    }
+
+    @Test
+    void testReplicaAnswersAreNotFetchedAgain() {
+        // Given: the replica knows 1, knows 2 is gone, and has not seen 3
+        when(productReplica.canAnswer(1L)).thenReturn(true);
+        when(productReplica.canAnswer(2L)).thenReturn(true);
+        when(productReplica.canAnswer(3L)).thenReturn(false);
+        when(productReplica.get(1L)).thenReturn(product(1L));
+        when(productReplica.get(2L)).thenReturn(null);
+        when(productClient.getProductsByIds(List.of(3L))).thenReturn(List.of(product(3L)));
+
+        // When
+        Map<Long, ProductResponse> products = lookupService.getProducts(List.of(1L, 2L, 3L));
+
+        // Then
+        assertEquals(Set.of(1L, 3L), products.keySet());
+        verify(productClient).getProductsByIds(List.of(3L));
+    }
+
+    @Test
+    void testCatalogIsNotCalledWhenReplicaAnswersEverything() {
+        // Given
+        when(productReplica.canAnswer(any())).thenReturn(true);
+        when(productReplica.get(1L)).thenReturn(product(1L));
+
+        // When
+        Map<Long, ProductResponse> products = lookupService.getProducts(List.of(1L, 2L));
+
+        // Then
+        assertEquals(Set.of(1L), products.keySet());
+        verify(productClient, never()).getProductsByIds(anyList());
+    }
+
+    private static ProductResponse product(Long id) {
+        ProductResponse product = new ProductResponse();
+        product.setId(id);
+        product.setIsActive(true);
+        return product;
+    }
+}
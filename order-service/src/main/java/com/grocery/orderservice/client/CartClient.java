@@ -1,6 +1,7 @@
 package com.grocery.orderservice.client;
 
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 
@@ -9,4 +10,7 @@ public interface CartClient {
     
     @GetMapping("/api/cart")
     CartResponse getCart(@RequestHeader("Authorization") String authorization);
+    
+    @DeleteMapping("/api/cart")
+    CartResponse clearCart(@RequestHeader("Authorization") String authorization);
 }
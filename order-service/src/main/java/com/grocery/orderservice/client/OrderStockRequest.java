@@ -0,0 +1,24 @@
+package com.grocery.orderservice.client;
+
+import java.util.List;
+
+public class OrderStockRequest {
+    
+    private List<StockDecrementRequest> items;
+    
+    // Constructors
+    public OrderStockRequest() {}
+    
+    public OrderStockRequest(List<StockDecrementRequest> items) {
+        this.items = items;
+    }
+    
+    // Getters and Setters
+    public List<StockDecrementRequest> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<StockDecrementRequest> items) {
+        this.items = items;
+    }
+}
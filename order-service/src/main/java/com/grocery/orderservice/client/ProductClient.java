@@ -0,0 +1,17 @@
+package com.grocery.orderservice.client;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@FeignClient(name = "product-catalog-service", url = "${service.product.url}")
+public interface ProductClient {
+    
+    // Consumes the user's cart holds first and releases the rest; responds 409 if
+    // any line has insufficient stock. A replay for the same order id changes nothing
+    @PostMapping("/api/reservations/{ownerId}/commit")
+    void commitReservations(@PathVariable("ownerId") String ownerId, @RequestParam("orderId") Long orderId,
+                            @RequestBody OrderStockRequest request);
+}
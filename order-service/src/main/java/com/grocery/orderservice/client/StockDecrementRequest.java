@@ -0,0 +1,32 @@
+package com.grocery.orderservice.client;
+
+public class StockDecrementRequest {
+    
+    private Long productId;
+    private Integer quantity;
+    
+    // Constructors
+    public StockDecrementRequest() {}
+    
+    public StockDecrementRequest(Long productId, Integer quantity) {
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+    
+    // Getters and Setters
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public Integer getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+}
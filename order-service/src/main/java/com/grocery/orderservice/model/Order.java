@@ -30,6 +30,10 @@ public class Order {
     @Column(name = "shipping_address")
     private String shippingAddress;
     
+    // False until the catalog confirms the stock commit; rows from before the column existed count as committed
+    @Column(name = "stock_committed", nullable = false, columnDefinition = "boolean default true")
+    private boolean stockCommitted;
+    
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
@@ -115,6 +119,14 @@ public class Order {
         this.shippingAddress = shippingAddress;
     }
     
+    public boolean isStockCommitted() {
+        return stockCommitted;
+    }
+    
+    public void setStockCommitted(boolean stockCommitted) {
+        this.stockCommitted = stockCommitted;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -3,10 +3,15 @@ package com.grocery.orderservice.repository;
 import com.grocery.orderservice.model.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -16,4 +21,14 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByUserIdOrderByCreatedAtDesc(String userId);
     
     List<Order> findByStatus(com.grocery.orderservice.model.OrderStatus status);
+    
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsById(Long id);
+    
+    // Orders still waiting for a confirmed stock commit, oldest first
+    @Query("SELECT o.id FROM Order o WHERE o.status = :status AND o.stockCommitted = false " +
+           "AND o.createdAt < :before ORDER BY o.id")
+    List<Long> findUncommittedIds(@Param("status") com.grocery.orderservice.model.OrderStatus status,
+                                  @Param("before") LocalDateTime before,
+                                  Pageable pageable);
 }
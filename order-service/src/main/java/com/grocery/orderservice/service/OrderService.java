@@ -3,6 +3,9 @@ package com.grocery.orderservice.service;
 import com.grocery.orderservice.client.CartClient;
 import com.grocery.orderservice.client.CartItemResponse;
 import com.grocery.orderservice.client.CartResponse;
+import com.grocery.orderservice.client.OrderStockRequest;
+import com.grocery.orderservice.client.ProductClient;
+import com.grocery.orderservice.client.StockDecrementRequest;
 import com.grocery.orderservice.dto.OrderRequest;
 import com.grocery.orderservice.dto.OrderResponse;
 import com.grocery.orderservice.dto.OrderItemResponse;
@@ -10,12 +13,23 @@ import com.grocery.orderservice.model.Order;
 import com.grocery.orderservice.model.OrderItem;
 import com.grocery.orderservice.model.OrderStatus;
 import com.grocery.orderservice.repository.OrderRepository;
+import feign.FeignException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,12 +37,38 @@ import java.util.stream.Collectors;
 @Transactional
 public class OrderService {
     
+    private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+    
     @Autowired
     private OrderRepository orderRepository;
     
     @Autowired
     private CartClient cartClient;
     
+    @Autowired
+    private ProductClient productClient;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${order.stock-commit.max-attempts:3}")
+    private int stockCommitMaxAttempts;
+    
+    @Value("${order.stock-commit.reconcile-after:2m}")
+    private Duration reconcileAfter;
+    
+    @Value("${order.stock-commit.reconcile-batch-size:100}")
+    private int reconcileBatchSize;
+    
+    /**
+     * Saves the order first, then commits its stock in the catalog keyed by the
+     * order id, so a retried commit never decrements twice. Only a refusal (409)
+     * cancels the order. If the catalog stays unreachable the commit may or may
+     * not have been applied, so the order stays PENDING and
+     * reconcileStockCommits replays it. The cart is cleared afterwards so the
+     * same cart cannot be ordered again.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public OrderResponse placeOrder(String userId, OrderRequest request, String authorization) {
         // Get user's cart
         CartResponse cart = cartClient.getCart(authorization);
@@ -48,7 +88,28 @@ public class OrderService {
         
         order.setItems(orderItems);
         
-        Order savedOrder = orderRepository.save(order);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Order savedOrder = transaction.execute(status -> orderRepository.save(order));
+        
+        // Turn the cart's stock holds into real decrements in one atomic catalog call;
+        // fails the order if any line is short
+        List<StockDecrementRequest> stockLines = stockLines(orderItems);
+        try {
+            commitStock(userId, savedOrder.getId(), new OrderStockRequest(stockLines));
+            transaction.executeWithoutResult(status -> markStockCommitted(savedOrder.getId()));
+        } catch (FeignException.Conflict e) {
+            transaction.executeWithoutResult(status -> cancel(savedOrder.getId()));
+            throw new RuntimeException("Insufficient stock for order " + savedOrder.getId(), e);
+        } catch (RuntimeException e) {
+            log.warn("Stock commit for order {} unconfirmed, left pending for reconciliation: {}",
+                    savedOrder.getId(), e.getMessage());
+        }
+        
+        try {
+            cartClient.clearCart(authorization);
+        } catch (RuntimeException e) {
+            log.warn("Order {} placed but cart of user {} was not cleared: {}", savedOrder.getId(), userId, e.getMessage());
+        }
         return convertToResponse(savedOrder);
     }
     
@@ -84,6 +145,74 @@ public class OrderService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Replays the stock commit of PENDING orders whose commit was never
+     * confirmed. The catalog applies a commit at most once per order id, so a
+     * replay of one that did go through just confirms it; a refusal (409)
+     * cancels the order.
+     */
+    @Scheduled(initialDelayString = "${order.stock-commit.reconcile-interval-ms:60000}",
+               fixedDelayString = "${order.stock-commit.reconcile-interval-ms:60000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void reconcileStockCommits() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        // Orders younger than this may still be inside placeOrder
+        LocalDateTime before = LocalDateTime.now().minus(reconcileAfter);
+        List<Long> orderIds = orderRepository.findUncommittedIds(
+                OrderStatus.PENDING, before, PageRequest.of(0, reconcileBatchSize));
+        
+        for (Long orderId : orderIds) {
+            Order order = transaction.execute(status -> orderRepository.findWithItemsById(orderId).orElse(null));
+            if (order == null || order.getStatus() != OrderStatus.PENDING || order.isStockCommitted()) {
+                continue;
+            }
+            try {
+                productClient.commitReservations(order.getUserId(), orderId,
+                        new OrderStockRequest(stockLines(order.getItems())));
+                transaction.executeWithoutResult(status -> markStockCommitted(orderId));
+                log.info("Stock commit for order {} confirmed by reconciliation", orderId);
+            } catch (FeignException.Conflict e) {
+                transaction.executeWithoutResult(status -> cancel(orderId));
+                log.warn("Order {} cancelled: catalog refused its stock commit", orderId);
+            } catch (RuntimeException e) {
+                // Still unreachable; the remaining orders wait for the next run
+                log.warn("Stock commit for order {} still unconfirmed: {}", orderId, e.getMessage());
+                return;
+            }
+        }
+    }
+    
+    // The catalog commit is idempotent per order id, so anything but a refusal is retried
+    private void commitStock(String userId, Long orderId, OrderStockRequest request) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                productClient.commitReservations(userId, orderId, request);
+                return;
+            } catch (FeignException.Conflict e) {
+                throw e;
+            } catch (RuntimeException e) {
+                if (attempt >= stockCommitMaxAttempts) {
+                    throw e;
+                }
+                log.warn("Stock commit for order {} failed, retrying: {}", orderId, e.getMessage());
+            }
+        }
+    }
+    
+    private void markStockCommitted(Long orderId) {
+        orderRepository.findById(orderId).ifPresent(order -> order.setStockCommitted(true));
+    }
+    
+    private void cancel(Long orderId) {
+        orderRepository.findById(orderId).ifPresent(order -> order.setStatus(OrderStatus.CANCELLED));
+    }
+    
+    private List<StockDecrementRequest> stockLines(List<OrderItem> items) {
+        return items.stream()
+                .map(item -> new StockDecrementRequest(item.getProductId(), item.getQuantity()))
+                .collect(Collectors.toList());
+    }
+    
     private OrderItem convertToOrderItem(CartItemResponse cartItem) {
         return new OrderItem(
                 cartItem.getProductId(),
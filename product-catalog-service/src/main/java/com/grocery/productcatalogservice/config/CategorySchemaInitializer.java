@@ -0,0 +1,43 @@
+package com.grocery.productcatalogservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Makes category names unique among siblings, ignoring case.
+ *
+ * Hibernate's ddl-auto cannot express expression indexes, so the index is
+ * created here before CategoryService seeds roots from legacy products. Roots
+ * have no parent; COALESCE puts them under parent 0 so they are compared too.
+ */
+@Component
+public class CategorySchemaInitializer {
+    
+    private static final Logger log = LoggerFactory.getLogger(CategorySchemaInitializer.class);
+    
+    private static final String UNIQUE_SIBLING_NAME_SQL =
+            "CREATE UNIQUE INDEX IF NOT EXISTS idx_categories_parent_lower_name " +
+            "ON categories (COALESCE(parent_id, 0), LOWER(name))";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @EventListener(ApplicationStartedEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void initialize() {
+        try {
+            jdbcTemplate.execute(UNIQUE_SIBLING_NAME_SQL);
+        } catch (DataIntegrityViolationException e) {
+            // Existing duplicates have to be merged by hand; the service-level check still applies meanwhile
+            log.warn("Sibling categories differ only by case; unique name index not created: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.grocery.productcatalogservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prepares the products table for product.search.mode=fulltext.
+ *
+ * Hibernate's ddl-auto cannot express generated tsvector columns or GIN
+ * operator classes, so they are applied here once the schema exists. Every
+ * statement is idempotent and safe to run on each startup.
+ */
+@Component
+@ConditionalOnProperty(name = "product.search.mode", havingValue = "fulltext")
+public class FullTextSearchSchemaInitializer {
+    
+    private static final Logger log = LoggerFactory.getLogger(FullTextSearchSchemaInitializer.class);
+    
+    private static final String[] STATEMENTS = {
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+            // Postgres keeps the generated column in sync on every insert and update
+            "ALTER TABLE products ADD COLUMN IF NOT EXISTS search_vector tsvector " +
+                    "GENERATED ALWAYS AS (" +
+                    "setweight(to_tsvector('english', coalesce(name, '')), 'A') || " +
+                    "setweight(to_tsvector('english', coalesce(category, '')), 'B') || " +
+                    "setweight(to_tsvector('english', coalesce(description, '')), 'C')) STORED",
+            "CREATE INDEX IF NOT EXISTS idx_products_search_vector ON products USING GIN (search_vector)",
+            "CREATE INDEX IF NOT EXISTS idx_products_name_trgm ON products USING GIN (name gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_products_category_trgm ON products USING GIN (category gin_trgm_ops)"
+    };
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @EventListener(ApplicationStartedEvent.class)
+    public void initialize() {
+        for (String statement : STATEMENTS) {
+            jdbcTemplate.execute(statement);
+        }
+        log.info("Full-text search columns and indexes are in place");
+    }
+}
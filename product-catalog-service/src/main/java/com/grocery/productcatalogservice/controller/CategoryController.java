@@ -0,0 +1,77 @@
+package com.grocery.productcatalogservice.controller;
+
+import com.grocery.productcatalogservice.dto.CategoryRequest;
+import com.grocery.productcatalogservice.dto.CategoryResponse;
+import com.grocery.productcatalogservice.dto.ProductSummary;
+import com.grocery.productcatalogservice.service.CategoryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/categories")
+@Tag(name = "Categories", description = "Hierarchical category tree and subtree product listings")
+public class CategoryController {
+    
+    @Autowired
+    private CategoryService categoryService;
+    
+    @GetMapping
+    @Operation(summary = "Get category tree", description = "Full category tree for navigation menus, served from memory")
+    public ResponseEntity<List<CategoryResponse>> getMenu() {
+        return ResponseEntity.ok(categoryService.getMenu());
+    }
+    
+    @GetMapping("/{id}")
+    @Operation(summary = "Get category", description = "A category with its subtree")
+    public ResponseEntity<CategoryResponse> getCategory(@PathVariable Integer id) {
+        try {
+            return ResponseEntity.ok(categoryService.getCategory(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @GetMapping("/{id}/products")
+    @Operation(summary = "Get products in category subtree", description = "Active products in the category and all of its descendants")
+    public ResponseEntity<Page<ProductSummary>> getProducts(
+            @PathVariable Integer id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(categoryService.getProductsInSubtree(id,
+                    PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, 100)))));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @PostMapping
+    @Operation(summary = "Create category", description = "Create a root category, or a child when parentId is given (Admin only)")
+    public ResponseEntity<CategoryResponse> createCategory(@Valid @RequestBody CategoryRequest request) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(categoryService.createCategory(request));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PutMapping("/{id}")
+    @Operation(summary = "Rename category", description = "Rename a category; products in it pick up the new name (Admin only)")
+    public ResponseEntity<CategoryResponse> renameCategory(@PathVariable Integer id,
+                                                           @Valid @RequestBody CategoryRequest request) {
+        try {
+            return ResponseEntity.ok(categoryService.renameCategory(id, request));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.grocery.productcatalogservice.controller;
+
+import com.grocery.productcatalogservice.dto.ProductResponse;
+import com.grocery.productcatalogservice.dto.ProductSummary;
+
+import java.util.Collection;
+
+/**
+ * Strong entity tags derived from product versions, so a conditional request
+ * can be answered with 304 before anything is serialized.
+ */
+final class ETags {
+    
+    private ETags() {}
+    
+    static String of(ProductResponse product) {
+        return "\"" + product.getId() + "-" + product.getVersion() + "\"";
+    }
+    
+    /**
+     * Tag for a list response: covers every (id, version) in order plus any
+     * page metadata that is serialized alongside the content.
+     */
+    static String of(Collection<ProductSummary> products, long... metadata) {
+        long hash = 0xcbf29ce484222325L;
+        for (long value : metadata) {
+            hash = mix(hash, value);
+        }
+        for (ProductSummary product : products) {
+            hash = mix(hash, product.getId());
+            hash = mix(hash, product.getVersion() == null ? -1 : product.getVersion());
+        }
+        return "\"" + products.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+    
+    // True when If-None-Match lists this tag (or "*"); weak comparison as RFC 9110 requires for GET
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static long mix(long hash, long value) {
+        // FNV-1a over the eight bytes of the value
+        for (int i = 0; i < 8; i++) {
+            hash ^= (value >>> (i * 8)) & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
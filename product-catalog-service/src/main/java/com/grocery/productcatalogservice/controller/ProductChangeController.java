@@ -0,0 +1,46 @@
+package com.grocery.productcatalogservice.controller;
+
+import com.grocery.productcatalogservice.dto.CursorPage;
+import com.grocery.productcatalogservice.dto.ProductChangeResponse;
+import com.grocery.productcatalogservice.service.ProductChangeFeedService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/products/changes")
+@Tag(name = "Product Changes", description = "Sequenced feed of committed product changes for local replicas")
+public class ProductChangeController {
+    
+    private static final int MAX_WAIT_SECONDS = 30;
+    
+    @Autowired
+    private ProductChangeFeedService changeFeedService;
+    
+    @GetMapping
+    @Operation(summary = "Read product changes", description = "Changes after the given cursor, oldest first; with waitSeconds > 0 the request is held open until a change arrives (long-poll)")
+    public DeferredResult<CursorPage<ProductChangeResponse>> getChanges(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "0") int waitSeconds) {
+        Duration wait = Duration.ofSeconds(Math.max(0, Math.min(waitSeconds, MAX_WAIT_SECONDS)));
+        try {
+            return changeFeedService.pollChanges(cursor, limit, wait);
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+    
+    @GetMapping("/head")
+    @Operation(summary = "Get feed head", description = "Cursor positioned after the latest committed change")
+    public ResponseEntity<String> getHeadCursor() {
+        return ResponseEntity.ok(changeFeedService.getHeadCursor());
+    }
+}
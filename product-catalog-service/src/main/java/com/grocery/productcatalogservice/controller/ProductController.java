@@ -1,20 +1,49 @@
 package com.grocery.productcatalogservice.controller;
 
+import com.grocery.productcatalogservice.dto.AvailabilityResponse;
+import com.grocery.productcatalogservice.dto.BulkPriceUpdateRequest;
+import com.grocery.productcatalogservice.dto.BulkUpdateResult;
+import com.grocery.productcatalogservice.dto.CatalogFormat;
+import com.grocery.productcatalogservice.dto.FacetSearchResult;
+import com.grocery.productcatalogservice.dto.CursorPage;
+import com.grocery.productcatalogservice.dto.ImportResult;
+import com.grocery.productcatalogservice.dto.OrderStockRequest;
+import com.grocery.productcatalogservice.dto.PopularProductResponse;
 import com.grocery.productcatalogservice.dto.ProductRequest;
 import com.grocery.productcatalogservice.dto.ProductResponse;
+import com.grocery.productcatalogservice.dto.ProductSummary;
+import com.grocery.productcatalogservice.dto.SuggestionResponse;
+import com.grocery.productcatalogservice.service.InsufficientStockException;
+import com.grocery.productcatalogservice.service.ProductBulkUpdateService;
+import com.grocery.productcatalogservice.service.ProductExportService;
+import com.grocery.productcatalogservice.service.ProductFacetIndex;
+import com.grocery.productcatalogservice.service.ProductImportService;
 import com.grocery.productcatalogservice.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Positive;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/products")
@@ -24,43 +53,155 @@ public class ProductController {
     @Autowired
     private ProductService productService;
     
+    @Autowired
+    private ProductImportService productImportService;
+    
+    @Autowired
+    private ProductExportService productExportService;
+    
+    @Autowired
+    private ProductBulkUpdateService productBulkUpdateService;
+    
     @GetMapping
     @Operation(summary = "Get all products", description = "Retrieve all active products with pagination")
-    public ResponseEntity<Page<ProductResponse>> getAllProducts(
+    public ResponseEntity<Page<ProductSummary>> getAllProducts(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<ProductResponse> products = productService.getAllProducts(pageable);
-        return ResponseEntity.ok(products);
+        Page<ProductSummary> products = productService.getAllProducts(pageable);
+        String etag = ETags.of(products.getContent(), page, size, products.getTotalElements());
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(products);
+    }
+    
+    @GetMapping("/cursor")
+    @Operation(summary = "Get products by cursor", description = "Keyset-paginated listing of active products; pass nextCursor from the previous page to continue")
+    public ResponseEntity<CursorPage<ProductSummary>> getProductsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(ProductService.CURSOR_MAX_SIZE) int size,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        CursorPage<ProductSummary> products;
+        try {
+            products = productService.getProductsAfter(cursor, size, sort, includeTotal);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        String etag = ETags.of(products.getContent(), size, products.isHasNext() ? 1 : 0,
+                products.getTotalElements() == null ? -1 : products.getTotalElements());
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(products);
     }
     
     @GetMapping("/{id}")
     @Operation(summary = "Get product by ID", description = "Retrieve a specific product by its ID")
-    public ResponseEntity<ProductResponse> getProductById(@PathVariable Long id) {
+    public ResponseEntity<ProductResponse> getProductById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        ProductResponse product;
         try {
-            ProductResponse product = productService.getProductById(id);
-            return ResponseEntity.ok(product);
+            product = productService.getProductById(id);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
+        String etag = ETags.of(product);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(product);
+    }
+    
+    @GetMapping("/batch")
+    @Operation(summary = "Get products by IDs", description = "Retrieve many active products in one request, e.g. ?ids=1,2,3")
+    public ResponseEntity<List<ProductResponse>> getProductsByIds(@RequestParam List<Long> ids) {
+        try {
+            return ResponseEntity.ok(productService.getProductsByIds(ids));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PostMapping("/batch")
+    @Operation(summary = "Get products by IDs", description = "Retrieve many active products in one request from a JSON array of IDs")
+    public ResponseEntity<List<ProductResponse>> getProductsByIdsPost(@RequestBody List<Long> ids) {
+        try {
+            return ResponseEntity.ok(productService.getProductsByIds(ids));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/search")
     @Operation(summary = "Search products", description = "Search products by name, description, or category")
-    public ResponseEntity<Page<ProductResponse>> searchProducts(
+    public ResponseEntity<Page<ProductSummary>> searchProducts(
             @RequestParam String q,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<ProductResponse> products = productService.searchProducts(q, pageable);
+        Page<ProductSummary> products = productService.searchProducts(q, pageable);
         return ResponseEntity.ok(products);
     }
     
+    @GetMapping("/popular")
+    @Operation(summary = "Get popular products", description = "Most viewed and ordered products over the recent sliding window")
+    public ResponseEntity<List<PopularProductResponse>> getPopularProducts(
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productService.getPopularProducts(limit));
+    }
+    
+    @GetMapping("/suggest")
+    @Operation(summary = "Autocomplete", description = "Top product names and categories for a type-ahead prefix, most popular first")
+    public ResponseEntity<List<SuggestionResponse>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(productService.suggest(prefix, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+    
+    @GetMapping("/facets")
+    @Operation(summary = "Filter products by facets", description = "Combine category, price band, shelf-life band and in-stock filters (repeat a parameter to OR values) and get live counts per facet value")
+    public ResponseEntity<FacetSearchResult> filterProducts(
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) List<String> price,
+            @RequestParam(required = false) List<String> shelfLife,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        Map<String, List<String>> selections = new HashMap<>();
+        selections.put(ProductFacetIndex.CATEGORY, category);
+        selections.put(ProductFacetIndex.PRICE, price);
+        selections.put(ProductFacetIndex.SHELF_LIFE, shelfLife);
+        selections.put(ProductFacetIndex.IN_STOCK, inStock == null ? null : List.of(inStock.toString()));
+        try {
+            return ResponseEntity.ok(productService.filterProducts(selections, page, size));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+    
     @GetMapping("/category/{category}")
     @Operation(summary = "Get products by category", description = "Retrieve all products in a specific category")
-    public ResponseEntity<List<ProductResponse>> getProductsByCategory(@PathVariable String category) {
-        List<ProductResponse> products = productService.getProductsByCategory(category);
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<ProductSummary>> getProductsByCategory(
+            @PathVariable String category,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        List<ProductSummary> products = productService.getProductsByCategory(category);
+        String etag = ETags.of(products);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(products);
     }
     
     @PostMapping
@@ -74,6 +215,66 @@ public class ProductController {
         }
     }
     
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Bulk import products", description = "Stream a CSV (with header) or NDJSON catalog; rows with a sku are upserted on it, rows with only an id update that product (Admin only)")
+    public ResponseEntity<ImportResult> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        CatalogFormat format = contentType.startsWith("text/csv") ? CatalogFormat.CSV : CatalogFormat.NDJSON;
+        try {
+            return ResponseEntity.ok(productImportService.importProducts(body, format));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PostMapping("/bulk/price")
+    @Operation(summary = "Bulk price change", description = "Apply a percentage or absolute price change to a category or id list in one statement (Admin only)")
+    public ResponseEntity<BulkUpdateResult> updatePrices(@RequestBody BulkPriceUpdateRequest request) {
+        try {
+            return ResponseEntity.ok(productBulkUpdateService.updatePrices(request));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PostMapping(value = "/bulk/stock", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Bulk stock update", description = "Stream id,quantity rows as CSV (with header) or NDJSON; mode=set replaces stock, mode=adjust adds the quantity (Admin only)")
+    public ResponseEntity<BulkUpdateResult> updateStock(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(defaultValue = "set") String mode,
+            InputStream body) {
+        CatalogFormat format = contentType.startsWith("text/csv") ? CatalogFormat.CSV : CatalogFormat.NDJSON;
+        try {
+            ProductBulkUpdateService.StockMode stockMode = ProductBulkUpdateService.StockMode.valueOf(mode.toUpperCase());
+            return ResponseEntity.ok(productBulkUpdateService.updateStock(body, format, stockMode));
+        } catch (IOException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/export")
+    @Operation(summary = "Export catalog", description = "Stream the full catalog (or rows changed since updatedSince) as gzip-compressed NDJSON or CSV")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince) {
+        CatalogFormat catalogFormat = "csv".equalsIgnoreCase(format) ? CatalogFormat.CSV : CatalogFormat.NDJSON;
+        StreamingResponseBody body = out -> {
+            GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024);
+            productExportService.export(gzip, catalogFormat, category, updatedSince);
+            gzip.finish();
+        };
+        return ResponseEntity.ok()
+                .contentType(catalogFormat == CatalogFormat.CSV
+                        ? MediaType.parseMediaType("text/csv")
+                        : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products."
+                        + (catalogFormat == CatalogFormat.CSV ? "csv" : "ndjson") + ".gz\"")
+                .body(body);
+    }
+    
     @PutMapping("/{id}")
     @Operation(summary = "Update product", description = "Update an existing product (Admin only)")
     public ResponseEntity<ProductResponse> updateProduct(
@@ -87,6 +288,40 @@ public class ProductController {
         }
     }
     
+    @GetMapping("/{id}/availability")
+    @Operation(summary = "Get availability", description = "Stock on hand minus units held by active reservations")
+    public ResponseEntity<AvailabilityResponse> getAvailability(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(productService.getAvailability(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @PostMapping("/{id}/stock/decrement")
+    @Operation(summary = "Decrement stock", description = "Atomically decrement stock for one product; fails if stock is insufficient")
+    public ResponseEntity<Void> decrementStock(
+            @PathVariable Long id,
+            @RequestParam @Positive int quantity) {
+        try {
+            productService.updateStockQuantity(id, quantity);
+            return ResponseEntity.noContent().build();
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+    
+    @PostMapping("/stock/decrement")
+    @Operation(summary = "Decrement stock for an order", description = "Atomically decrement stock for every line of an order; all or nothing")
+    public ResponseEntity<Void> decrementOrderStock(@Valid @RequestBody OrderStockRequest request) {
+        try {
+            productService.decrementStock(request.getItems());
+            return ResponseEntity.noContent().build();
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+    
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete product", description = "Soft delete a product (Admin only)")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
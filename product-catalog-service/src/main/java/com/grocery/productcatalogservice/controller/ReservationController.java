@@ -0,0 +1,90 @@
+package com.grocery.productcatalogservice.controller;
+
+import com.grocery.productcatalogservice.dto.OrderStockRequest;
+import com.grocery.productcatalogservice.dto.ReservationResponse;
+import com.grocery.productcatalogservice.service.InsufficientStockException;
+import com.grocery.productcatalogservice.service.ReservationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/reservations")
+@Tag(name = "Stock Reservations", description = "APIs for short-lived stock holds on carts and checkouts")
+public class ReservationController {
+    
+    @Autowired
+    private ReservationService reservationService;
+    
+    @GetMapping("/{ownerId}")
+    @Operation(summary = "Get active holds", description = "Retrieve all unexpired holds for a cart owner")
+    public ResponseEntity<List<ReservationResponse>> getHolds(@PathVariable String ownerId) {
+        return ResponseEntity.ok(reservationService.getHolds(ownerId));
+    }
+    
+    @PutMapping("/{ownerId}/products/{productId}")
+    @Operation(summary = "Hold stock", description = "Set the owner's hold on a product to the given quantity and refresh its expiry")
+    public ResponseEntity<ReservationResponse> hold(
+            @PathVariable String ownerId,
+            @PathVariable Long productId,
+            @RequestParam @Positive int quantity) {
+        // Only a refusal is a 409; lock timeouts and database errors surface as 5xx so callers retry
+        try {
+            return ResponseEntity.ok(reservationService.hold(ownerId, productId, quantity));
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+    
+    @PutMapping("/{ownerId}/products")
+    @Operation(summary = "Hold stock for several products",
+            description = "Set the owner's holds to the given quantities by product id; zero releases a hold. All or nothing")
+    public ResponseEntity<Void> holdAll(
+            @PathVariable String ownerId,
+            @RequestBody Map<Long, Integer> quantities) {
+        try {
+            reservationService.holdAll(ownerId, quantities);
+            return ResponseEntity.noContent().build();
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @DeleteMapping("/{ownerId}/products/{productId}")
+    @Operation(summary = "Release hold", description = "Release the owner's hold on a product")
+    public ResponseEntity<Void> release(@PathVariable String ownerId, @PathVariable Long productId) {
+        reservationService.release(ownerId, productId);
+        return ResponseEntity.noContent().build();
+    }
+    
+    @DeleteMapping("/{ownerId}")
+    @Operation(summary = "Release all holds", description = "Release every hold of a cart owner")
+    public ResponseEntity<Void> releaseAll(@PathVariable String ownerId) {
+        reservationService.releaseAll(ownerId);
+        return ResponseEntity.noContent().build();
+    }
+    
+    @PostMapping("/{ownerId}/commit")
+    @Operation(summary = "Commit holds for an order", description = "Decrement stock for every order line, consuming the owner's holds; all or nothing, and at most once per order id")
+    public ResponseEntity<Void> commit(
+            @PathVariable String ownerId,
+            @RequestParam Long orderId,
+            @Valid @RequestBody OrderStockRequest request) {
+        try {
+            reservationService.commit(ownerId, orderId, request.getItems());
+            return ResponseEntity.noContent().build();
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
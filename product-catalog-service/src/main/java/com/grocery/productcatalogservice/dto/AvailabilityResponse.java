@@ -0,0 +1,52 @@
+package com.grocery.productcatalogservice.dto;
+
+public class AvailabilityResponse {
+    
+    private Long productId;
+    private Integer stockQuantity;
+    private Integer reservedQuantity;
+    private Integer availableQuantity;
+    
+    // Constructors
+    public AvailabilityResponse() {}
+    
+    public AvailabilityResponse(Long productId, Integer stockQuantity, Integer reservedQuantity) {
+        this.productId = productId;
+        this.stockQuantity = stockQuantity;
+        this.reservedQuantity = reservedQuantity;
+        this.availableQuantity = stockQuantity - reservedQuantity;
+    }
+    
+    // Getters and Setters
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public Integer getStockQuantity() {
+        return stockQuantity;
+    }
+    
+    public void setStockQuantity(Integer stockQuantity) {
+        this.stockQuantity = stockQuantity;
+    }
+    
+    public Integer getReservedQuantity() {
+        return reservedQuantity;
+    }
+    
+    public void setReservedQuantity(Integer reservedQuantity) {
+        this.reservedQuantity = reservedQuantity;
+    }
+    
+    public Integer getAvailableQuantity() {
+        return availableQuantity;
+    }
+    
+    public void setAvailableQuantity(Integer availableQuantity) {
+        this.availableQuantity = availableQuantity;
+    }
+}
@@ -0,0 +1,61 @@
+package com.grocery.productcatalogservice.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Targets a category name, a category subtree or a list of ids, and applies either a
+ * percentage (-10 for 10% off) or an absolute amount (-0.50) to the price.
+ */
+public class BulkPriceUpdateRequest {
+    
+    private String category;
+    private Integer categoryId;
+    private List<Long> ids;
+    private BigDecimal percent;
+    private BigDecimal amount;
+    
+    // Constructors
+    public BulkPriceUpdateRequest() {}
+    
+    // Getters and Setters
+    public String getCategory() {
+        return category;
+    }
+    
+    public void setCategory(String category) {
+        this.category = category;
+    }
+    
+    public Integer getCategoryId() {
+        return categoryId;
+    }
+    
+    public void setCategoryId(Integer categoryId) {
+        this.categoryId = categoryId;
+    }
+    
+    public List<Long> getIds() {
+        return ids;
+    }
+    
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+    
+    public BigDecimal getPercent() {
+        return percent;
+    }
+    
+    public void setPercent(BigDecimal percent) {
+        this.percent = percent;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+}
@@ -0,0 +1,54 @@
+package com.grocery.productcatalogservice.dto;
+
+public class BulkUpdateResult {
+    
+    private long affectedRows;
+    
+    // Stock files only: lines read and lines that were unparseable or matched no active product
+    private long rowsRead;
+    private long rejectedRows;
+    private long durationMs;
+    
+    // Constructors
+    public BulkUpdateResult() {}
+    
+    public BulkUpdateResult(long affectedRows, long rowsRead, long rejectedRows, long durationMs) {
+        this.affectedRows = affectedRows;
+        this.rowsRead = rowsRead;
+        this.rejectedRows = rejectedRows;
+        this.durationMs = durationMs;
+    }
+    
+    // Getters and Setters
+    public long getAffectedRows() {
+        return affectedRows;
+    }
+    
+    public void setAffectedRows(long affectedRows) {
+        this.affectedRows = affectedRows;
+    }
+    
+    public long getRowsRead() {
+        return rowsRead;
+    }
+    
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+    
+    public long getRejectedRows() {
+        return rejectedRows;
+    }
+    
+    public void setRejectedRows(long rejectedRows) {
+        this.rejectedRows = rejectedRows;
+    }
+    
+    public long getDurationMs() {
+        return durationMs;
+    }
+    
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+}
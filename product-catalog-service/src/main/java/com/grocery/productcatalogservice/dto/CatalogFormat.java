@@ -0,0 +1,7 @@
+package com.grocery.productcatalogservice.dto;
+
+// Wire formats for bulk catalog import and export
+public enum CatalogFormat {
+    CSV,
+    NDJSON
+}
@@ -0,0 +1,37 @@
+package com.grocery.productcatalogservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class CategoryRequest {
+    
+    @NotBlank(message = "Category name is required")
+    private String name;
+    
+    // Null creates a root category; ignored on rename
+    private Integer parentId;
+    
+    // Constructors
+    public CategoryRequest() {}
+    
+    public CategoryRequest(String name, Integer parentId) {
+        this.name = name;
+        this.parentId = parentId;
+    }
+    
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public Integer getParentId() {
+        return parentId;
+    }
+    
+    public void setParentId(Integer parentId) {
+        this.parentId = parentId;
+    }
+}
@@ -0,0 +1,75 @@
+package com.grocery.productcatalogservice.dto;
+
+import java.util.List;
+
+public class CategoryResponse {
+    
+    private Integer id;
+    private String name;
+    private Integer parentId;
+    private String path;
+    private int depth;
+    private List<CategoryResponse> children;
+    
+    // Constructors
+    public CategoryResponse() {}
+    
+    public CategoryResponse(Integer id, String name, Integer parentId, String path, int depth,
+                            List<CategoryResponse> children) {
+        this.id = id;
+        this.name = name;
+        this.parentId = parentId;
+        this.path = path;
+        this.depth = depth;
+        this.children = children;
+    }
+    
+    // Getters and Setters
+    public Integer getId() {
+        return id;
+    }
+    
+    public void setId(Integer id) {
+        this.id = id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public Integer getParentId() {
+        return parentId;
+    }
+    
+    public void setParentId(Integer parentId) {
+        this.parentId = parentId;
+    }
+    
+    public String getPath() {
+        return path;
+    }
+    
+    public void setPath(String path) {
+        this.path = path;
+    }
+    
+    public int getDepth() {
+        return depth;
+    }
+    
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+    
+    public List<CategoryResponse> getChildren() {
+        return children;
+    }
+    
+    public void setChildren(List<CategoryResponse> children) {
+        this.children = children;
+    }
+}
@@ -0,0 +1,58 @@
+package com.grocery.productcatalogservice.dto;
+
+import java.util.List;
+
+public class CursorPage<T> {
+    
+    private List<T> content;
+    
+    // Opaque token for the next page; null on the last page
+    private String nextCursor;
+    private boolean hasNext;
+    
+    // Only populated when the caller asks for it, since it costs a COUNT(*)
+    private Long totalElements;
+    
+    // Constructors
+    public CursorPage() {}
+    
+    public CursorPage(List<T> content, String nextCursor, boolean hasNext, Long totalElements) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+        this.totalElements = totalElements;
+    }
+    
+    // Getters and Setters
+    public List<T> getContent() {
+        return content;
+    }
+    
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+    
+    public boolean isHasNext() {
+        return hasNext;
+    }
+    
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+    
+    public Long getTotalElements() {
+        return totalElements;
+    }
+    
+    public void setTotalElements(Long totalElements) {
+        this.totalElements = totalElements;
+    }
+}
@@ -0,0 +1,68 @@
+package com.grocery.productcatalogservice.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class FacetSearchResult {
+    
+    private List<ProductSummary> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    
+    // facet name -> value -> matching products, counted as if that facet were unselected
+    private Map<String, Map<String, Integer>> facets;
+    
+    // Constructors
+    public FacetSearchResult() {}
+    
+    public FacetSearchResult(List<ProductSummary> content, int page, int size, long totalElements,
+                             Map<String, Map<String, Integer>> facets) {
+        this.content = content;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.facets = facets;
+    }
+    
+    // Getters and Setters
+    public List<ProductSummary> getContent() {
+        return content;
+    }
+    
+    public void setContent(List<ProductSummary> content) {
+        this.content = content;
+    }
+    
+    public int getPage() {
+        return page;
+    }
+    
+    public void setPage(int page) {
+        this.page = page;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public void setSize(int size) {
+        this.size = size;
+    }
+    
+    public long getTotalElements() {
+        return totalElements;
+    }
+    
+    public void setTotalElements(long totalElements) {
+        this.totalElements = totalElements;
+    }
+    
+    public Map<String, Map<String, Integer>> getFacets() {
+        return facets;
+    }
+    
+    public void setFacets(Map<String, Map<String, Integer>> facets) {
+        this.facets = facets;
+    }
+}
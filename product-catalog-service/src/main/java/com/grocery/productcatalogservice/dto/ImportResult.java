@@ -0,0 +1,106 @@
+package com.grocery.productcatalogservice.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportResult {
+    
+    private long rowsRead;
+    private long inserted;
+    private long updated;
+    private long failed;
+    private long durationMs;
+    private double rowsPerSecond;
+    
+    // Capped at product.import.max-reported-errors so the response stays small
+    private List<RowError> errors = new ArrayList<>();
+    
+    // Constructors
+    public ImportResult() {}
+    
+    // Getters and Setters
+    public long getRowsRead() {
+        return rowsRead;
+    }
+    
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+    
+    public long getInserted() {
+        return inserted;
+    }
+    
+    public void setInserted(long inserted) {
+        this.inserted = inserted;
+    }
+    
+    public long getUpdated() {
+        return updated;
+    }
+    
+    public void setUpdated(long updated) {
+        this.updated = updated;
+    }
+    
+    public long getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+    
+    public long getDurationMs() {
+        return durationMs;
+    }
+    
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+    
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+    
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+    
+    public List<RowError> getErrors() {
+        return errors;
+    }
+    
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+    
+    public static class RowError {
+        
+        private long row;
+        private String message;
+        
+        public RowError() {}
+        
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+        
+        public long getRow() {
+            return row;
+        }
+        
+        public void setRow(long row) {
+            this.row = row;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+        
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
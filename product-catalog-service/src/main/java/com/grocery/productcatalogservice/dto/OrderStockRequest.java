@@ -0,0 +1,28 @@
+package com.grocery.productcatalogservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+public class OrderStockRequest {
+    
+    @NotEmpty(message = "At least one item is required")
+    @Valid
+    private List<StockDecrementRequest> items;
+    
+    // Constructors
+    public OrderStockRequest() {}
+    
+    public OrderStockRequest(List<StockDecrementRequest> items) {
+        this.items = items;
+    }
+    
+    // Getters and Setters
+    public List<StockDecrementRequest> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<StockDecrementRequest> items) {
+        this.items = items;
+    }
+}
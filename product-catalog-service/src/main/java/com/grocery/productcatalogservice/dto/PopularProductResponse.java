@@ -0,0 +1,34 @@
+package com.grocery.productcatalogservice.dto;
+
+public class PopularProductResponse {
+    
+    private ProductSummary product;
+    
+    // Estimated weighted views and ordered units within the popularity window
+    private long score;
+    
+    // Constructors
+    public PopularProductResponse() {}
+    
+    public PopularProductResponse(ProductSummary product, long score) {
+        this.product = product;
+        this.score = score;
+    }
+    
+    // Getters and Setters
+    public ProductSummary getProduct() {
+        return product;
+    }
+    
+    public void setProduct(ProductSummary product) {
+        this.product = product;
+    }
+    
+    public long getScore() {
+        return score;
+    }
+    
+    public void setScore(long score) {
+        this.score = score;
+    }
+}
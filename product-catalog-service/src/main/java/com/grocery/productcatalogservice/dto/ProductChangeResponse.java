@@ -0,0 +1,96 @@
+package com.grocery.productcatalogservice.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class ProductChangeResponse {
+    
+    private Long sequence;
+    private Long productId;
+    private String name;
+    private String unit;
+    private BigDecimal price;
+    private Integer stockQuantity;
+    private Boolean isActive;
+    private LocalDateTime changedAt;
+    
+    // Constructors
+    public ProductChangeResponse() {}
+    
+    public ProductChangeResponse(Long sequence, Long productId, String name, String unit, BigDecimal price,
+                                 Integer stockQuantity, Boolean isActive, LocalDateTime changedAt) {
+        this.sequence = sequence;
+        this.productId = productId;
+        this.name = name;
+        this.unit = unit;
+        this.price = price;
+        this.stockQuantity = stockQuantity;
+        this.isActive = isActive;
+        this.changedAt = changedAt;
+    }
+    
+    // Getters and Setters
+    public Long getSequence() {
+        return sequence;
+    }
+    
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getUnit() {
+        return unit;
+    }
+    
+    public void setUnit(String unit) {
+        this.unit = unit;
+    }
+    
+    public BigDecimal getPrice() {
+        return price;
+    }
+    
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+    
+    public Integer getStockQuantity() {
+        return stockQuantity;
+    }
+    
+    public void setStockQuantity(Integer stockQuantity) {
+        this.stockQuantity = stockQuantity;
+    }
+    
+    public Boolean getIsActive() {
+        return isActive;
+    }
+    
+    public void setIsActive(Boolean isActive) {
+        this.isActive = isActive;
+    }
+    
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+    
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+}
@@ -3,6 +3,7 @@ package com.grocery.productcatalogservice.dto;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import java.math.BigDecimal;
 
 public class ProductRequest {
@@ -22,13 +23,19 @@ public class ProductRequest {
     private Integer shelfLifeDays;
     
     @NotNull(message = "Stock quantity is required")
-    @Positive(message = "Stock quantity must be positive")
+    @PositiveOrZero(message = "Stock quantity must not be negative")
     private Integer stockQuantity;
     
+    // Either a category id, or a category name / "Dairy > Milk" path resolved against the tree
     private String category;
     
+    private Integer categoryId;
+    
     private String imageUrl;
     
+    // Supplier SKU; imports with one upsert on it instead of inserting a duplicate
+    private String sku;
+    
     // Constructors
     public ProductRequest() {}
     
@@ -97,6 +104,14 @@ public class ProductRequest {
         this.category = category;
     }
     
+    public Integer getCategoryId() {
+        return categoryId;
+    }
+    
+    public void setCategoryId(Integer categoryId) {
+        this.categoryId = categoryId;
+    }
+    
     public String getImageUrl() {
         return imageUrl;
     }
@@ -104,4 +119,12 @@ public class ProductRequest {
     public void setImageUrl(String imageUrl) {
         this.imageUrl = imageUrl;
     }
+    
+    public String getSku() {
+        return sku;
+    }
+    
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
 }
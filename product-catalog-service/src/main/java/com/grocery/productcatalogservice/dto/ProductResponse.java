@@ -13,17 +13,20 @@ public class ProductResponse {
     private Integer shelfLifeDays;
     private Integer stockQuantity;
     private String category;
+    private Integer categoryId;
     private String imageUrl;
+    private String sku;
     private Boolean isActive;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
     
     // Constructors
     public ProductResponse() {}
     
     public ProductResponse(Long id, String name, String description, String unit, BigDecimal price,
                           Integer shelfLifeDays, Integer stockQuantity, String category, String imageUrl,
-                          Boolean isActive, LocalDateTime createdAt, LocalDateTime updatedAt) {
+                          Boolean isActive, LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
         this.id = id;
         this.name = name;
         this.description = description;
@@ -36,6 +39,7 @@ public class ProductResponse {
         this.isActive = isActive;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
+        this.version = version;
     }
     
     // Getters and Setters
@@ -103,6 +107,14 @@ public class ProductResponse {
         this.category = category;
     }
     
+    public Integer getCategoryId() {
+        return categoryId;
+    }
+    
+    public void setCategoryId(Integer categoryId) {
+        this.categoryId = categoryId;
+    }
+    
     public String getImageUrl() {
         return imageUrl;
     }
@@ -111,6 +123,14 @@ public class ProductResponse {
         this.imageUrl = imageUrl;
     }
     
+    public String getSku() {
+        return sku;
+    }
+    
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+    
     public Boolean getIsActive() {
         return isActive;
     }
@@ -134,4 +154,12 @@ public class ProductResponse {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,109 @@
+package com.grocery.productcatalogservice.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Compact list representation of a product. Repository list queries construct
+ * it directly, so the description TEXT column is never read for listings.
+ */
+public class ProductSummary {
+    
+    private Long id;
+    private String name;
+    private String unit;
+    private BigDecimal price;
+    private Integer shelfLifeDays;
+    private Integer stockQuantity;
+    private String category;
+    private String imageUrl;
+    private Long version;
+    
+    // Constructors
+    public ProductSummary() {}
+    
+    public ProductSummary(Long id, String name, String unit, BigDecimal price, Integer shelfLifeDays,
+                          Integer stockQuantity, String category, String imageUrl, Long version) {
+        this.id = id;
+        this.name = name;
+        this.unit = unit;
+        this.price = price;
+        this.shelfLifeDays = shelfLifeDays;
+        this.stockQuantity = stockQuantity;
+        this.category = category;
+        this.imageUrl = imageUrl;
+        this.version = version;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getUnit() {
+        return unit;
+    }
+    
+    public void setUnit(String unit) {
+        this.unit = unit;
+    }
+    
+    public BigDecimal getPrice() {
+        return price;
+    }
+    
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+    
+    public Integer getShelfLifeDays() {
+        return shelfLifeDays;
+    }
+    
+    public void setShelfLifeDays(Integer shelfLifeDays) {
+        this.shelfLifeDays = shelfLifeDays;
+    }
+    
+    public Integer getStockQuantity() {
+        return stockQuantity;
+    }
+    
+    public void setStockQuantity(Integer stockQuantity) {
+        this.stockQuantity = stockQuantity;
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    public void setCategory(String category) {
+        this.category = category;
+    }
+    
+    public String getImageUrl() {
+        return imageUrl;
+    }
+    
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
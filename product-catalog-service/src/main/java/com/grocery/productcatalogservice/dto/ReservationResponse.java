@@ -0,0 +1,76 @@
+package com.grocery.productcatalogservice.dto;
+
+import com.grocery.productcatalogservice.model.ReservationStatus;
+import java.time.LocalDateTime;
+
+public class ReservationResponse {
+    
+    private Long id;
+    private String ownerId;
+    private Long productId;
+    private Integer quantity;
+    private ReservationStatus status;
+    private LocalDateTime expiresAt;
+    
+    // Constructors
+    public ReservationResponse() {}
+    
+    public ReservationResponse(Long id, String ownerId, Long productId, Integer quantity,
+                               ReservationStatus status, LocalDateTime expiresAt) {
+        this.id = id;
+        this.ownerId = ownerId;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.status = status;
+        this.expiresAt = expiresAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getOwnerId() {
+        return ownerId;
+    }
+    
+    public void setOwnerId(String ownerId) {
+        this.ownerId = ownerId;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public Integer getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+    
+    public ReservationStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(ReservationStatus status) {
+        this.status = status;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,44 @@
+package com.grocery.productcatalogservice.dto;
+
+public class SuggestionResponse {
+    
+    private String text;
+    
+    // "product" or "category"
+    private String type;
+    private long weight;
+    
+    // Constructors
+    public SuggestionResponse() {}
+    
+    public SuggestionResponse(String text, String type, long weight) {
+        this.text = text;
+        this.type = type;
+        this.weight = weight;
+    }
+    
+    // Getters and Setters
+    public String getText() {
+        return text;
+    }
+    
+    public void setText(String text) {
+        this.text = text;
+    }
+    
+    public String getType() {
+        return type;
+    }
+    
+    public void setType(String type) {
+        this.type = type;
+    }
+    
+    public long getWeight() {
+        return weight;
+    }
+    
+    public void setWeight(long weight) {
+        this.weight = weight;
+    }
+}
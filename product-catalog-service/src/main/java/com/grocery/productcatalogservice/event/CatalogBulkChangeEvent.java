@@ -0,0 +1,37 @@
+package com.grocery.productcatalogservice.event;
+
+/**
+ * Published after set-based writes (bulk import, bulk updates) that touch too
+ * many rows to announce individually. In-memory structures should reload from
+ * the database instead of patching. textChanged is false for writes that
+ * cannot touch name, description or category, such as price and stock
+ * updates, so text indexes can skip the reload.
+ */
+public class CatalogBulkChangeEvent {
+    
+    private final String source;
+    private final long affectedRows;
+    private final boolean textChanged;
+    
+    public CatalogBulkChangeEvent(String source, long affectedRows) {
+        this(source, affectedRows, true);
+    }
+    
+    public CatalogBulkChangeEvent(String source, long affectedRows, boolean textChanged) {
+        this.source = source;
+        this.affectedRows = affectedRows;
+        this.textChanged = textChanged;
+    }
+    
+    public String getSource() {
+        return source;
+    }
+    
+    public long getAffectedRows() {
+        return affectedRows;
+    }
+    
+    public boolean isTextChanged() {
+        return textChanged;
+    }
+}
@@ -0,0 +1,18 @@
+package com.grocery.productcatalogservice.event;
+
+/**
+ * Published when a category is created or renamed; CategoryTree reloads once
+ * the transaction commits.
+ */
+public class CategoryTreeChangedEvent {
+    
+    private final Integer categoryId;
+    
+    public CategoryTreeChangedEvent(Integer categoryId) {
+        this.categoryId = categoryId;
+    }
+    
+    public Integer getCategoryId() {
+        return categoryId;
+    }
+}
@@ -0,0 +1,29 @@
+package com.grocery.productcatalogservice.event;
+
+import com.grocery.productcatalogservice.dto.ProductResponse;
+
+/**
+ * Published by ProductService whenever a product row is created or modified.
+ * Listeners receive the committed state of the product, including soft deletes
+ * (isActive = false), so in-memory structures can be patched incrementally.
+ */
+public class ProductChangedEvent {
+    
+    private final ProductResponse product;
+    
+    public ProductChangedEvent(ProductResponse product) {
+        this.product = product;
+    }
+    
+    public Long getProductId() {
+        return product.getId();
+    }
+    
+    public ProductResponse getProduct() {
+        return product;
+    }
+    
+    public boolean isActive() {
+        return Boolean.TRUE.equals(product.getIsActive());
+    }
+}
@@ -0,0 +1,20 @@
+package com.grocery.productcatalogservice.event;
+
+import java.util.Map;
+
+/**
+ * Published when an order's stock is taken, with the quantity per product.
+ * Listeners act after commit, so rejected orders are never counted.
+ */
+public class ProductsOrderedEvent {
+    
+    private final Map<Long, Integer> quantities;
+    
+    public ProductsOrderedEvent(Map<Long, Integer> quantities) {
+        this.quantities = Map.copyOf(quantities);
+    }
+    
+    public Map<Long, Integer> getQuantities() {
+        return quantities;
+    }
+}
@@ -0,0 +1,22 @@
+package com.grocery.productcatalogservice.event;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published by ReservationService when holds change products.reserved_quantity.
+ * Holds do not alter anything a ProductResponse shows, so they are announced
+ * separately from ProductChangedEvent.
+ */
+public class StockReservationChangedEvent {
+    
+    private final List<Long> productIds;
+    
+    public StockReservationChangedEvent(Collection<Long> productIds) {
+        this.productIds = List.copyOf(productIds);
+    }
+    
+    public List<Long> getProductIds() {
+        return productIds;
+    }
+}
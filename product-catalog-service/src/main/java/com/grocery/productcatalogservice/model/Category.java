@@ -0,0 +1,79 @@
+package com.grocery.productcatalogservice.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Node in the category tree (Dairy > Milk > Organic).
+ *
+ * The materialized path lists the ids from the root down to this node, e.g.
+ * "/1/4/9/". Products copy the path of their category, so "everything under
+ * Dairy" is a range scan on products.category_path. Paths use the C collation
+ * so that index order is plain byte order.
+ */
+@Entity
+@Table(name = "categories", indexes = {
+        @Index(name = "idx_categories_parent_id", columnList = "parent_id")
+})
+public class Category {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+    
+    @Column(nullable = false)
+    private String name;
+    
+    @Column(name = "parent_id")
+    private Integer parentId;
+    
+    // Assigned right after insert, once the id is known
+    @Column(unique = true, columnDefinition = "varchar(255) COLLATE \"C\"")
+    private String path;
+    
+    @Column(nullable = false)
+    private Integer depth;
+    
+    // Constructors
+    public Category() {}
+    
+    // Getters and Setters
+    public Integer getId() {
+        return id;
+    }
+    
+    public void setId(Integer id) {
+        this.id = id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public Integer getParentId() {
+        return parentId;
+    }
+    
+    public void setParentId(Integer parentId) {
+        this.parentId = parentId;
+    }
+    
+    public String getPath() {
+        return path;
+    }
+    
+    public void setPath(String path) {
+        this.path = path;
+    }
+    
+    public Integer getDepth() {
+        return depth;
+    }
+    
+    public void setDepth(Integer depth) {
+        this.depth = depth;
+    }
+}
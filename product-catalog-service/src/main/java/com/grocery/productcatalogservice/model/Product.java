@@ -4,11 +4,23 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // Keyset pagination seeks on (sort key, id)
+        @Index(name = "idx_products_active_name_id", columnList = "is_active, name, id"),
+        @Index(name = "idx_products_active_price_id", columnList = "is_active, price, id"),
+        // Incremental exports and change catch-up filter on updated_at
+        @Index(name = "idx_products_updated_at", columnList = "updated_at"),
+        // Category subtree listings are a range scan on the materialized path
+        @Index(name = "idx_products_active_category_path_id", columnList = "is_active, category_path, id")
+}, uniqueConstraints = {
+        // Natural key catalog imports upsert on
+        @UniqueConstraint(name = "uk_products_sku", columnNames = "sku")
+})
 public class Product {
     
     @Id
@@ -35,16 +47,32 @@ public class Product {
     private Integer shelfLifeDays;
     
     @NotNull
-    @Positive
+    @PositiveOrZero
     @Column(name = "stock_quantity", nullable = false)
     private Integer stockQuantity;
     
+    // Units held by active reservations; available stock is stockQuantity - reservedQuantity
+    @Column(name = "reserved_quantity", nullable = false, columnDefinition = "integer default 0")
+    private Integer reservedQuantity = 0;
+    
+    // Leaf category name, kept alongside category_id for display and legacy lookups
     @Column(name = "category")
     private String category;
     
+    @Column(name = "category_id")
+    private Integer categoryId;
+    
+    // Copy of Category.path so subtree queries need no join
+    @Column(name = "category_path", columnDefinition = "varchar(255) COLLATE \"C\"")
+    private String categoryPath;
+    
     @Column(name = "image_url")
     private String imageUrl;
     
+    // Supplier SKU; optional, so products created by hand may have none
+    @Column(name = "sku")
+    private String sku;
+    
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
     
@@ -54,6 +82,11 @@ public class Product {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
     
+    // Bumped on every write, including the bulk stock statements; backs the ETag
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version = 0L;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -133,6 +166,14 @@ public class Product {
         this.stockQuantity = stockQuantity;
     }
     
+    public Integer getReservedQuantity() {
+        return reservedQuantity;
+    }
+    
+    public void setReservedQuantity(Integer reservedQuantity) {
+        this.reservedQuantity = reservedQuantity;
+    }
+    
     public String getCategory() {
         return category;
     }
@@ -141,6 +182,22 @@ public class Product {
         this.category = category;
     }
     
+    public Integer getCategoryId() {
+        return categoryId;
+    }
+    
+    public void setCategoryId(Integer categoryId) {
+        this.categoryId = categoryId;
+    }
+    
+    public String getCategoryPath() {
+        return categoryPath;
+    }
+    
+    public void setCategoryPath(String categoryPath) {
+        this.categoryPath = categoryPath;
+    }
+    
     public String getImageUrl() {
         return imageUrl;
     }
@@ -149,6 +206,14 @@ public class Product {
         this.imageUrl = imageUrl;
     }
     
+    public String getSku() {
+        return sku;
+    }
+    
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+    
     public Boolean getIsActive() {
         return isActive;
     }
@@ -172,4 +237,12 @@ public class Product {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
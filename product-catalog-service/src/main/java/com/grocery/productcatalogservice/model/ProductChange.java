@@ -0,0 +1,139 @@
+package com.grocery.productcatalogservice.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row describing the state of a product after a committed write.
+ * Rows are inserted in the same transaction as the product change and read
+ * by consumers in (tx_id, id) order; see ProductChangeFeedService.
+ */
+@Entity
+@Table(name = "product_changes", indexes = {
+        @Index(name = "idx_product_changes_tx_id", columnList = "tx_id, id"),
+        @Index(name = "idx_product_changes_changed_at", columnList = "changed_at")
+})
+public class ProductChange {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    // Writing transaction id, filled in by Postgres
+    @Column(name = "tx_id", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "bigint default txid_current()")
+    private Long txId;
+    
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+    
+    @Column(nullable = false)
+    private String name;
+    
+    @Column(nullable = false)
+    private String unit;
+    
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal price;
+    
+    @Column(name = "stock_quantity", nullable = false)
+    private Integer stockQuantity;
+    
+    @Column(name = "is_active", nullable = false)
+    private Boolean isActive;
+    
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        changedAt = LocalDateTime.now();
+    }
+    
+    // Constructors
+    public ProductChange() {}
+    
+    public ProductChange(Long productId, String name, String unit, BigDecimal price,
+                         Integer stockQuantity, Boolean isActive) {
+        this.productId = productId;
+        this.name = name;
+        this.unit = unit;
+        this.price = price;
+        this.stockQuantity = stockQuantity;
+        this.isActive = isActive;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getTxId() {
+        return txId;
+    }
+    
+    public void setTxId(Long txId) {
+        this.txId = txId;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getUnit() {
+        return unit;
+    }
+    
+    public void setUnit(String unit) {
+        this.unit = unit;
+    }
+    
+    public BigDecimal getPrice() {
+        return price;
+    }
+    
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+    
+    public Integer getStockQuantity() {
+        return stockQuantity;
+    }
+    
+    public void setStockQuantity(Integer stockQuantity) {
+        this.stockQuantity = stockQuantity;
+    }
+    
+    public Boolean getIsActive() {
+        return isActive;
+    }
+    
+    public void setIsActive(Boolean isActive) {
+        this.isActive = isActive;
+    }
+    
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+    
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+}
@@ -0,0 +1,8 @@
+package com.grocery.productcatalogservice.model;
+
+public enum ReservationStatus {
+    HELD,
+    COMMITTED,
+    RELEASED,
+    EXPIRED
+}
@@ -0,0 +1,62 @@
+package com.grocery.productcatalogservice.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Marks an order whose stock has been decremented. Inserted in the same
+ * transaction as the decrements, so a replayed commit for the order is a no-op;
+ * see ReservationService.commit.
+ */
+@Entity
+@Table(name = "stock_commits")
+public class StockCommit {
+    
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+    
+    @Column(name = "owner_id", nullable = false)
+    private String ownerId;
+    
+    @Column(name = "committed_at", nullable = false)
+    private LocalDateTime committedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        committedAt = LocalDateTime.now();
+    }
+    
+    // Constructors
+    public StockCommit() {}
+    
+    public StockCommit(Long orderId, String ownerId) {
+        this.orderId = orderId;
+        this.ownerId = ownerId;
+    }
+    
+    // Getters and Setters
+    public Long getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+    
+    public String getOwnerId() {
+        return ownerId;
+    }
+    
+    public void setOwnerId(String ownerId) {
+        this.ownerId = ownerId;
+    }
+    
+    public LocalDateTime getCommittedAt() {
+        return committedAt;
+    }
+    
+    public void setCommittedAt(LocalDateTime committedAt) {
+        this.committedAt = committedAt;
+    }
+}
@@ -0,0 +1,15 @@
+package com.grocery.productcatalogservice.repository;
+
+import com.grocery.productcatalogservice.model.Category;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CategoryRepository extends JpaRepository<Category, Integer> {
+    
+    @Query("SELECT COUNT(c) > 0 FROM Category c WHERE " +
+           "(c.parentId = :parentId OR (:parentId IS NULL AND c.parentId IS NULL)) AND LOWER(c.name) = LOWER(:name)")
+    boolean existsSibling(@Param("parentId") Integer parentId, @Param("name") String name);
+}
@@ -0,0 +1,36 @@
+package com.grocery.productcatalogservice.repository;
+
+import com.grocery.productcatalogservice.model.ProductChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Long> {
+    
+    // Only rows from transactions older than every in-flight one are returned, so a
+    // consumer that has read past (tx_id, id) can never miss a row that commits later
+    @Query(value = "SELECT * FROM product_changes " +
+                   "WHERE tx_id < txid_snapshot_xmin(txid_current_snapshot()) " +
+                   "AND (tx_id, id) > (:afterTxId, :afterId) " +
+                   "ORDER BY tx_id, id LIMIT :limit",
+           nativeQuery = true)
+    List<ProductChange> findCommittedAfter(@Param("afterTxId") long afterTxId,
+                                           @Param("afterId") long afterId,
+                                           @Param("limit") int limit);
+    
+    @Query(value = "SELECT * FROM product_changes " +
+                   "WHERE tx_id < txid_snapshot_xmin(txid_current_snapshot()) " +
+                   "ORDER BY tx_id DESC, id DESC LIMIT 1",
+           nativeQuery = true)
+    List<ProductChange> findLatestCommitted();
+    
+    @Modifying
+    @Query("DELETE FROM ProductChange c WHERE c.changedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,27 +1,115 @@
 package com.grocery.productcatalogservice.repository;
 
+import com.grocery.productcatalogservice.dto.AvailabilityResponse;
+import com.grocery.productcatalogservice.dto.ProductSummary;
 import com.grocery.productcatalogservice.model.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     
     Page<Product> findByIsActiveTrue(Pageable pageable);
     
-    List<Product> findByCategoryAndIsActiveTrue(String category);
+    long countByIsActiveTrue();
     
-    @Query("SELECT p FROM Product p WHERE p.isActive = true AND " +
-           "(LOWER(p.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(p.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(p.category) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
-    Page<Product> searchProducts(@Param("searchTerm") String searchTerm, Pageable pageable);
+    // List queries below project straight into ProductSummary: no entity hydration,
+    // no dirty checking and no description column
+    String SUMMARY = "SELECT new com.grocery.productcatalogservice.dto.ProductSummary(" +
+            "p.id, p.name, p.unit, p.price, p.shelfLifeDays, p.stockQuantity, p.category, p.imageUrl, p.version) ";
+    
+    @Query(value = SUMMARY + "FROM Product p WHERE p.isActive = true",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE p.isActive = true")
+    Page<ProductSummary> findActiveSummaries(Pageable pageable);
+    
+    // Keyset pagination: seek past the last (sort key, id) instead of using OFFSET
+    @Query(SUMMARY + "FROM Product p WHERE p.isActive = true AND p.id > :afterId ORDER BY p.id")
+    List<ProductSummary> findActiveSummariesAfterId(@Param("afterId") Long afterId, Limit limit);
+    
+    @Query(SUMMARY + "FROM Product p WHERE p.isActive = true AND " +
+           "(p.name > :afterName OR (p.name = :afterName AND p.id > :afterId)) ORDER BY p.name, p.id")
+    List<ProductSummary> findActiveSummariesAfterName(@Param("afterName") String afterName,
+                                                      @Param("afterId") Long afterId,
+                                                      Limit limit);
+    
+    @Query(SUMMARY + "FROM Product p WHERE p.isActive = true AND " +
+           "(p.price > :afterPrice OR (p.price = :afterPrice AND p.id > :afterId)) ORDER BY p.price, p.id")
+    List<ProductSummary> findActiveSummariesAfterPrice(@Param("afterPrice") BigDecimal afterPrice,
+                                                       @Param("afterId") Long afterId,
+                                                       Limit limit);
+    
+    @Query(SUMMARY + "FROM Product p WHERE p.isActive = true ORDER BY p.name, p.id")
+    List<ProductSummary> findFirstActiveSummariesByName(Limit limit);
+    
+    @Query(SUMMARY + "FROM Product p WHERE p.isActive = true ORDER BY p.price, p.id")
+    List<ProductSummary> findFirstActiveSummariesByPrice(Limit limit);
+    
+    // Subtree of a category: [path, upper bound) over the C-collated category_path
+    @Query(value = SUMMARY + "FROM Product p WHERE p.isActive = true AND " +
+                   "p.categoryPath >= :fromPath AND p.categoryPath < :toPath ORDER BY p.categoryPath, p.id",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE p.isActive = true AND " +
+                        "p.categoryPath >= :fromPath AND p.categoryPath < :toPath")
+    Page<ProductSummary> findActiveSummariesInPathRange(@Param("fromPath") String fromPath,
+                                                        @Param("toPath") String toPath,
+                                                        Pageable pageable);
+    
+    @Query(SUMMARY + "FROM Product p WHERE p.category = :category AND p.isActive = true")
+    List<ProductSummary> findSummariesByCategory(@Param("category") String category);
+    
+    @Query(value = SUMMARY + "FROM Product p WHERE p.isActive = true AND " +
+                   "(LOWER(p.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+                   "LOWER(p.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+                   "LOWER(p.category) LIKE LOWER(CONCAT('%', :searchTerm, '%')))",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE p.isActive = true AND " +
+                        "(LOWER(p.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+                        "LOWER(p.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+                        "LOWER(p.category) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
+    Page<ProductSummary> searchProducts(@Param("searchTerm") String searchTerm, Pageable pageable);
+    
+    // Requires the search_vector column and trigram indexes from FullTextSearchSchemaInitializer
+    @Query(value = "SELECT p.id AS \"id\", p.name AS \"name\", p.unit AS \"unit\", p.price AS \"price\", " +
+                   "p.shelf_life_days AS \"shelfLifeDays\", p.stock_quantity AS \"stockQuantity\", " +
+                   "p.category AS \"category\", p.image_url AS \"imageUrl\", p.version AS \"version\" " +
+                   "FROM products p, websearch_to_tsquery('english', :searchTerm) query " +
+                   "WHERE p.is_active = true AND " +
+                   "(p.search_vector @@ query OR p.name % :searchTerm OR p.category % :searchTerm) " +
+                   "ORDER BY ts_rank(p.search_vector, query) + similarity(p.name, :searchTerm) DESC, p.id",
+           countQuery = "SELECT COUNT(*) FROM products p, websearch_to_tsquery('english', :searchTerm) query " +
+                        "WHERE p.is_active = true AND " +
+                        "(p.search_vector @@ query OR p.name % :searchTerm OR p.category % :searchTerm)",
+           nativeQuery = true)
+    Page<ProductSummaryView> fullTextSearchProducts(@Param("searchTerm") String searchTerm, Pageable pageable);
     
     List<Product> findByStockQuantityGreaterThanAndIsActiveTrue(Integer minStock);
+    
+    // Conditional decrement: returns 0 instead of eating into stock that is held or not there
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity, " +
+           "p.updatedAt = CURRENT_TIMESTAMP, p.version = p.version + 1 " +
+           "WHERE p.id = :id AND p.isActive = true AND p.stockQuantity - p.reservedQuantity >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    @Modifying
+    @Query("UPDATE Product p SET p.reservedQuantity = p.reservedQuantity + :quantity " +
+           "WHERE p.id = :id AND p.isActive = true AND p.stockQuantity - p.reservedQuantity >= :quantity")
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    @Modifying
+    @Query(value = "UPDATE products SET reserved_quantity = GREATEST(reserved_quantity - :quantity, 0) WHERE id = :id",
+           nativeQuery = true)
+    int releaseStock(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    @Query("SELECT new com.grocery.productcatalogservice.dto.AvailabilityResponse(p.id, p.stockQuantity, p.reservedQuantity) " +
+           "FROM Product p WHERE p.id = :id AND p.isActive = true")
+    Optional<AvailabilityResponse> findAvailability(@Param("id") Long id);
 }
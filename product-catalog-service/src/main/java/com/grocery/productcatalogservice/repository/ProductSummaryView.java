@@ -0,0 +1,25 @@
+package com.grocery.productcatalogservice.repository;
+
+import java.math.BigDecimal;
+
+// Interface projection for native queries, which cannot use JPQL constructor expressions
+public interface ProductSummaryView {
+    
+    Long getId();
+    
+    String getName();
+    
+    String getUnit();
+    
+    BigDecimal getPrice();
+    
+    Integer getShelfLifeDays();
+    
+    Integer getStockQuantity();
+    
+    String getCategory();
+    
+    String getImageUrl();
+    
+    Long getVersion();
+}
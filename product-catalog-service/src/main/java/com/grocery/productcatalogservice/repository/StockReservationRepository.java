@@ -0,0 +1,41 @@
+package com.grocery.productcatalogservice.repository;
+
+import com.grocery.productcatalogservice.model.ReservationStatus;
+import com.grocery.productcatalogservice.model.StockReservation;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+    
+    List<StockReservation> findByOwnerIdAndStatus(String ownerId, ReservationStatus status);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.ownerId = :ownerId AND r.status = :status ORDER BY r.productId")
+    List<StockReservation> lockByOwnerIdAndStatus(@Param("ownerId") String ownerId,
+                                                  @Param("status") ReservationStatus status);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.ownerId = :ownerId AND r.productId = :productId AND r.status = :status")
+    List<StockReservation> lockByOwnerIdAndProductIdAndStatus(@Param("ownerId") String ownerId,
+                                                              @Param("productId") Long productId,
+                                                              @Param("status") ReservationStatus status);
+    
+    // Walks idx_stock_reservations_status_expires; rows held by a concurrent commit are skipped (lock timeout -2)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM StockReservation r WHERE r.status = :status AND r.expiresAt <= :now ORDER BY r.expiresAt")
+    List<StockReservation> lockExpired(@Param("status") ReservationStatus status,
+                                       @Param("now") LocalDateTime now,
+                                       Pageable pageable);
+}
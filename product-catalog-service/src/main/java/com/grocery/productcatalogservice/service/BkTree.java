@@ -0,0 +1,159 @@
+package com.grocery.productcatalogservice.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Burkhard-Keller tree over a word vocabulary under Levenshtein distance.
+ *
+ * Each child edge is labelled with its distance to the parent word, so by the
+ * triangle inequality a query within k edits only descends into children
+ * labelled d-k..d+k. Lookups take a visit budget: once that many words have
+ * been compared the search stops and returns what it has, which bounds
+ * latency on very large vocabularies at the cost of recall. Words are never
+ * removed; callers filter out stale ones.
+ */
+final class BkTree {
+    
+    private Node root;
+    private int size;
+    
+    /**
+     * Adds the word; returns false when it is already present.
+     */
+    boolean add(String word) {
+        if (root == null) {
+            root = new Node(word);
+            size++;
+            return true;
+        }
+        int[] scratch = new int[2 * (word.length() + 1)];
+        Node node = root;
+        while (true) {
+            int distance = distance(word, node.word, scratch);
+            if (distance == 0) {
+                return false;
+            }
+            Node child = node.child(distance);
+            if (child == null) {
+                node.setChild(distance, new Node(word));
+                size++;
+                return true;
+            }
+            node = child;
+        }
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    /**
+     * Reports every word within maxEdits of the query, comparing at most
+     * maxVisits words.
+     *
+     * @return the number of words compared
+     */
+    int search(String query, int maxEdits, int maxVisits, Consumer<Match> matches) {
+        if (root == null) {
+            return 0;
+        }
+        int[] scratch = new int[2 * (query.length() + 1)];
+        ArrayDeque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        int visits = 0;
+        while (!pending.isEmpty() && visits < maxVisits) {
+            Node node = pending.pop();
+            visits++;
+            int distance = distance(query, node.word, scratch);
+            if (distance <= maxEdits) {
+                matches.accept(new Match(node.word, distance));
+            }
+            if (node.children == null) {
+                continue;
+            }
+            int from = Math.max(1, distance - maxEdits);
+            int to = Math.min(node.children.length - 1, distance + maxEdits);
+            for (int d = to; d >= from; d--) {
+                if (node.children[d] != null) {
+                    pending.push(node.children[d]);
+                }
+            }
+        }
+        return visits;
+    }
+    
+    List<Match> search(String query, int maxEdits, int maxVisits) {
+        List<Match> result = new ArrayList<>();
+        search(query, maxEdits, maxVisits, result::add);
+        return result;
+    }
+    
+    // Two-row Levenshtein; scratch holds both rows for the first word's length
+    static int distance(String a, String b, int[] scratch) {
+        int n = a.length();
+        int m = b.length();
+        if (n == 0 || m == 0) {
+            return Math.max(n, m);
+        }
+        int previous = 0;
+        int current = n + 1;
+        for (int i = 0; i <= n; i++) {
+            scratch[previous + i] = i;
+        }
+        for (int j = 1; j <= m; j++) {
+            char c = b.charAt(j - 1);
+            scratch[current] = j;
+            for (int i = 1; i <= n; i++) {
+                int cost = a.charAt(i - 1) == c ? 0 : 1;
+                scratch[current + i] = Math.min(Math.min(
+                        scratch[current + i - 1] + 1,
+                        scratch[previous + i] + 1),
+                        scratch[previous + i - 1] + cost);
+            }
+            int swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return scratch[previous + n];
+    }
+    
+    static final class Match {
+        
+        final String word;
+        final int distance;
+        
+        Match(String word, int distance) {
+            this.word = word;
+            this.distance = distance;
+        }
+    }
+    
+    private static final class Node {
+        
+        private final String word;
+        // Indexed by edit distance to this word; grown on demand
+        private Node[] children;
+        
+        private Node(String word) {
+            this.word = word;
+        }
+        
+        private Node child(int distance) {
+            return children == null || distance >= children.length ? null : children[distance];
+        }
+        
+        private void setChild(int distance, Node child) {
+            if (children == null) {
+                children = new Node[Math.max(distance + 1, 4)];
+            } else if (distance >= children.length) {
+                Node[] grown = new Node[Math.max(distance + 1, children.length * 2)];
+                System.arraycopy(children, 0, grown, 0, children.length);
+                children = grown;
+            }
+            children[distance] = child;
+        }
+    }
+}
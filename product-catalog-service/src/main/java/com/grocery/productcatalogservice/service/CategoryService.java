@@ -0,0 +1,170 @@
+package com.grocery.productcatalogservice.service;
+
+import com.grocery.productcatalogservice.dto.CategoryRequest;
+import com.grocery.productcatalogservice.dto.CategoryResponse;
+import com.grocery.productcatalogservice.dto.ProductSummary;
+import com.grocery.productcatalogservice.event.CatalogBulkChangeEvent;
+import com.grocery.productcatalogservice.event.CategoryTreeChangedEvent;
+import com.grocery.productcatalogservice.model.Category;
+import com.grocery.productcatalogservice.repository.CategoryRepository;
+import com.grocery.productcatalogservice.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@Transactional
+public class CategoryService {
+    
+    private static final Logger log = LoggerFactory.getLogger(CategoryService.class);
+    
+    // Products from before the tree existed: every legacy category string becomes a root, one per
+    // spelling that differs only by case
+    private static final String SEED_ROOTS_SQL =
+            "INSERT INTO categories (name, depth) " +
+            "SELECT DISTINCT ON (LOWER(p.category)) p.category, 0 FROM products p " +
+            "WHERE p.category_id IS NULL AND p.category IS NOT NULL AND p.category <> '' " +
+            "AND NOT EXISTS (SELECT 1 FROM categories c WHERE LOWER(c.name) = LOWER(p.category)) " +
+            "ORDER BY LOWER(p.category), p.category";
+    
+    private static final String ASSIGN_ROOT_PATHS_SQL =
+            "UPDATE categories SET path = '/' || id || '/' WHERE path IS NULL AND parent_id IS NULL";
+    
+    // Ambiguous names go to the shallowest, oldest node
+    private static final String LINK_PRODUCTS_SQL =
+            "UPDATE products p SET category_id = c.id, category_path = c.path, " +
+            "updated_at = LOCALTIMESTAMP, version = version + 1 " +
+            "FROM (SELECT DISTINCT ON (LOWER(name)) id, name, path FROM categories WHERE path IS NOT NULL " +
+            "ORDER BY LOWER(name), depth, id) c " +
+            "WHERE p.category_id IS NULL AND LOWER(p.category) = LOWER(c.name) RETURNING p.id";
+    
+    // Products keep the leaf name in their category column for display and legacy lookups
+    private static final String RENAME_PRODUCTS_SQL =
+            "UPDATE products SET category = ?, updated_at = LOCALTIMESTAMP, version = version + 1 " +
+            "WHERE category_id = ? RETURNING id";
+    
+    @Autowired
+    private CategoryRepository categoryRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private CategoryTree categoryTree;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ProductChangeFeedService changeFeedService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    /**
+     * Links products that only carry a category string to a tree node, then
+     * loads the tree. Idempotent; after the first run only products written
+     * with an unknown category string are touched.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void initialize() {
+        jdbcTemplate.update(SEED_ROOTS_SQL);
+        jdbcTemplate.update(ASSIGN_ROOT_PATHS_SQL);
+        List<Long> linked = jdbcTemplate.queryForList(LINK_PRODUCTS_SQL, Long.class);
+        if (!linked.isEmpty()) {
+            // Names are unchanged, so in-memory indexes stay valid; replicas still see the new ids
+            changeFeedService.recordBulkChanges(linked);
+            log.info("Linked {} products to categories", linked.size());
+        }
+        eventPublisher.publishEvent(new CategoryTreeChangedEvent(null));
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<CategoryResponse> getMenu() {
+        return categoryTree.menu();
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CategoryResponse getCategory(Integer id) {
+        CategoryTree.Node node = categoryTree.get(id);
+        if (node == null) {
+            throw new RuntimeException("Category not found");
+        }
+        return node.toResponse();
+    }
+    
+    /**
+     * Active products in the category and all of its descendants, ordered by
+     * category path then id. One range scan on (is_active, category_path, id).
+     */
+    @Transactional(readOnly = true)
+    public Page<ProductSummary> getProductsInSubtree(Integer id, Pageable pageable) {
+        CategoryTree.Node node = categoryTree.get(id);
+        if (node == null) {
+            throw new RuntimeException("Category not found");
+        }
+        return productRepository.findActiveSummariesInPathRange(node.getPath(), node.getPathUpperBound(), pageable);
+    }
+    
+    public CategoryResponse createCategory(CategoryRequest request) {
+        String name = request.getName().trim();
+        if (name.isEmpty() || name.contains(">")) {
+            throw new RuntimeException("Invalid category name");
+        }
+        Category parent = null;
+        if (request.getParentId() != null) {
+            parent = categoryRepository.findById(request.getParentId())
+                    .orElseThrow(() -> new RuntimeException("Parent category not found"));
+        }
+        if (categoryRepository.existsSibling(request.getParentId(), name)) {
+            throw new RuntimeException("Category already exists");
+        }
+        
+        Category category = new Category();
+        category.setName(name);
+        category.setParentId(request.getParentId());
+        category.setDepth(parent == null ? 0 : parent.getDepth() + 1);
+        category = categoryRepository.saveAndFlush(category);
+        category.setPath((parent == null ? "/" : parent.getPath()) + category.getId() + "/");
+        categoryRepository.save(category);
+        
+        eventPublisher.publishEvent(new CategoryTreeChangedEvent(category.getId()));
+        return new CategoryResponse(category.getId(), category.getName(), category.getParentId(),
+                category.getPath(), category.getDepth(), List.of());
+    }
+    
+    public CategoryResponse renameCategory(Integer id, CategoryRequest request) {
+        String name = request.getName().trim();
+        if (name.isEmpty() || name.contains(">")) {
+            throw new RuntimeException("Invalid category name");
+        }
+        Category category = categoryRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Category not found"));
+        if (!category.getName().equalsIgnoreCase(name) && categoryRepository.existsSibling(category.getParentId(), name)) {
+            throw new RuntimeException("Category already exists");
+        }
+        category.setName(name);
+        categoryRepository.save(category);
+        
+        // Paths hold ids, so only the denormalized name on products changes
+        List<Long> renamed = jdbcTemplate.queryForList(RENAME_PRODUCTS_SQL, Long.class, name, id);
+        if (!renamed.isEmpty()) {
+            changeFeedService.recordBulkChanges(renamed);
+            eventPublisher.publishEvent(new CatalogBulkChangeEvent("category-rename", renamed.size()));
+        }
+        eventPublisher.publishEvent(new CategoryTreeChangedEvent(id));
+        return new CategoryResponse(category.getId(), category.getName(), category.getParentId(),
+                category.getPath(), category.getDepth(), List.of());
+    }
+}
@@ -0,0 +1,187 @@
+package com.grocery.productcatalogservice.service;
+
+import com.grocery.productcatalogservice.dto.CategoryResponse;
+import com.grocery.productcatalogservice.event.CategoryTreeChangedEvent;
+import com.grocery.productcatalogservice.model.Category;
+import com.grocery.productcatalogservice.repository.CategoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable in-memory copy of the category tree.
+ *
+ * The whole tree is reloaded (categories number in the hundreds, not
+ * millions) after every committed category change and on a timer for changes
+ * made by other instances, then swapped in with a single volatile write.
+ * Navigation menus and category-name resolution read it without touching the
+ * database.
+ */
+@Component
+public class CategoryTree {
+    
+    private static final Logger log = LoggerFactory.getLogger(CategoryTree.class);
+    
+    // "Dairy > Milk > Organic" names a node by its full path
+    private static final String PATH_SEPARATOR = ">";
+    
+    @Autowired
+    private CategoryRepository categoryRepository;
+    
+    private volatile Tree tree = Tree.EMPTY;
+    
+    @Scheduled(initialDelayString = "${product.categories.refresh-interval-ms:60000}",
+               fixedDelayString = "${product.categories.refresh-interval-ms:60000}")
+    public void reload() {
+        tree = Tree.of(categoryRepository.findAll());
+        log.debug("Category tree loaded with {} categories", tree.byId.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryTreeChanged(CategoryTreeChangedEvent event) {
+        reload();
+    }
+    
+    public Node get(Integer id) {
+        return id == null ? null : tree.byId.get(id);
+    }
+    
+    public List<Node> roots() {
+        return Collections.unmodifiableList(tree.roots);
+    }
+    
+    /**
+     * Finds a category by full path ("Dairy > Milk") or by a name that is unique
+     * across the tree. Returns null when nothing, or more than one node, matches.
+     */
+    public Node resolve(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        Tree current = tree;
+        if (!text.contains(PATH_SEPARATOR)) {
+            List<Node> named = current.byName.get(text.trim().toLowerCase(Locale.ROOT));
+            return named != null && named.size() == 1 ? named.get(0) : null;
+        }
+        List<Node> level = current.roots;
+        Node match = null;
+        for (String part : text.split(PATH_SEPARATOR)) {
+            String name = part.trim();
+            match = level.stream().filter(node -> node.name.equalsIgnoreCase(name)).findFirst().orElse(null);
+            if (match == null) {
+                return null;
+            }
+            level = match.children;
+        }
+        return match;
+    }
+    
+    public List<CategoryResponse> menu() {
+        return tree.menu;
+    }
+    
+    public static final class Node {
+        
+        private final Integer id;
+        private final String name;
+        private final Integer parentId;
+        private final String path;
+        private final int depth;
+        private final List<Node> children = new ArrayList<>();
+        private CategoryResponse response;
+        
+        private Node(Category category) {
+            this.id = category.getId();
+            this.name = category.getName();
+            this.parentId = category.getParentId();
+            this.path = category.getPath();
+            this.depth = category.getDepth();
+        }
+        
+        public Integer getId() {
+            return id;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public String getPath() {
+            return path;
+        }
+        
+        public List<Node> getChildren() {
+            return Collections.unmodifiableList(children);
+        }
+        
+        /**
+         * Exclusive upper bound of this subtree's paths: "/1/4/" becomes "/1/40",
+         * since '0' is the character right after '/' and paths hold only digits.
+         */
+        public String getPathUpperBound() {
+            return path.substring(0, path.length() - 1) + '0';
+        }
+        
+        public CategoryResponse toResponse() {
+            return response;
+        }
+        
+        private CategoryResponse buildResponse() {
+            List<CategoryResponse> childResponses = new ArrayList<>(children.size());
+            for (Node child : children) {
+                childResponses.add(child.buildResponse());
+            }
+            response = new CategoryResponse(id, name, parentId, path, depth,
+                    Collections.unmodifiableList(childResponses));
+            return response;
+        }
+    }
+    
+    private static final class Tree {
+        
+        private static final Tree EMPTY = of(List.of());
+        
+        private final Map<Integer, Node> byId = new HashMap<>();
+        private final Map<String, List<Node>> byName = new HashMap<>();
+        private final List<Node> roots = new ArrayList<>();
+        private List<CategoryResponse> menu;
+        
+        private static Tree of(List<Category> categories) {
+            Tree tree = new Tree();
+            for (Category category : categories) {
+                // A node whose path was never assigned did not finish being created
+                if (category.getPath() != null) {
+                    Node node = new Node(category);
+                    tree.byId.put(node.id, node);
+                    tree.byName.computeIfAbsent(node.name.toLowerCase(Locale.ROOT), n -> new ArrayList<>()).add(node);
+                }
+            }
+            for (Node node : tree.byId.values()) {
+                Node parent = node.parentId == null ? null : tree.byId.get(node.parentId);
+                (parent == null ? tree.roots : parent.children).add(node);
+            }
+            Comparator<Node> byName = Comparator.comparing((Node node) -> node.name.toLowerCase(Locale.ROOT))
+                    .thenComparing(node -> node.id);
+            tree.roots.sort(byName);
+            tree.byId.values().forEach(node -> node.children.sort(byName));
+            
+            List<CategoryResponse> menu = new ArrayList<>(tree.roots.size());
+            for (Node root : tree.roots) {
+                menu.add(root.buildResponse());
+            }
+            tree.menu = Collections.unmodifiableList(menu);
+            return tree;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.grocery.productcatalogservice.service;
+
+/**
+ * A stock change was refused because the product is unknown, inactive or does
+ * not have enough available stock. Controllers answer it with 409; any other
+ * failure is not a refusal and may succeed on a retry.
+ */
+public class InsufficientStockException extends RuntimeException {
+    
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
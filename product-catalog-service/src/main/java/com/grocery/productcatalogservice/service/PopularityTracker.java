@@ -0,0 +1,320 @@
+package com.grocery.productcatalogservice.service;
+
+import com.grocery.productcatalogservice.event.ProductsOrderedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Sliding-window heavy hitters over product views and ordered units.
+ *
+ * Counts go into a ring of Count-Min sketches, one per time bucket, plus a
+ * running total across the ring; when the window slides, the oldest bucket is
+ * subtracted from the total and reused. Candidates for the top-K sit in an
+ * indexed min-heap bounded to a few times K, and a product enters it only by
+ * beating the weakest one. Memory is fixed by the configured sketch size and
+ * candidate bound, however many products are viewed. Estimates can only
+ * overcount, by at most about (window total) * e / width.
+ */
+@Component
+public class PopularityTracker {
+    
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+    
+    @Autowired
+    private ProductSuggester productSuggester;
+    
+    private final int width;
+    private final int orderWeight;
+    private final int capacity;
+    
+    // buckets[b] holds DEPTH rows of width counters each
+    private final AtomicLongArray[] buckets;
+    private final AtomicLongArray total;
+    private volatile int current;
+    
+    // Guarded by itself. Heap scores are the estimates at admission; the sketch only grows between
+    // slides, so they are lower bounds that are refreshed when a candidate reaches the root
+    private final CandidateHeap candidates;
+    
+    // Lock-free view of the heap's ids, so records of tracked products skip the lock
+    private final Set<Long> tracked = ConcurrentHashMap.newKeySet();
+    
+    // Smallest estimate among candidates once the heap is full
+    private volatile long admissionThreshold;
+    
+    public PopularityTracker(@Value("${product.popularity.sketch-width:2048}") int width,
+                             @Value("${product.popularity.window:1h}") Duration window,
+                             @Value("${product.popularity.bucket-interval-ms:300000}") long bucketMillis,
+                             @Value("${product.popularity.order-weight:5}") int orderWeight,
+                             @Value("${product.popularity.max-results:50}") int maxResults) {
+        this.width = width;
+        this.orderWeight = orderWeight;
+        this.capacity = maxResults * 4;
+        int bucketCount = (int) Math.max(2, window.toMillis() / bucketMillis);
+        this.buckets = new AtomicLongArray[bucketCount];
+        for (int b = 0; b < bucketCount; b++) {
+            buckets[b] = new AtomicLongArray(DEPTH * width);
+        }
+        this.total = new AtomicLongArray(DEPTH * width);
+        this.candidates = new CandidateHeap(capacity);
+    }
+    
+    public void recordView(Long productId) {
+        record(productId, 1);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsOrdered(ProductsOrderedEvent event) {
+        event.getQuantities().forEach((productId, quantity) -> record(productId, (long) quantity * orderWeight));
+    }
+    
+    public void record(long productId, long weight) {
+        AtomicLongArray bucket = buckets[current];
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int cell = cell(row, productId);
+            bucket.addAndGet(cell, weight);
+            estimate = Math.min(estimate, total.addAndGet(cell, weight));
+        }
+        // Only an untracked product that can displace the weakest candidate takes the lock
+        if (estimate >= admissionThreshold && !tracked.contains(productId)) {
+            admit(productId, estimate);
+        }
+    }
+    
+    public long estimate(long productId) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, total.get(cell(row, productId)));
+        }
+        return estimate;
+    }
+    
+    /**
+     * Most popular product ids with their estimated scores, highest first.
+     */
+    public Map<Long, Long> top(int limit) {
+        long[] ids;
+        synchronized (candidates) {
+            ids = candidates.ids();
+        }
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(ids.length);
+        for (long productId : ids) {
+            entries.add(Map.entry(productId, estimate(productId)));
+        }
+        entries.sort(Map.Entry.<Long, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        Map<Long, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<Long, Long> entry : entries) {
+            if (result.size() == limit || entry.getValue() == 0) {
+                break;
+            }
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+    
+    // Slides the window by one bucket and hands fresh scores to the suggester
+    @Scheduled(fixedRateString = "${product.popularity.bucket-interval-ms:300000}",
+               initialDelayString = "${product.popularity.bucket-interval-ms:300000}")
+    public void advance() {
+        int next = (current + 1) % buckets.length;
+        AtomicLongArray expired = buckets[next];
+        for (int i = 0; i < expired.length(); i++) {
+            long count = expired.getAndSet(i, 0);
+            if (count != 0) {
+                total.addAndGet(i, -count);
+            }
+        }
+        current = next;
+        
+        synchronized (candidates) {
+            // Scores fell, so every stored score is rescored and the heap rebuilt
+            for (long productId : candidates.rescore(this::estimate)) {
+                tracked.remove(productId);
+            }
+            admissionThreshold = candidates.size() < capacity ? 0 : candidates.minScore();
+        }
+        productSuggester.updatePopularity(top(capacity));
+    }
+    
+    private void admit(long productId, long estimate) {
+        synchronized (candidates) {
+            if (candidates.contains(productId)) {
+                return;
+            }
+            if (candidates.size() < capacity) {
+                candidates.push(productId, estimate);
+                tracked.add(productId);
+            } else {
+                candidates.refreshRoot(this::estimate);
+                if (estimate > candidates.minScore()) {
+                    tracked.remove(candidates.replaceRoot(productId, estimate));
+                    tracked.add(productId);
+                    candidates.refreshRoot(this::estimate);
+                }
+            }
+            if (candidates.size() >= capacity) {
+                admissionThreshold = candidates.minScore();
+            }
+        }
+    }
+    
+    private int cell(int row, long productId) {
+        long hash = (productId + 1) * SEEDS[row];
+        hash ^= hash >>> 31;
+        hash *= 0xBF58476D1CE4E5B9L;
+        hash ^= hash >>> 29;
+        return row * width + (int) Math.floorMod(hash, (long) width);
+    }
+    
+    /**
+     * Binary min-heap of product ids by score, with a position index so a
+     * product's entry can be found without a scan. Not thread-safe.
+     */
+    static final class CandidateHeap {
+        
+        private final long[] ids;
+        private final long[] scores;
+        private final Map<Long, Integer> positions = new HashMap<>();
+        private int size;
+        
+        CandidateHeap(int capacity) {
+            this.ids = new long[capacity];
+            this.scores = new long[capacity];
+        }
+        
+        int size() {
+            return size;
+        }
+        
+        boolean contains(long productId) {
+            return positions.containsKey(productId);
+        }
+        
+        long minScore() {
+            return size == 0 ? 0 : scores[0];
+        }
+        
+        long[] ids() {
+            return Arrays.copyOf(ids, size);
+        }
+        
+        void push(long productId, long score) {
+            ids[size] = productId;
+            scores[size] = score;
+            positions.put(productId, size);
+            siftUp(size++);
+        }
+        
+        // Replaces the weakest entry and returns the id it displaced
+        long replaceRoot(long productId, long score) {
+            long displaced = ids[0];
+            positions.remove(displaced);
+            ids[0] = productId;
+            scores[0] = score;
+            positions.put(productId, 0);
+            siftDown(0);
+            return displaced;
+        }
+        
+        /**
+         * Raises stale root scores to their current estimate until the root
+         * holds an up-to-date score, which then is the true minimum: every
+         * other stored score is at most its own estimate.
+         */
+        void refreshRoot(LongUnaryOperator estimate) {
+            for (int i = 0; i < size; i++) {
+                long fresh = estimate.applyAsLong(ids[0]);
+                if (fresh <= scores[0]) {
+                    return;
+                }
+                scores[0] = fresh;
+                siftDown(0);
+            }
+        }
+        
+        // Rescores every entry, drops those at zero and returns their ids
+        List<Long> rescore(LongUnaryOperator estimate) {
+            List<Long> dropped = new ArrayList<>();
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                long score = estimate.applyAsLong(ids[i]);
+                if (score == 0) {
+                    dropped.add(ids[i]);
+                    positions.remove(ids[i]);
+                } else {
+                    ids[kept] = ids[i];
+                    scores[kept] = score;
+                    kept++;
+                }
+            }
+            size = kept;
+            for (int i = 0; i < size; i++) {
+                positions.put(ids[i], i);
+            }
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+            return dropped;
+        }
+        
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (scores[parent] <= scores[i]) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+        
+        private void siftDown(int i) {
+            while (true) {
+                int smallest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && scores[left] < scores[smallest]) {
+                    smallest = left;
+                }
+                if (right < size && scores[right] < scores[smallest]) {
+                    smallest = right;
+                }
+                if (smallest == i) {
+                    return;
+                }
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+        
+        private void swap(int a, int b) {
+            long id = ids[a];
+            long score = scores[a];
+            ids[a] = ids[b];
+            scores[a] = scores[b];
+            ids[b] = id;
+            scores[b] = score;
+            positions.put(ids[a], a);
+            positions.put(ids[b], b);
+        }
+    }
+}
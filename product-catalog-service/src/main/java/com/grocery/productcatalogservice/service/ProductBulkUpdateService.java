@@ -0,0 +1,238 @@
+package com.grocery.productcatalogservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grocery.productcatalogservice.dto.BulkPriceUpdateRequest;
+import com.grocery.productcatalogservice.dto.BulkUpdateResult;
+import com.grocery.productcatalogservice.dto.CatalogFormat;
+import com.grocery.productcatalogservice.event.CatalogBulkChangeEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Catalog-wide price and stock changes as set-based SQL.
+ *
+ * A price change is one UPDATE over a category or id list. A stock file is
+ * streamed in chunks, and each chunk is a single UPDATE ... FROM unnest(...)
+ * joining the products table against the chunk's id and quantity arrays. Each
+ * statement returns the ids it wrote (RETURNING id), and exactly those rows
+ * are recorded in the change outbox in the same transaction; once done, a
+ * single CatalogBulkChangeEvent clears the product cache and reloads the
+ * in-memory indexes.
+ */
+@Service
+public class ProductBulkUpdateService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ProductBulkUpdateService.class);
+    
+    private static final String SET_FIELDS = "updated_at = LOCALTIMESTAMP, version = version + 1 ";
+    
+    // Rows the change would take to zero or below are left alone
+    private static final String PERCENT_PRICE_SQL =
+            "UPDATE products SET price = ROUND(price * (100 + ?) / 100, 2), " + SET_FIELDS +
+            "WHERE is_active = true AND ROUND(price * (100 + ?) / 100, 2) > 0 AND ";
+    
+    private static final String AMOUNT_PRICE_SQL =
+            "UPDATE products SET price = price + ?, " + SET_FIELDS +
+            "WHERE is_active = true AND price + ? > 0 AND ";
+    
+    // Stock never drops below what active reservations hold
+    private static final String SET_STOCK_SQL =
+            "UPDATE products p SET stock_quantity = GREATEST(v.quantity, p.reserved_quantity), " + SET_FIELDS +
+            "FROM unnest(?::bigint[], ?::int[]) AS v(id, quantity) WHERE p.id = v.id AND p.is_active = true " +
+            "RETURNING p.id";
+    
+    private static final String ADJUST_STOCK_SQL =
+            "UPDATE products p SET stock_quantity = GREATEST(p.stock_quantity + v.quantity, p.reserved_quantity), " +
+            SET_FIELDS +
+            "FROM unnest(?::bigint[], ?::int[]) AS v(id, quantity) WHERE p.id = v.id AND p.is_active = true " +
+            "RETURNING p.id";
+    
+    public enum StockMode {
+        SET,
+        ADJUST
+    }
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ProductChangeFeedService changeFeedService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private CategoryTree categoryTree;
+    
+    @Value("${product.import.chunk-size:1000}")
+    private int chunkSize;
+    
+    @Transactional
+    public BulkUpdateResult updatePrices(BulkPriceUpdateRequest request) {
+        boolean byCategory = request.getCategory() != null && !request.getCategory().isBlank();
+        boolean bySubtree = request.getCategoryId() != null;
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        if ((byCategory ? 1 : 0) + (bySubtree ? 1 : 0) + (byIds ? 1 : 0) != 1) {
+            throw new RuntimeException("Specify exactly one of category, categoryId or ids");
+        }
+        if ((request.getPercent() == null) == (request.getAmount() == null)) {
+            throw new RuntimeException("Specify exactly one of percent or amount");
+        }
+        CategoryTree.Node node = bySubtree ? categoryTree.get(request.getCategoryId()) : null;
+        if (bySubtree && node == null) {
+            throw new RuntimeException("Category not found");
+        }
+        
+        long start = System.currentTimeMillis();
+        BigDecimal change = request.getPercent() != null ? request.getPercent() : request.getAmount();
+        String sql = (request.getPercent() != null ? PERCENT_PRICE_SQL : AMOUNT_PRICE_SQL)
+                + (byCategory ? "category = ?" : bySubtree ? "category_path >= ? AND category_path < ?" : "id = ANY(?)");
+        List<Long> touched = jdbcTemplate.query(sql + " RETURNING id", ps -> {
+            ps.setBigDecimal(1, change);
+            ps.setBigDecimal(2, change);
+            if (byCategory) {
+                ps.setString(3, request.getCategory());
+            } else if (bySubtree) {
+                ps.setString(3, node.getPath());
+                ps.setString(4, node.getPathUpperBound());
+            } else {
+                ps.setArray(3, ps.getConnection().createArrayOf("bigint", request.getIds().toArray()));
+            }
+        }, (rs, rowNum) -> rs.getLong(1));
+        
+        int affected = touched.size();
+        if (affected > 0) {
+            changeFeedService.recordBulkChanges(touched);
+            eventPublisher.publishEvent(new CatalogBulkChangeEvent("price-update", affected, false));
+        }
+        return new BulkUpdateResult(affected, 0, 0, System.currentTimeMillis() - start);
+    }
+    
+    /**
+     * Applies a streamed stock file: CSV with an id,quantity header, or NDJSON
+     * objects with id and quantity. Each chunk commits on its own.
+     */
+    public BulkUpdateResult updateStock(InputStream input, CatalogFormat format, StockMode mode) throws IOException {
+        long start = System.currentTimeMillis();
+        String sql = mode == StockMode.SET ? SET_STOCK_SQL : ADJUST_STOCK_SQL;
+        long rowsRead = 0;
+        long rejected = 0;
+        long affected = 0;
+        
+        // unnest rows must be unique per id: a repeated id is summed when adjusting, last one wins when setting
+        Map<Long, Integer> chunk = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String[] header = null;
+            if (format == CatalogFormat.CSV) {
+                String headerLine = reader.readLine();
+                header = headerLine == null ? new String[0] : ProductImportService.parseCsvLine(headerLine);
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                rowsRead++;
+                try {
+                    long[] entry = format == CatalogFormat.CSV ? fromCsv(header, line) : fromJson(line);
+                    int quantity = Math.toIntExact(entry[1]);
+                    if (mode == StockMode.ADJUST) {
+                        chunk.merge(entry[0], quantity, Math::addExact);
+                    } else {
+                        chunk.put(entry[0], quantity);
+                    }
+                } catch (RuntimeException | IOException e) {
+                    rejected++;
+                    continue;
+                }
+                if (chunk.size() >= chunkSize) {
+                    int updated = writeStockChunk(sql, chunk);
+                    affected += updated;
+                    rejected += chunk.size() - updated;
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                int updated = writeStockChunk(sql, chunk);
+                affected += updated;
+                rejected += chunk.size() - updated;
+            }
+        } finally {
+            // Chunks commit on their own, so those written before a failure must still reach the caches
+            if (affected > 0) {
+                eventPublisher.publishEvent(new CatalogBulkChangeEvent("stock-" + mode.name().toLowerCase(), affected, false));
+            }
+        }
+        
+        long duration = System.currentTimeMillis() - start;
+        log.info("Stock {} applied to {} of {} rows in {} ms", mode, affected, rowsRead, duration);
+        return new BulkUpdateResult(affected, rowsRead, rejected, duration);
+    }
+    
+    private int writeStockChunk(String sql, Map<Long, Integer> chunk) {
+        Long[] ids = chunk.keySet().toArray(new Long[0]);
+        Integer[] quantities = new Integer[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            quantities[i] = chunk.get(ids[i]);
+        }
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            List<Long> touched = jdbcTemplate.query(sql, ps -> {
+                Array idArray = ps.getConnection().createArrayOf("bigint", ids);
+                Array quantityArray = ps.getConnection().createArrayOf("integer", quantities);
+                ps.setArray(1, idArray);
+                ps.setArray(2, quantityArray);
+            }, (rs, rowNum) -> rs.getLong(1));
+            changeFeedService.recordBulkChanges(touched);
+            return touched.size();
+        });
+    }
+    
+    private long[] fromJson(String line) throws IOException {
+        JsonNode node = objectMapper.readTree(line);
+        return new long[]{node.get("id").asLong(), node.get("quantity").asLong()};
+    }
+    
+    private static long[] fromCsv(String[] header, String line) {
+        String[] values = ProductImportService.parseCsvLine(line);
+        Long id = null;
+        Long quantity = null;
+        for (int i = 0; i < header.length && i < values.length; i++) {
+            String column = header[i].trim();
+            if (column.equals("id")) {
+                id = Long.valueOf(values[i].trim());
+            } else if (column.equals("quantity") || column.equals("stockQuantity")) {
+                quantity = Long.valueOf(values[i].trim());
+            }
+        }
+        if (id == null || quantity == null) {
+            throw new IllegalArgumentException("id and quantity are required");
+        }
+        return new long[]{id, quantity};
+    }
+}
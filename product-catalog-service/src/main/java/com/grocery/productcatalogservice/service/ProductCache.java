@@ -0,0 +1,200 @@
+package com.grocery.productcatalogservice.service;
+
+import com.grocery.productcatalogservice.dto.ProductResponse;
+import com.grocery.productcatalogservice.event.CatalogBulkChangeEvent;
+import com.grocery.productcatalogservice.event.ProductChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded read-through cache of ProductResponse keyed by product id.
+ *
+ * Reads are lock-free. Entries older than product.cache.ttl are dropped when
+ * read, and past product.cache.max-size a CLOCK sweep evicts entries that
+ * were not read since the sweep last passed them, which approximates LRU
+ * without reordering anything on a hit. Writes in ProductService evict the
+ * affected id immediately and again once the transaction commits; a load
+ * stores its value only if no eviction hit that id (or the few ids sharing
+ * its stripe) since the load began, so readers never repopulate a stale value.
+ * Hit, miss and eviction counts are published as product.cache.* metrics.
+ */
+@Component
+public class ProductCache {
+    
+    private static final int STRIPES = 4096;
+    
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlNanos;
+    
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    
+    // Stored entries in insertion order for the CLOCK sweep; replaced and removed ones are dropped as it passes
+    private final ConcurrentLinkedQueue<Entry> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger clockSize = new AtomicInteger();
+    
+    // Invalidation counter per id stripe; a load started before its stripe moved must not be stored
+    private final AtomicLongArray stripes = new AtomicLongArray(STRIPES);
+    
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    private final Counter invalidations;
+    
+    public ProductCache(MeterRegistry meterRegistry,
+                        @Value("${product.cache.enabled:true}") boolean enabled,
+                        @Value("${product.cache.max-size:10000}") int maxSize,
+                        @Value("${product.cache.ttl:5m}") Duration ttl) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.hits = Counter.builder("product.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("product.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.sizeEvictions = Counter.builder("product.cache.evictions").tag("cause", "size").register(meterRegistry);
+        this.expiredEvictions = Counter.builder("product.cache.evictions").tag("cause", "expired").register(meterRegistry);
+        this.invalidations = Counter.builder("product.cache.evictions").tag("cause", "explicit").register(meterRegistry);
+        Gauge.builder("product.cache.size", this, ProductCache::size).register(meterRegistry);
+    }
+    
+    public ProductResponse get(Long id) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = entries.get(id);
+        if (entry != null) {
+            if (System.nanoTime() - entry.loadedAt < ttlNanos) {
+                if (!entry.referenced) {
+                    entry.referenced = true;
+                }
+                hits.increment();
+                return entry.value;
+            }
+            if (entries.remove(id, entry)) {
+                expiredEvictions.increment();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+    
+    /**
+     * Returns a token to hand back to {@link #put} once the value for this id
+     * has been loaded.
+     */
+    public long beginLoad(Long id) {
+        return stripes.get(stripe(id));
+    }
+    
+    public void put(Long id, ProductResponse value, long loadToken) {
+        if (!enabled) {
+            return;
+        }
+        int stripe = stripe(id);
+        if (stripes.get(stripe) != loadToken) {
+            return;
+        }
+        Entry entry = new Entry(id, value, System.nanoTime());
+        entries.put(id, entry);
+        // Evictions bump the stripe before removing, so one that raced with the store is seen here
+        if (stripes.get(stripe) != loadToken) {
+            entries.remove(id, entry);
+            return;
+        }
+        clock.offer(entry);
+        clockSize.incrementAndGet();
+        sweep();
+    }
+    
+    public void evict(Long id) {
+        stripes.incrementAndGet(stripe(id));
+        if (entries.remove(id) != null) {
+            invalidations.increment();
+        }
+    }
+    
+    public void evictAll(Collection<Long> ids) {
+        for (Long id : ids) {
+            evict(id);
+        }
+    }
+    
+    public void clear() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes.incrementAndGet(i);
+        }
+        invalidations.increment(entries.size());
+        entries.clear();
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        evict(event.getProductId());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogBulkChange(CatalogBulkChangeEvent event) {
+        clear();
+    }
+    
+    /**
+     * Evicts until the cache is back under max-size, giving entries read since
+     * the last pass a second chance, and drops queue slots of entries that are
+     * gone so the queue stays bounded too.
+     */
+    private void sweep() {
+        int budget = 2 * clockSize.get() + 1;
+        while (budget-- > 0 && (entries.size() > maxSize || clockSize.get() > 2 * maxSize)) {
+            Entry entry = clock.poll();
+            if (entry == null) {
+                return;
+            }
+            if (entries.get(entry.id) != entry) {
+                clockSize.decrementAndGet();
+            } else if (entry.referenced) {
+                entry.referenced = false;
+                clock.offer(entry);
+            } else {
+                clockSize.decrementAndGet();
+                if (entries.remove(entry.id, entry)) {
+                    sizeEvictions.increment();
+                }
+            }
+        }
+    }
+    
+    private static int stripe(Long id) {
+        return Long.hashCode(id) & (STRIPES - 1);
+    }
+    
+    private static final class Entry {
+        
+        private final Long id;
+        private final ProductResponse value;
+        private final long loadedAt;
+        
+        // Set on a hit, cleared by the sweep
+        private volatile boolean referenced;
+        
+        private Entry(Long id, ProductResponse value, long loadedAt) {
+            this.id = id;
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.grocery.productcatalogservice.service;
+
+import com.grocery.productcatalogservice.dto.CursorPage;
+import com.grocery.productcatalogservice.dto.ProductChangeResponse;
+import com.grocery.productcatalogservice.dto.ProductResponse;
+import com.grocery.productcatalogservice.event.ProductChangedEvent;
+import com.grocery.productcatalogservice.model.ProductChange;
+import com.grocery.productcatalogservice.repository.ProductChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Transactional outbox for product changes, read as a cursor-based feed.
+ *
+ * A row is written in the same transaction as every product write that goes
+ * through ProductService, so the feed never shows a change that rolled back
+ * and never misses one that committed. The feed is ordered by (writing
+ * transaction id, row id) and only exposes rows from transactions older than
+ * the oldest one still running, which keeps it append-only for readers even
+ * though ids are handed out before commit. Cursors are "txId.id" and opaque
+ * to clients; an absent cursor starts from the oldest retained change.
+ */
+@Service
+@Transactional
+public class ProductChangeFeedService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ProductChangeFeedService.class);
+    
+    private static final String START_CURSOR = "0.0";
+    
+    private static final String RECORD_PRODUCTS_SQL =
+            "INSERT INTO product_changes (product_id, name, unit, price, stock_quantity, is_active, changed_at) " +
+            "SELECT id, name, unit, price, stock_quantity, is_active, LOCALTIMESTAMP " +
+            "FROM products WHERE id = ANY(?)";
+    
+    @Autowired
+    private ProductChangeRepository changeRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${product.changes.max-batch-size:500}")
+    private int maxBatchSize;
+    
+    @Value("${product.changes.retention:7d}")
+    private Duration retention;
+    
+    private final ConcurrentLinkedQueue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    
+    // Runs synchronously inside the writer's transaction
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductResponse product = event.getProduct();
+        changeRepository.save(new ProductChange(
+                product.getId(),
+                product.getName(),
+                product.getUnit(),
+                product.getPrice(),
+                product.getStockQuantity(),
+                product.getIsActive()
+        ));
+    }
+    
+    /**
+     * Records the current state of the given products, as written by the
+     * current transaction. For set-based JDBC writes that bypass
+     * ProductService; they collect the ids with RETURNING id.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int recordBulkChanges(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(RECORD_PRODUCTS_SQL, ps ->
+                ps.setArray(1, ps.getConnection().createArrayOf("bigint", productIds.toArray())));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPage<ProductChangeResponse> getChanges(String cursor, int limit) {
+        long[] position = decodeCursor(cursor);
+        int size = Math.max(1, Math.min(limit, maxBatchSize));
+        List<ProductChange> rows = changeRepository.findCommittedAfter(position[0], position[1], size + 1);
+        
+        boolean hasNext = rows.size() > size;
+        List<ProductChange> content = hasNext ? rows.subList(0, size) : rows;
+        // Unlike listing cursors, the feed cursor is always returned so consumers can resume from it
+        String nextCursor = content.isEmpty()
+                ? encodeCursor(position[0], position[1])
+                : encodeCursor(content.get(content.size() - 1));
+        List<ProductChangeResponse> changes = content.stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+        return new CursorPage<>(changes, nextCursor, hasNext, null);
+    }
+    
+    /**
+     * Cursor positioned after the latest committed change, for consumers that
+     * load a snapshot first and only want changes from then on.
+     */
+    @Transactional(readOnly = true)
+    public String getHeadCursor() {
+        List<ProductChange> latest = changeRepository.findLatestCommitted();
+        return latest.isEmpty() ? START_CURSOR : encodeCursor(latest.get(0));
+    }
+    
+    /**
+     * Long-poll variant of {@link #getChanges}: answers immediately when changes
+     * are available, otherwise parks the request until one commits or the wait
+     * elapses, in which case an empty page with the same cursor is returned.
+     * Waiting requests are rechecked every product.changes.poll-interval-ms.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public DeferredResult<CursorPage<ProductChangeResponse>> pollChanges(String cursor, int limit, Duration wait) {
+        CursorPage<ProductChangeResponse> page = getChanges(cursor, limit);
+        if (!page.getContent().isEmpty() || wait.isZero() || wait.isNegative()) {
+            DeferredResult<CursorPage<ProductChangeResponse>> result = new DeferredResult<>();
+            result.setResult(page);
+            return result;
+        }
+        
+        DeferredResult<CursorPage<ProductChangeResponse>> result = new DeferredResult<>(wait.toMillis(), page);
+        Waiter waiter = new Waiter(page.getNextCursor(), limit, result);
+        result.onCompletion(() -> waiters.remove(waiter));
+        waiters.add(waiter);
+        return result;
+    }
+    
+    // Polling here rather than on commit keeps the write path free of feed
+    // queries, and also picks up changes committed by other instances
+    @Scheduled(fixedDelayString = "${product.changes.poll-interval-ms:250}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void wakeWaiters() {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        // Most waiters sit at the head of the feed, so one query serves them all
+        Map<String, CursorPage<ProductChangeResponse>> pages = new HashMap<>();
+        Iterator<Waiter> iterator = waiters.iterator();
+        while (iterator.hasNext()) {
+            Waiter waiter = iterator.next();
+            if (waiter.result.isSetOrExpired()) {
+                iterator.remove();
+                continue;
+            }
+            CursorPage<ProductChangeResponse> page = pages.computeIfAbsent(
+                    waiter.cursor + "/" + waiter.limit, key -> getChanges(waiter.cursor, waiter.limit));
+            if (!page.getContent().isEmpty()) {
+                waiter.result.setResult(page);
+                iterator.remove();
+            }
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${product.changes.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int purged = changeRepository.deleteOlderThan(LocalDateTime.now().minus(retention));
+        if (purged > 0) {
+            log.debug("Purged {} product change records", purged);
+        }
+    }
+    
+    private static String encodeCursor(ProductChange change) {
+        return encodeCursor(change.getTxId(), change.getId());
+    }
+    
+    private static String encodeCursor(long txId, long id) {
+        return txId + "." + id;
+    }
+    
+    // Returns {txId, id}
+    private static long[] decodeCursor(String cursor) {
+        String value = cursor == null || cursor.isBlank() ? START_CURSOR : cursor;
+        int dot = value.indexOf('.');
+        try {
+            if (dot < 0) {
+                throw new NumberFormatException("missing separator");
+            }
+            return new long[]{Long.parseLong(value.substring(0, dot)), Long.parseLong(value.substring(dot + 1))};
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid cursor", e);
+        }
+    }
+    
+    private ProductChangeResponse convertToResponse(ProductChange change) {
+        return new ProductChangeResponse(
+                change.getId(),
+                change.getProductId(),
+                change.getName(),
+                change.getUnit(),
+                change.getPrice(),
+                change.getStockQuantity(),
+                change.getIsActive(),
+                change.getChangedAt()
+        );
+    }
+    
+    private static final class Waiter {
+        
+        private final String cursor;
+        private final int limit;
+        private final DeferredResult<CursorPage<ProductChangeResponse>> result;
+        
+        private Waiter(String cursor, int limit, DeferredResult<CursorPage<ProductChangeResponse>> result) {
+            this.cursor = cursor;
+            this.limit = limit;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.grocery.productcatalogservice.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grocery.productcatalogservice.dto.CatalogFormat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams the products table to an output stream as NDJSON or CSV.
+ *
+ * Rows come from a forward-only cursor: the query runs inside a read-only
+ * transaction (the Postgres driver only honours the fetch size with
+ * auto-commit off), so at most product.export.fetch-size rows are held on the
+ * heap at a time regardless of catalog size. Inactive rows are included so
+ * incremental consumers see deactivations.
+ */
+@Service
+public class ProductExportService {
+    
+    private static final String[] COLUMNS = {
+            "id", "name", "description", "unit", "price", "shelfLifeDays", "stockQuantity",
+            "category", "imageUrl", "sku", "isActive", "createdAt", "updatedAt"
+    };
+    
+    private final JdbcTemplate cursorTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    public ProductExportService(DataSource dataSource,
+                                @Value("${product.export.fetch-size:500}") int fetchSize) {
+        this.cursorTemplate = new JdbcTemplate(dataSource);
+        this.cursorTemplate.setFetchSize(fetchSize);
+    }
+    
+    public void export(OutputStream out, CatalogFormat format, String category, LocalDateTime updatedSince) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, name, description, unit, price, shelf_life_days, stock_quantity, category, " +
+                "image_url, sku, is_active, created_at, updated_at FROM products WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (category != null) {
+            sql.append(" AND category = ?");
+            args.add(category);
+        }
+        if (updatedSince != null) {
+            sql.append(" AND updated_at >= ?");
+            args.add(Timestamp.valueOf(updatedSince));
+        }
+        sql.append(" ORDER BY id");
+        
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            try {
+                if (format == CatalogFormat.CSV) {
+                    cursorTemplate.query(sql.toString(), csvWriter(out), args.toArray());
+                } else {
+                    JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    cursorTemplate.query(sql.toString(), ndjsonWriter(generator), args.toArray());
+                    generator.flush();
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+    
+    private RowCallbackHandler ndjsonWriter(JsonGenerator generator) {
+        return rs -> {
+            try {
+                generator.writeStartObject();
+                generator.writeNumberField("id", rs.getLong("id"));
+                generator.writeStringField("name", rs.getString("name"));
+                generator.writeStringField("description", rs.getString("description"));
+                generator.writeStringField("unit", rs.getString("unit"));
+                generator.writeNumberField("price", rs.getBigDecimal("price"));
+                writeNullableInt(generator, "shelfLifeDays", rs, "shelf_life_days");
+                generator.writeNumberField("stockQuantity", rs.getInt("stock_quantity"));
+                generator.writeStringField("category", rs.getString("category"));
+                generator.writeStringField("imageUrl", rs.getString("image_url"));
+                generator.writeStringField("sku", rs.getString("sku"));
+                generator.writeBooleanField("isActive", rs.getBoolean("is_active"));
+                generator.writeStringField("createdAt", timestamp(rs, "created_at"));
+                generator.writeStringField("updatedAt", timestamp(rs, "updated_at"));
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+    
+    private RowCallbackHandler csvWriter(OutputStream out) throws IOException {
+        out.write((String.join(",", COLUMNS) + "\n").getBytes(StandardCharsets.UTF_8));
+        StringBuilder line = new StringBuilder(256);
+        return rs -> {
+            line.setLength(0);
+            line.append(rs.getLong("id")).append(',');
+            appendCsv(line, rs.getString("name")).append(',');
+            appendCsv(line, rs.getString("description")).append(',');
+            appendCsv(line, rs.getString("unit")).append(',');
+            line.append(rs.getBigDecimal("price").toPlainString()).append(',');
+            appendCsv(line, rs.getString("shelf_life_days")).append(',');
+            line.append(rs.getInt("stock_quantity")).append(',');
+            appendCsv(line, rs.getString("category")).append(',');
+            appendCsv(line, rs.getString("image_url")).append(',');
+            appendCsv(line, rs.getString("sku")).append(',');
+            line.append(rs.getBoolean("is_active")).append(',');
+            appendCsv(line, timestamp(rs, "created_at")).append(',');
+            appendCsv(line, timestamp(rs, "updated_at")).append('\n');
+            try {
+                out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+    
+    private static StringBuilder appendCsv(StringBuilder line, String value) {
+        if (value == null) {
+            return line;
+        }
+        // Newlines are flattened so every record stays on one line, matching the importer
+        String flat = value.replace('\r', ' ').replace('\n', ' ');
+        if (flat.indexOf(',') < 0 && flat.indexOf('"') < 0) {
+            return line.append(flat);
+        }
+        return line.append('"').append(flat.replace("\"", "\"\"")).append('"');
+    }
+    
+    private static void writeNullableInt(JsonGenerator generator, String field, ResultSet rs, String column)
+            throws IOException, SQLException {
+        int value = rs.getInt(column);
+        if (rs.wasNull()) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeNumberField(field, value);
+        }
+    }
+    
+    private static String timestamp(ResultSet rs, String column) throws SQLException {
+        Timestamp value = rs.getTimestamp(column);
+        return value == null ? null : value.toLocalDateTime().toString();
+    }
+}
@@ -0,0 +1,420 @@
+package com.grocery.productcatalogservice.service;
+
+import com.grocery.productcatalogservice.dto.FacetSearchResult;
+import com.grocery.productcatalogservice.dto.ProductSummary;
+import com.grocery.productcatalogservice.event.CatalogBulkChangeEvent;
+import com.grocery.productcatalogservice.event.ProductChangedEvent;
+import com.grocery.productcatalogservice.event.StockReservationChangedEvent;
+import com.grocery.productcatalogservice.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap facet index over active products.
+ *
+ * Every product gets a dense ordinal (freed ordinals are reused, so bitmaps
+ * stay as short as the catalog) and each facet value keeps a bitmap of the
+ * ordinals that carry it. A filter ORs the selected values within a facet and
+ * ANDs across facets; facet counts are the cardinality of each value bitmap
+ * ANDed with the filters of the other facets, so selecting a category still
+ * shows counts for its sibling categories. Loaded at startup and patched from
+ * ProductChangedEvent like ProductSearchIndex.
+ *
+ * inStock means stock_quantity - reserved_quantity > 0, as /availability
+ * reports it; StockReservationChangedEvent re-reads the reserved quantities.
+ */
+@Component
+public class ProductFacetIndex {
+    
+    public static final String CATEGORY = "category";
+    public static final String PRICE = "price";
+    public static final String SHELF_LIFE = "shelfLife";
+    public static final String IN_STOCK = "inStock";
+    
+    private static final List<String> FACETS = List.of(CATEGORY, PRICE, SHELF_LIFE, IN_STOCK);
+    
+    private static final Logger log = LoggerFactory.getLogger(ProductFacetIndex.class);
+    
+    private static final int WARMUP_PAGE_SIZE = 500;
+    
+    // Below one match in this many products, a page is cut from the sorted matches instead
+    private static final int SPARSE_FACTOR = 16;
+    
+    private static final String RESERVED_HELD_SQL =
+            "SELECT id, reserved_quantity FROM products WHERE reserved_quantity > 0";
+    
+    private static final String RESERVED_SQL =
+            "SELECT id, reserved_quantity FROM products WHERE id IN (:ids)";
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private ProductSnapshotStore productSnapshotStore;
+    
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+    
+    private final List<BigDecimal> priceBands;
+    private final List<Integer> shelfLifeBands;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    // facet -> value -> ordinals carrying that value
+    private final Map<String, Map<String, BitSet>> bitmaps = new HashMap<>();
+    
+    // Product id -> ordinal; iterating it in id order is the page order
+    private final NavigableMap<Long, Integer> ordinals = new TreeMap<>();
+    private final List<IndexedProduct> documents = new ArrayList<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final BitSet live = new BitSet();
+    
+    private volatile boolean ready;
+    
+    public ProductFacetIndex(@Value("${product.facets.price-bands:1,2,5,10,20}") List<BigDecimal> priceBands,
+                             @Value("${product.facets.shelf-life-bands:3,7,14,30}") List<Integer> shelfLifeBands) {
+        this.priceBands = priceBands.stream().sorted().toList();
+        this.shelfLifeBands = shelfLifeBands.stream().sorted().toList();
+        FACETS.forEach(facet -> bitmaps.put(facet, new HashMap<>()));
+    }
+    
+    // A snapshot restored from file is already current, so startup skips the database
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!productSnapshotStore.isReady()) {
+            rebuild();
+            return;
+        }
+        long start = System.currentTimeMillis();
+        ProductSnapshot snapshot = productSnapshotStore.current();
+        for (int i = 0; i < snapshot.size(); i++) {
+            index(snapshot.summary(i), snapshot.reserved[i]);
+        }
+        ready = true;
+        log.info("Product facet index built from snapshot with {} products in {} ms",
+                size(), System.currentTimeMillis() - start);
+    }
+    
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Set<Long> seen = new HashSet<>();
+        Map<Long, Integer> reserved = new HashMap<>();
+        namedJdbcTemplate.getJdbcTemplate().query(RESERVED_HELD_SQL,
+                rs -> {
+                    reserved.put(rs.getLong("id"), rs.getInt("reserved_quantity"));
+                });
+        long afterId = 0L;
+        List<ProductSummary> batch;
+        do {
+            batch = productRepository.findActiveSummariesAfterId(afterId, Limit.of(WARMUP_PAGE_SIZE));
+            for (ProductSummary product : batch) {
+                index(product, reserved.getOrDefault(product.getId(), 0));
+                seen.add(product.getId());
+                afterId = product.getId();
+            }
+        } while (batch.size() == WARMUP_PAGE_SIZE);
+        
+        // Drop products that disappeared or went inactive while we were not listening
+        lock.writeLock().lock();
+        try {
+            new ArrayList<>(ordinals.keySet()).stream()
+                    .filter(id -> !seen.contains(id))
+                    .forEach(this::removeInternal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        log.info("Product facet index built with {} products in {} ms",
+                size(), System.currentTimeMillis() - start);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isActive()) {
+            index(ProductService.convertToSummary(event.getProduct()));
+        } else {
+            remove(event.getProductId());
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockReservationChanged(StockReservationChangedEvent event) {
+        if (event.getProductIds().isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> reserved = new HashMap<>();
+        namedJdbcTemplate.query(RESERVED_SQL, new MapSqlParameterSource("ids", event.getProductIds()),
+                rs -> {
+                    reserved.put(rs.getLong("id"), rs.getInt("reserved_quantity"));
+                });
+        reserved.forEach(this::updateReserved);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogBulkChange(CatalogBulkChangeEvent event) {
+        rebuild();
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Indexes the product, keeping the reserved quantity already known for it.
+     */
+    public void index(ProductSummary product) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(product.getId());
+            indexInternal(product, ordinal == null ? 0 : documents.get(ordinal).reserved);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void index(ProductSummary product, int reserved) {
+        lock.writeLock().lock();
+        try {
+            indexInternal(product, reserved);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    void updateReserved(Long productId, int reserved) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(productId);
+            if (ordinal != null && documents.get(ordinal).reserved != reserved) {
+                indexInternal(documents.get(ordinal).summary, reserved);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void indexInternal(ProductSummary product, int reserved) {
+        int stock = product.getStockQuantity() == null ? 0 : product.getStockQuantity();
+        IndexedProduct document = new IndexedProduct(product, reserved, new String[]{
+                product.getCategory() == null ? "none" : product.getCategory(),
+                priceBand(product.getPrice()),
+                shelfLifeBand(product.getShelfLifeDays()),
+                String.valueOf(stock - reserved > 0)
+        });
+        removeInternal(product.getId());
+        int ordinal = freeOrdinals.isEmpty() ? documents.size() : freeOrdinals.pop();
+        if (ordinal == documents.size()) {
+            documents.add(document);
+        } else {
+            documents.set(ordinal, document);
+        }
+        ordinals.put(product.getId(), ordinal);
+        live.set(ordinal);
+        for (int f = 0; f < FACETS.size(); f++) {
+            bitmaps.get(FACETS.get(f)).computeIfAbsent(document.values[f], v -> new BitSet()).set(ordinal);
+        }
+    }
+    
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * @param selections facet name -> accepted values; facets that are absent or
+     *                   empty do not filter
+     */
+    public FacetSearchResult search(Map<String, ? extends Collection<String>> selections, int page, int size) {
+        lock.readLock().lock();
+        try {
+            Map<String, BitSet> filters = new HashMap<>();
+            for (String facet : FACETS) {
+                Collection<String> selected = selections.get(facet);
+                if (selected != null && !selected.isEmpty()) {
+                    BitSet union = new BitSet();
+                    for (String value : selected) {
+                        BitSet values = bitmaps.get(facet).get(value);
+                        if (values != null) {
+                            union.or(values);
+                        }
+                    }
+                    filters.put(facet, union);
+                }
+            }
+            
+            BitSet matches = intersect(filters, null);
+            
+            Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+            for (String facet : FACETS) {
+                BitSet others = filters.containsKey(facet) ? intersect(filters, facet) : matches;
+                Map<String, Integer> valueCounts = new TreeMap<>();
+                bitmaps.get(facet).forEach((value, ordinalsWithValue) -> {
+                    BitSet hits = (BitSet) ordinalsWithValue.clone();
+                    hits.and(others);
+                    int count = hits.cardinality();
+                    if (count > 0) {
+                        valueCounts.put(value, count);
+                    }
+                });
+                counts.put(facet, valueCounts);
+            }
+            
+            int total = matches.cardinality();
+            int from = (int) Math.min((long) page * size, total);
+            int to = Math.min(from + size, total);
+            return new FacetSearchResult(page(matches, total, from, to), page, size, total, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Matches from..to in id order. A broad filter walks the id-ordered view
+     * and stops at the end of the page; a narrow one sorts just the matching
+     * ids, which is cheaper than walking past every product that failed it.
+     */
+    private List<ProductSummary> page(BitSet matches, int total, int from, int to) {
+        List<ProductSummary> content = new ArrayList<>(to - from);
+        if (from == to) {
+            return content;
+        }
+        if ((long) total * SPARSE_FACTOR < ordinals.size()) {
+            long[] ids = new long[total];
+            int n = 0;
+            for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+                ids[n++] = documents.get(ordinal).summary.getId();
+            }
+            Arrays.sort(ids);
+            for (int i = from; i < to; i++) {
+                content.add(documents.get(ordinals.get(ids[i])).summary);
+            }
+            return content;
+        }
+        int skipped = 0;
+        for (int ordinal : ordinals.values()) {
+            if (!matches.get(ordinal)) {
+                continue;
+            }
+            if (skipped < from) {
+                skipped++;
+                continue;
+            }
+            content.add(documents.get(ordinal).summary);
+            if (content.size() == to - from) {
+                break;
+            }
+        }
+        return content;
+    }
+    
+    private BitSet intersect(Map<String, BitSet> filters, String excludedFacet) {
+        BitSet result = (BitSet) live.clone();
+        filters.forEach((facet, filter) -> {
+            if (!facet.equals(excludedFacet)) {
+                result.and(filter);
+            }
+        });
+        return result;
+    }
+    
+    private void removeInternal(Long productId) {
+        Integer ordinal = ordinals.remove(productId);
+        if (ordinal == null) {
+            return;
+        }
+        IndexedProduct previous = documents.get(ordinal);
+        for (int f = 0; f < FACETS.size(); f++) {
+            Map<String, BitSet> values = bitmaps.get(FACETS.get(f));
+            BitSet bitmap = values.get(previous.values[f]);
+            if (bitmap != null) {
+                bitmap.clear(ordinal);
+                if (bitmap.isEmpty()) {
+                    values.remove(previous.values[f]);
+                }
+            }
+        }
+        live.clear(ordinal);
+        documents.set(ordinal, null);
+        freeOrdinals.push(ordinal);
+    }
+    
+    // Bands are labelled "lower-upper" (upper exclusive) and "last+"
+    String priceBand(BigDecimal price) {
+        BigDecimal lower = BigDecimal.ZERO;
+        for (BigDecimal upper : priceBands) {
+            if (price.compareTo(upper) < 0) {
+                return lower.toPlainString() + "-" + upper.toPlainString();
+            }
+            lower = upper;
+        }
+        return lower.toPlainString() + "+";
+    }
+    
+    String shelfLifeBand(Integer days) {
+        if (days == null) {
+            return "none";
+        }
+        int lower = 0;
+        for (int upper : shelfLifeBands) {
+            if (days < upper) {
+                return lower + "-" + upper;
+            }
+            lower = upper;
+        }
+        return lower + "+";
+    }
+    
+    private static final class IndexedProduct {
+        
+        private final ProductSummary summary;
+        private final int reserved;
+        
+        // One value per entry in FACETS
+        private final String[] values;
+        
+        private IndexedProduct(ProductSummary summary, int reserved, String[] values) {
+            this.summary = summary;
+            this.reserved = reserved;
+            this.values = values;
+        }
+    }
+}
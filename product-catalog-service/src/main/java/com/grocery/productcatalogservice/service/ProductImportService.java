@@ -0,0 +1,398 @@
+package com.grocery.productcatalogservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grocery.productcatalogservice.dto.CatalogFormat;
+import com.grocery.productcatalogservice.dto.ImportResult;
+import com.grocery.productcatalogservice.dto.ProductRequest;
+import com.grocery.productcatalogservice.event.CatalogBulkChangeEvent;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams supplier catalogs (CSV with a header row, or NDJSON) into the
+ * products table. Input is read line by line, validated against the
+ * ProductRequest constraints and written with JDBC batch statements, one
+ * transaction per chunk, so memory use does not grow with the file size.
+ * A chunk the database rejects is retried row by row, so each bad row gets
+ * its own error and the rest still land.
+ *
+ * Rows carrying a supplier sku are upserted on it, so re-importing a feed is
+ * idempotent. Rows with only an id update that product, or are inserted when
+ * no such product exists; rows with neither are inserted.
+ */
+@Service
+public class ProductImportService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO products (name, description, unit, price, shelf_life_days, stock_quantity, " +
+            "category, category_id, category_path, image_url, sku, reserved_quantity, is_active, created_at, updated_at, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, true, LOCALTIMESTAMP, LOCALTIMESTAMP, 0)";
+    
+    private static final String UPSERT_SQL = INSERT_SQL + " ON CONFLICT (sku) DO UPDATE SET " +
+            "name = EXCLUDED.name, description = EXCLUDED.description, unit = EXCLUDED.unit, price = EXCLUDED.price, " +
+            "shelf_life_days = EXCLUDED.shelf_life_days, " +
+            "stock_quantity = GREATEST(EXCLUDED.stock_quantity, products.reserved_quantity), " +
+            "category = EXCLUDED.category, category_id = EXCLUDED.category_id, category_path = EXCLUDED.category_path, " +
+            "image_url = EXCLUDED.image_url, is_active = true, updated_at = LOCALTIMESTAMP, version = products.version + 1";
+    
+    private static final String EXISTING_SKUS_SQL = "SELECT sku FROM products WHERE sku IN (:skus)";
+    
+    // Stock never drops below what carts and checkouts currently hold
+    private static final String UPDATE_SQL =
+            "UPDATE products SET name = ?, description = ?, unit = ?, price = ?, shelf_life_days = ?, " +
+            "stock_quantity = GREATEST(?, reserved_quantity), category = ?, category_id = ?, category_path = ?, image_url = ?, " +
+            "sku = COALESCE(?, sku), is_active = true, " +
+            "updated_at = LOCALTIMESTAMP, version = version + 1 " +
+            "WHERE id = ?";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private ProductChangeFeedService changeFeedService;
+    
+    @Autowired
+    private CategoryTree categoryTree;
+    
+    @Value("${product.import.chunk-size:1000}")
+    private int chunkSize;
+    
+    @Value("${product.import.max-reported-errors:100}")
+    private int maxReportedErrors;
+    
+    public ImportResult importProducts(InputStream input, CatalogFormat format) throws IOException {
+        long start = System.nanoTime();
+        ImportResult result = new ImportResult();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String[] header = null;
+            if (format == CatalogFormat.CSV) {
+                String headerLine = reader.readLine();
+                if (headerLine == null) {
+                    return finish(result, start);
+                }
+                header = parseCsvLine(headerLine);
+            }
+            
+            String line;
+            long lineNumber = format == CatalogFormat.CSV ? 1 : 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                result.setRowsRead(result.getRowsRead() + 1);
+                try {
+                    ImportRow row = format == CatalogFormat.CSV ? fromCsv(header, line) : fromJson(line);
+                    row.lineNumber = lineNumber;
+                    String violation = validate(row.request);
+                    if (violation != null) {
+                        fail(result, lineNumber, violation);
+                        continue;
+                    }
+                    chunk.add(row);
+                } catch (RuntimeException | IOException e) {
+                    fail(result, lineNumber, "Unparseable row: " + e.getMessage());
+                    continue;
+                }
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, result);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(chunk, result);
+            }
+        }
+        
+        if (result.getInserted() + result.getUpdated() > 0) {
+            eventPublisher.publishEvent(new CatalogBulkChangeEvent("import", result.getInserted() + result.getUpdated()));
+        }
+        return finish(result, start);
+    }
+    
+    private void writeChunk(List<ImportRow> chunk, ImportResult result) {
+        try {
+            record(result, writeInTransaction(chunk));
+        } catch (RuntimeException e) {
+            // The whole chunk rolled back; write its rows one at a time so only the bad ones fail
+            log.warn("Import chunk starting at line {} failed, retrying its {} rows individually: {}",
+                    chunk.get(0).lineNumber, chunk.size(), e.getMessage());
+            for (ImportRow row : chunk) {
+                try {
+                    record(result, writeInTransaction(List.of(row)));
+                } catch (RuntimeException rowError) {
+                    fail(result, row.lineNumber, "Rejected by the database: " + rowError.getMessage());
+                }
+            }
+        }
+    }
+    
+    private int[] writeInTransaction(List<ImportRow> rows) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            List<Long> touched = new ArrayList<>();
+            int[] written = write(rows, touched);
+            changeFeedService.recordBulkChanges(touched);
+            return written;
+        });
+    }
+    
+    private void record(ImportResult result, int[] counts) {
+        result.setInserted(result.getInserted() + counts[0]);
+        result.setUpdated(result.getUpdated() + counts[1]);
+    }
+    
+    // Writes the rows in the caller's transaction and collects their ids; returns {inserted, updated}
+    private int[] write(List<ImportRow> rows, List<Long> touched) {
+        List<ImportRow> bySku = new ArrayList<>();
+        List<ImportRow> byId = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        for (ImportRow row : rows) {
+            if (row.request.getSku() != null) {
+                bySku.add(row);
+            } else if (row.id != null) {
+                byId.add(row);
+            } else {
+                inserts.add(columnValues(row.request));
+            }
+        }
+        
+        int inserted = 0;
+        int updated = 0;
+        if (!bySku.isEmpty()) {
+            // Only to tell inserts from updates in the result; the upsert itself decides
+            Set<String> existing = new HashSet<>(namedJdbcTemplate.queryForList(EXISTING_SKUS_SQL,
+                    Map.of("skus", bySku.stream().map(row -> row.request.getSku()).collect(Collectors.toSet())),
+                    String.class));
+            List<Object[]> upserts = new ArrayList<>(bySku.size());
+            for (ImportRow row : bySku) {
+                upserts.add(columnValues(row.request));
+                if (existing.add(row.request.getSku())) {
+                    inserted++;
+                } else {
+                    updated++;
+                }
+            }
+            batchUpdate(UPSERT_SQL, upserts, touched);
+        }
+        
+        if (!byId.isEmpty()) {
+            List<Object[]> updates = new ArrayList<>(byId.size());
+            for (ImportRow row : byId) {
+                Object[] values = columnValues(row.request);
+                Object[] withId = new Object[values.length + 1];
+                System.arraycopy(values, 0, withId, 0, values.length);
+                withId[values.length] = row.id;
+                updates.add(withId);
+            }
+            int[] updateCounts = batchUpdate(UPDATE_SQL, updates, touched);
+            for (int i = 0; i < updateCounts.length; i++) {
+                if (updateCounts[i] == 0) {
+                    // Not in this catalog (e.g. a feed from another environment): add it under a new id
+                    inserts.add(columnValues(byId.get(i).request));
+                } else {
+                    updated++;
+                }
+            }
+        }
+        
+        if (!inserts.isEmpty()) {
+            batchUpdate(INSERT_SQL, inserts, touched);
+            inserted += inserts.size();
+        }
+        return new int[]{inserted, updated};
+    }
+    
+    // Like JdbcTemplate.batchUpdate, but also collects the id of every row written (RETURNING id)
+    private int[] batchUpdate(String sql, List<Object[]> rows, List<Long> touched) {
+        return jdbcTemplate.execute((ConnectionCallback<int[]>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(sql, new String[]{"id"})) {
+                for (Object[] values : rows) {
+                    new ArgumentPreparedStatementSetter(values).setValues(ps);
+                    ps.addBatch();
+                }
+                int[] counts = ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        touched.add(keys.getLong(1));
+                    }
+                }
+                return counts;
+            }
+        });
+    }
+    
+    private Object[] columnValues(ProductRequest request) {
+        // Resolved in memory; unknown names stay free-form with no category id
+        CategoryTree.Node node = request.getCategoryId() != null
+                ? categoryTree.get(request.getCategoryId())
+                : categoryTree.resolve(request.getCategory());
+        return new Object[]{
+                request.getName(),
+                request.getDescription(),
+                request.getUnit(),
+                request.getPrice(),
+                request.getShelfLifeDays(),
+                request.getStockQuantity(),
+                node != null ? node.getName() : request.getCategory(),
+                node != null ? node.getId() : null,
+                node != null ? node.getPath() : null,
+                request.getImageUrl(),
+                request.getSku()
+        };
+    }
+    
+    private String validate(ProductRequest request) {
+        Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+    
+    private ImportRow fromJson(String line) throws IOException {
+        JsonNode node = objectMapper.readTree(line);
+        ImportRow row = new ImportRow();
+        JsonNode id = node.get("id");
+        row.id = id == null || id.isNull() ? null : id.asLong();
+        row.request = objectMapper.treeToValue(node, ProductRequest.class);
+        return row;
+    }
+    
+    private ImportRow fromCsv(String[] header, String line) {
+        String[] values = parseCsvLine(line);
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.length && i < values.length; i++) {
+            fields.put(header[i].trim(), values[i].isEmpty() ? null : values[i]);
+        }
+        
+        ProductRequest request = new ProductRequest();
+        request.setName(fields.get("name"));
+        request.setDescription(fields.get("description"));
+        request.setUnit(fields.get("unit"));
+        request.setPrice(fields.get("price") == null ? null : new BigDecimal(fields.get("price").trim()));
+        request.setShelfLifeDays(parseInteger(fields.get("shelfLifeDays")));
+        request.setStockQuantity(parseInteger(fields.get("stockQuantity")));
+        request.setCategory(fields.get("category"));
+        request.setCategoryId(parseInteger(fields.get("categoryId")));
+        request.setImageUrl(fields.get("imageUrl"));
+        request.setSku(fields.get("sku"));
+        
+        ImportRow row = new ImportRow();
+        row.id = fields.get("id") == null ? null : Long.valueOf(fields.get("id").trim());
+        row.request = request;
+        return row;
+    }
+    
+    private static Integer parseInteger(String value) {
+        return value == null ? null : Integer.valueOf(value.trim());
+    }
+    
+    // RFC 4180 quoting within a single line; embedded newlines are not supported
+    static String[] parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values.toArray(new String[0]);
+    }
+    
+    private void fail(ImportResult result, long lineNumber, String message) {
+        result.setFailed(result.getFailed() + 1);
+        addError(result, lineNumber, message);
+    }
+    
+    private void addError(ImportResult result, long lineNumber, String message) {
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(new ImportResult.RowError(lineNumber, message));
+        }
+    }
+    
+    private ImportResult finish(ImportResult result, long start) {
+        long elapsedNanos = System.nanoTime() - start;
+        result.setDurationMs(elapsedNanos / 1_000_000);
+        long written = result.getInserted() + result.getUpdated();
+        result.setRowsPerSecond(elapsedNanos == 0 ? 0 : written * 1_000_000_000.0 / elapsedNanos);
+        log.info("Imported {} rows ({} inserted, {} updated, {} failed) in {} ms",
+                result.getRowsRead(), result.getInserted(), result.getUpdated(), result.getFailed(),
+                result.getDurationMs());
+        return result;
+    }
+    
+    private static final class ImportRow {
+        
+        private long lineNumber;
+        private Long id;
+        private ProductRequest request;
+    }
+}
@@ -0,0 +1,571 @@
+package com.grocery.productcatalogservice.service;
+
+import com.grocery.productcatalogservice.dto.ProductResponse;
+import com.grocery.productcatalogservice.dto.ProductSummary;
+import com.grocery.productcatalogservice.event.CatalogBulkChangeEvent;
+import com.grocery.productcatalogservice.event.ProductChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over active products.
+ *
+ * Every product is split into lower-cased tokens per field (name, category,
+ * description). Whole tokens are kept in a sorted term dictionary so prefix
+ * lookups are a range scan, and every token is also broken into trigrams so
+ * infix matches ("nana" in "banana") resolve through posting intersection
+ * instead of a table scan. Query tokens that are not in the dictionary are
+ * also expanded to name tokens within one or two edits through a BK-tree, so
+ * "bananna" still finds bananas; those hits rank below exact, prefix and infix
+ * ones. The index is loaded once at startup and then patched from
+ * ProductChangedEvent, skipping events older than the indexed version; bulk
+ * changes to indexed text reload it in the background. Queries never touch
+ * the database.
+ */
+@Component
+@ConditionalOnProperty(name = "product.search.mode", havingValue = "memory", matchIfMissing = true)
+public class ProductSearchIndex {
+    
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+    
+    private static final int GRAM_SIZE = 3;
+    
+    private static final String LOAD_SQL =
+            "SELECT id, version, name, description, unit, price, shelf_life_days, stock_quantity, category, " +
+            "image_url, created_at, updated_at FROM products WHERE is_active = true";
+    
+    // Field weights used for ranking; a hit in the name outranks a hit in the description
+    private static final int NAME_WEIGHT = 4;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    
+    // Highest score first, ties by id
+    private static final Comparator<Map.Entry<Long, Integer>> RANK_ORDER =
+            Map.Entry.<Long, Integer>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey());
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${product.search.fetch-size:1000}")
+    private int fetchSize;
+    
+    @Value("${product.search.fuzzy.enabled:true}")
+    private boolean fuzzyEnabled;
+    
+    // Tokens shorter than this are never corrected; from twice this length two edits are allowed
+    @Value("${product.search.fuzzy.min-length:4}")
+    private int fuzzyMinLength;
+    
+    // Latency budget per query token: words compared in the BK-tree, and corrections kept
+    @Value("${product.search.fuzzy.max-visits:4000}")
+    private int fuzzyMaxVisits;
+    
+    @Value("${product.search.fuzzy.max-expansions:20}")
+    private int fuzzyMaxExpansions;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    // term -> (productId -> best field weight)
+    private final NavigableMap<String, Map<Long, Integer>> terms = new TreeMap<>();
+    
+    // trigram -> product ids containing it in any token
+    private final Map<String, Set<Long>> grams = new HashMap<>();
+    
+    private final Map<Long, IndexedProduct> documents = new HashMap<>();
+    
+    // Name-token vocabulary for typo correction; words that left the index are skipped at query time
+    private BkTree vocabulary = new BkTree();
+    
+    // Product id -> newest version applied from events while a rebuild is reading; null otherwise
+    private Map<Long, Long> changedDuringRebuild;
+    
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-index-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    
+    private volatile boolean ready;
+    
+    /**
+     * Reloads every active product in one streamed statement, so the read sees
+     * a single snapshot of the table however long it takes. Products that
+     * change while the rebuild is reading are patched by their events as usual,
+     * and the rebuild leaves those alone rather than overwrite them with the
+     * older row it read.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        Set<Long> seen = new HashSet<>();
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            JdbcTemplate cursorTemplate = new JdbcTemplate(dataSource);
+            cursorTemplate.setFetchSize(fetchSize);
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            transaction.executeWithoutResult(status -> cursorTemplate.query(LOAD_SQL, rs -> {
+                ProductResponse product = readProduct(rs);
+                seen.add(product.getId());
+                apply(product, true);
+            }));
+            
+            lock.writeLock().lock();
+            try {
+                // Drop products that disappeared or went inactive while we were not listening
+                new ArrayList<>(documents.keySet()).stream()
+                        .filter(id -> !seen.contains(id) && !changedDuringRebuild.containsKey(id))
+                        .forEach(this::removeInternal);
+                // Start over with only the live name tokens so stale words do not eat the visit budget
+                BkTree rebuilt = new BkTree();
+                terms.forEach((term, postings) -> {
+                    if (postings.containsValue(NAME_WEIGHT)) {
+                        rebuilt.add(term);
+                    }
+                });
+                vocabulary = rebuilt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        ready = true;
+        log.info("Product search index built with {} products in {} ms",
+                size(), System.currentTimeMillis() - start);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        apply(event.getProduct(), false);
+    }
+    
+    /**
+     * Rebuilds on the index's own thread so the bulk write's request does not
+     * wait for it. Changes that leave name, description and category alone
+     * (price updates, stock files) do not touch the index at all.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogBulkChange(CatalogBulkChangeEvent event) {
+        if (!event.isTextChanged()) {
+            return;
+        }
+        // A burst of bulk changes costs one rebuild after the one in progress
+        if (rebuildQueued.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                rebuildQueued.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.warn("Product search index rebuild failed: {}", e.getMessage());
+                }
+            });
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public void index(ProductResponse product) {
+        apply(product, false);
+    }
+    
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Indexes or (inactive products) removes the product unless the index
+     * already holds a newer version of it. Rows read by a rebuild also give way
+     * to any change event for the product that arrived during the rebuild.
+     */
+    private void apply(ProductResponse product, boolean fromRebuild) {
+        Long productId = product.getId();
+        long version = versionOf(product);
+        boolean active = Boolean.TRUE.equals(product.getIsActive());
+        IndexedProduct document = active ? new IndexedProduct(product) : null;
+        lock.writeLock().lock();
+        try {
+            if (fromRebuild) {
+                Long changed = changedDuringRebuild.get(productId);
+                if (changed != null && changed >= version) {
+                    return;
+                }
+            } else if (changedDuringRebuild != null) {
+                changedDuringRebuild.merge(productId, version, Math::max);
+            }
+            IndexedProduct existing = documents.get(productId);
+            if (existing != null && existing.version > version) {
+                return;
+            }
+            if (document == null) {
+                removeInternal(productId);
+            } else if (existing != null && existing.sameText(document)) {
+                // Price or stock only: the postings are unchanged, just serve the new summary
+                documents.put(productId, document);
+            } else {
+                removeInternal(productId);
+                addInternal(productId, document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void addInternal(Long productId, IndexedProduct document) {
+        documents.put(productId, document);
+        document.termWeights.forEach((term, weight) ->
+                terms.computeIfAbsent(term, t -> new HashMap<>()).put(productId, weight));
+        for (String gram : document.grams) {
+            grams.computeIfAbsent(gram, g -> new HashSet<>()).add(productId);
+        }
+        document.termWeights.forEach((term, weight) -> {
+            if (weight == NAME_WEIGHT) {
+                vocabulary.add(term);
+            }
+        });
+    }
+    
+    private static long versionOf(ProductResponse product) {
+        return product.getVersion() == null ? 0L : product.getVersion();
+    }
+    
+    private static ProductResponse readProduct(ResultSet rs) throws SQLException {
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        return new ProductResponse(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("description"),
+                rs.getString("unit"),
+                rs.getBigDecimal("price"),
+                rs.getObject("shelf_life_days", Integer.class),
+                rs.getInt("stock_quantity"),
+                rs.getString("category"),
+                rs.getString("image_url"),
+                true,
+                createdAt == null ? null : createdAt.toLocalDateTime(),
+                updatedAt == null ? null : updatedAt.toLocalDateTime(),
+                rs.getLong("version")
+        );
+    }
+    
+    public Page<ProductSummary> search(String query, Pageable pageable) {
+        List<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, 0);
+        }
+        
+        Map<Long, Integer> scores = null;
+        lock.readLock().lock();
+        try {
+            for (String token : queryTokens) {
+                Map<Long, Integer> tokenScores = scoreToken(token);
+                // Every query token must match somewhere in the product
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        int total = scores.size();
+        int from = (int) Math.min(pageable.getOffset(), total);
+        int to = (int) Math.min((long) from + pageable.getPageSize(), total);
+        List<Map.Entry<Long, Integer>> ranked = topRanked(scores, to);
+        
+        List<ProductSummary> content = new ArrayList<>(to - from);
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Long, Integer> entry : ranked.subList(from, to)) {
+                IndexedProduct document = documents.get(entry.getKey());
+                if (document != null) {
+                    content.add(document.summary);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+    
+    /**
+     * The best {@code limit} entries in rank order. Broad queries match tens of
+     * thousands of products while a page needs a few dozen, so for those a
+     * bounded heap replaces sorting every match.
+     */
+    private static List<Map.Entry<Long, Integer>> topRanked(Map<Long, Integer> scores, int limit) {
+        if (limit == 0 || limit >= scores.size() / 4) {
+            List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(RANK_ORDER);
+            return ranked;
+        }
+        PriorityQueue<Map.Entry<Long, Integer>> heap = new PriorityQueue<>(limit + 1, RANK_ORDER.reversed());
+        for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(heap);
+        ranked.sort(RANK_ORDER);
+        return ranked;
+    }
+    
+    private Map<Long, Integer> scoreToken(String token) {
+        Map<Long, Integer> scores = new HashMap<>();
+        
+        // Exact and prefix matches from the sorted term dictionary
+        for (Map.Entry<String, Map<Long, Integer>> entry :
+                terms.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            boolean exact = entry.getKey().length() == token.length();
+            entry.getValue().forEach((id, weight) ->
+                    scores.merge(id, exact ? weight * 3 : weight * 2, Math::max));
+        }
+        
+        scoreInfix(token, scores);
+        
+        // Misspellings: a token that is not itself a known term is corrected to nearby name tokens
+        if (fuzzyEnabled && token.length() >= fuzzyMinLength && !terms.containsKey(token)) {
+            scoreFuzzy(token, scores);
+        }
+        return scores;
+    }
+    
+    // Infix matches: intersect trigram postings, then confirm against the stored text
+    private void scoreInfix(String token, Map<Long, Integer> scores) {
+        if (token.length() < GRAM_SIZE) {
+            return;
+        }
+        // Intersect from the rarest trigram so the working set starts small
+        List<Set<Long>> postingLists = new ArrayList<>();
+        for (String gram : grams(token)) {
+            Set<Long> postings = grams.get(gram);
+            if (postings == null) {
+                return;
+            }
+            postingLists.add(postings);
+        }
+        postingLists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> candidates = new HashSet<>(postingLists.get(0));
+        for (int i = 1; i < postingLists.size() && !candidates.isEmpty(); i++) {
+            candidates.retainAll(postingLists.get(i));
+        }
+        for (Long id : candidates) {
+            if (!scores.containsKey(id)) {
+                int weight = documents.get(id).substringWeight(token);
+                if (weight > 0) {
+                    scores.put(id, weight);
+                }
+            }
+        }
+    }
+    
+    private void scoreFuzzy(String token, Map<Long, Integer> scores) {
+        for (BkTree.Match match : corrections(token)) {
+            Map<Long, Integer> postings = terms.get(match.word);
+            if (postings == null) {
+                continue;
+            }
+            // One edit away scores below an infix name hit, two edits below that
+            postings.forEach((id, weight) -> {
+                if (weight == NAME_WEIGHT) {
+                    scores.merge(id, NAME_WEIGHT - match.distance, Math::max);
+                }
+            });
+        }
+    }
+    
+    /**
+     * Name tokens within the edit bound of the given token, nearest first, at
+     * most product.search.fuzzy.max-expansions of them.
+     */
+    List<BkTree.Match> corrections(String token) {
+        int maxEdits = token.length() >= 2 * fuzzyMinLength ? 2 : 1;
+        List<BkTree.Match> matches;
+        lock.readLock().lock();
+        try {
+            matches = vocabulary.search(token, maxEdits, fuzzyMaxVisits);
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(Comparator.comparingInt((BkTree.Match match) -> match.distance)
+                .thenComparing(match -> match.word));
+        return matches.size() > fuzzyMaxExpansions ? matches.subList(0, fuzzyMaxExpansions) : matches;
+    }
+    
+    private void removeInternal(Long productId) {
+        IndexedProduct previous = documents.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.termWeights.keySet()) {
+            Map<Long, Integer> postings = terms.get(term);
+            if (postings != null) {
+                postings.remove(productId);
+                if (postings.isEmpty()) {
+                    terms.remove(term);
+                }
+            }
+        }
+        for (String gram : previous.grams) {
+            Set<Long> postings = grams.get(gram);
+            if (postings != null) {
+                postings.remove(productId);
+                if (postings.isEmpty()) {
+                    grams.remove(gram);
+                }
+            }
+        }
+    }
+    
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+    
+    private static List<String> grams(String token) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i + GRAM_SIZE <= token.length(); i++) {
+            result.add(token.substring(i, i + GRAM_SIZE));
+        }
+        return result;
+    }
+    
+    private static final class IndexedProduct {
+        
+        private final ProductSummary summary;
+        private final long version;
+        private final String name;
+        private final String category;
+        private final String description;
+        private final Map<String, Integer> termWeights = new HashMap<>();
+        private final Set<String> grams = new HashSet<>();
+        
+        private IndexedProduct(ProductResponse product) {
+            this.summary = ProductService.convertToSummary(product);
+            this.version = versionOf(product);
+            this.name = lower(product.getName());
+            this.category = lower(product.getCategory());
+            this.description = lower(product.getDescription());
+            addField(name, NAME_WEIGHT);
+            addField(category, CATEGORY_WEIGHT);
+            addField(description, DESCRIPTION_WEIGHT);
+        }
+        
+        private void addField(String text, int weight) {
+            for (String token : tokenize(text)) {
+                termWeights.merge(token, weight, Math::max);
+                grams.addAll(ProductSearchIndex.grams(token));
+            }
+        }
+        
+        private boolean sameText(IndexedProduct other) {
+            return name.equals(other.name) && category.equals(other.category)
+                    && description.equals(other.description);
+        }
+        
+        private int substringWeight(String token) {
+            if (name.contains(token)) {
+                return NAME_WEIGHT;
+            }
+            if (category.contains(token)) {
+                return CATEGORY_WEIGHT;
+            }
+            if (description.contains(token)) {
+                return DESCRIPTION_WEIGHT;
+            }
+            return 0;
+        }
+        
+        private static String lower(String value) {
+            return value == null ? "" : value.toLowerCase(Locale.ROOT);
+        }
+    }
+}
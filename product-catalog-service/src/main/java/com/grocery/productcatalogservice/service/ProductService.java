@@ -1,31 +1,162 @@
 package com.grocery.productcatalogservice.service;
 
+import com.grocery.productcatalogservice.dto.AvailabilityResponse;
+import com.grocery.productcatalogservice.dto.CursorPage;
+import com.grocery.productcatalogservice.dto.FacetSearchResult;
+import com.grocery.productcatalogservice.dto.PopularProductResponse;
 import com.grocery.productcatalogservice.dto.ProductRequest;
 import com.grocery.productcatalogservice.dto.ProductResponse;
+import com.grocery.productcatalogservice.dto.ProductSummary;
+import com.grocery.productcatalogservice.dto.StockDecrementRequest;
+import com.grocery.productcatalogservice.dto.SuggestionResponse;
+import com.grocery.productcatalogservice.event.ProductChangedEvent;
+import com.grocery.productcatalogservice.event.ProductsOrderedEvent;
 import com.grocery.productcatalogservice.model.Product;
 import com.grocery.productcatalogservice.repository.ProductRepository;
+import com.grocery.productcatalogservice.repository.ProductSummaryView;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class ProductService {
     
+    private static final Set<String> CURSOR_SORT_KEYS = Set.of("id", "name", "price");
+    
+    public static final int CURSOR_MAX_SIZE = 500;
+    
+    private static final String DECREMENT_STOCK_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity - ?, updated_at = LOCALTIMESTAMP, version = version + 1 " +
+            "WHERE id = ? AND is_active = true AND stock_quantity - reserved_quantity >= ?";
+    
     @Autowired
     private ProductRepository productRepository;
     
-    public Page<ProductResponse> getAllProducts(Pageable pageable) {
-        Page<Product> products = productRepository.findByIsActiveTrue(pageable);
-        return products.map(this::convertToResponse);
+    // Only present when product.search.mode=memory
+    @Autowired(required = false)
+    private ProductSearchIndex productSearchIndex;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ProductCache productCache;
+    
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+    
+    @Autowired
+    private ProductSuggester productSuggester;
+    
+    @Autowired
+    private ProductSnapshotStore productSnapshotStore;
+    
+    @Autowired
+    private PopularityTracker popularityTracker;
+    
+    @Autowired
+    private CategoryTree categoryTree;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${product.batch.max-size:500}")
+    private int batchMaxSize;
+    
+    // "memory" serves search from ProductSearchIndex, "fulltext" uses Postgres tsvector/pg_trgm,
+    // "like" falls back to the plain repository query
+    @Value("${product.search.mode:memory}")
+    private String searchMode;
+    
+    @Value("${product.popularity.max-results:50}")
+    private int popularMaxResults;
+    
+    // SUPPORTS: snapshot reads should not check out a connection
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Page<ProductSummary> getAllProducts(Pageable pageable) {
+        if (productSnapshotStore.isReady() && pageable.getSort().isUnsorted()) {
+            ProductSnapshot snapshot = productSnapshotStore.current();
+            return new PageImpl<>(snapshot.slice((int) Math.min(pageable.getOffset(), Integer.MAX_VALUE),
+                    pageable.getPageSize()), pageable, snapshot.size());
+        }
+        return productRepository.findActiveSummaries(pageable);
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CursorPage<ProductSummary> getProductsAfter(String cursor, int size, String sortKey, boolean includeTotal) {
+        if (!CURSOR_SORT_KEYS.contains(sortKey)) {
+            throw new RuntimeException("Unsupported sort key: " + sortKey);
+        }
+        if (size < 1 || size > CURSOR_MAX_SIZE) {
+            throw new RuntimeException("Page size must be between 1 and " + CURSOR_MAX_SIZE);
+        }
+        
+        // Fetch one extra row to learn whether another page exists without counting
+        Limit limit = Limit.of(size + 1);
+        List<ProductSummary> rows;
+        Long total = null;
+        if ("id".equals(sortKey) && productSnapshotStore.isReady()) {
+            ProductSnapshot snapshot = productSnapshotStore.current();
+            long afterId = cursor == null || cursor.isEmpty() ? 0L : Long.parseLong(decodeCursor(cursor, sortKey)[1]);
+            rows = snapshot.slice(snapshot.indexAfter(afterId), size + 1);
+            total = includeTotal ? (long) snapshot.size() : null;
+        } else if (cursor == null || cursor.isEmpty()) {
+            rows = switch (sortKey) {
+                case "name" -> productRepository.findFirstActiveSummariesByName(limit);
+                case "price" -> productRepository.findFirstActiveSummariesByPrice(limit);
+                default -> productRepository.findActiveSummariesAfterId(0L, limit);
+            };
+        } else {
+            String[] position = decodeCursor(cursor, sortKey);
+            Long afterId = Long.valueOf(position[1]);
+            rows = switch (sortKey) {
+                case "name" -> productRepository.findActiveSummariesAfterName(position[0], afterId, limit);
+                case "price" -> productRepository.findActiveSummariesAfterPrice(new BigDecimal(position[0]), afterId, limit);
+                default -> productRepository.findActiveSummariesAfterId(afterId, limit);
+            };
+        }
+        
+        boolean hasNext = rows.size() > size;
+        List<ProductSummary> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? encodeCursor(content.get(content.size() - 1), sortKey) : null;
+        if (includeTotal && total == null) {
+            total = productRepository.countByIsActiveTrue();
+        }
+        return new CursorPage<>(content, nextCursor, hasNext, total);
     }
     
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public ProductResponse getProductById(Long id) {
+        ProductResponse cached = productCache.get(id);
+        if (cached != null) {
+            popularityTracker.recordView(id);
+            return cached;
+        }
+        
+        long loadToken = productCache.beginLoad(id);
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
         
@@ -33,19 +164,84 @@ public class ProductService {
             throw new RuntimeException("Product is not active");
         }
         
-        return convertToResponse(product);
+        ProductResponse response = convertToResponse(product);
+        productCache.put(id, response, loadToken);
+        popularityTracker.recordView(id);
+        return response;
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<ProductResponse> getProductsByIds(Collection<Long> ids) {
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        if (uniqueIds.size() > batchMaxSize) {
+            throw new RuntimeException("At most " + batchMaxSize + " product ids can be requested at once");
+        }
+        
+        // Serve what we can from the cache and load the rest with a single query
+        Map<Long, ProductResponse> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : uniqueIds) {
+            ProductResponse cached = productCache.get(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        
+        if (!missing.isEmpty()) {
+            Map<Long, Long> loadTokens = new HashMap<>();
+            missing.forEach(id -> loadTokens.put(id, productCache.beginLoad(id)));
+            for (Product product : productRepository.findAllById(missing)) {
+                if (product.getIsActive()) {
+                    ProductResponse response = convertToResponse(product);
+                    productCache.put(product.getId(), response, loadTokens.get(product.getId()));
+                    found.put(product.getId(), response);
+                }
+            }
+        }
+        
+        // Preserve request order; unknown or inactive ids are left out
+        return uniqueIds.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
     
-    public Page<ProductResponse> searchProducts(String searchTerm, Pageable pageable) {
-        Page<Product> products = productRepository.searchProducts(searchTerm, pageable);
-        return products.map(this::convertToResponse);
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Page<ProductSummary> searchProducts(String searchTerm, Pageable pageable) {
+        if ("memory".equalsIgnoreCase(searchMode) && productSearchIndex != null && productSearchIndex.isReady()) {
+            return productSearchIndex.search(searchTerm, pageable);
+        }
+        if ("fulltext".equalsIgnoreCase(searchMode)) {
+            return productRepository.fullTextSearchProducts(searchTerm, pageable)
+                    .map(ProductService::convertToSummary);
+        }
+        return productRepository.searchProducts(searchTerm, pageable);
     }
     
-    public List<ProductResponse> getProductsByCategory(String category) {
-        List<Product> products = productRepository.findByCategoryAndIsActiveTrue(category);
-        return products.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        if (!productSuggester.isReady()) {
+            throw new RuntimeException("Suggestion index is still loading");
+        }
+        return productSuggester.suggest(prefix, limit);
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<ProductSummary> getProductsByCategory(String category) {
+        if (productSnapshotStore.isReady()) {
+            return productSnapshotStore.current().byCategory(category);
+        }
+        return productRepository.findSummariesByCategory(category);
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public FacetSearchResult filterProducts(Map<String, List<String>> selections, int page, int size) {
+        if (!productFacetIndex.isReady()) {
+            throw new RuntimeException("Facet index is still loading");
+        }
+        return productFacetIndex.search(selections, Math.max(page, 0), Math.max(1, Math.min(size, batchMaxSize)));
     }
     
     public ProductResponse createProduct(ProductRequest request) {
@@ -56,12 +252,13 @@ public class ProductService {
         product.setPrice(request.getPrice());
         product.setShelfLifeDays(request.getShelfLifeDays());
         product.setStockQuantity(request.getStockQuantity());
-        product.setCategory(request.getCategory());
+        applyCategory(product, request);
         product.setImageUrl(request.getImageUrl());
+        product.setSku(request.getSku());
         product.setIsActive(true);
         
         Product savedProduct = productRepository.save(product);
-        return convertToResponse(savedProduct);
+        return publishChange(savedProduct);
     }
     
     public ProductResponse updateProduct(Long id, ProductRequest request) {
@@ -86,15 +283,35 @@ public class ProductService {
         if (request.getStockQuantity() != null) {
             product.setStockQuantity(request.getStockQuantity());
         }
-        if (request.getCategory() != null) {
-            product.setCategory(request.getCategory());
+        if (request.getCategory() != null || request.getCategoryId() != null) {
+            applyCategory(product, request);
         }
         if (request.getImageUrl() != null) {
             product.setImageUrl(request.getImageUrl());
         }
+        if (request.getSku() != null) {
+            product.setSku(request.getSku());
+        }
         
-        Product updatedProduct = productRepository.save(product);
-        return convertToResponse(updatedProduct);
+        // Flush so the response carries the bumped version (and ETag) of this write
+        Product updatedProduct = productRepository.saveAndFlush(product);
+        return publishChange(updatedProduct);
+    }
+    
+    private void applyCategory(Product product, ProductRequest request) {
+        CategoryTree.Node node;
+        if (request.getCategoryId() != null) {
+            node = categoryTree.get(request.getCategoryId());
+            if (node == null) {
+                throw new RuntimeException("Category not found");
+            }
+        } else {
+            node = categoryTree.resolve(request.getCategory());
+        }
+        // Unknown names are kept as free-form strings and linked on the next startup
+        product.setCategory(node != null ? node.getName() : request.getCategory());
+        product.setCategoryId(node != null ? node.getId() : null);
+        product.setCategoryPath(node != null ? node.getPath() : null);
     }
     
     public void deleteProduct(Long id) {
@@ -102,19 +319,152 @@ public class ProductService {
                 .orElseThrow(() -> new RuntimeException("Product not found"));
         
         product.setIsActive(false);
-        productRepository.save(product);
+        publishChange(productRepository.saveAndFlush(product));
     }
     
     public void updateStockQuantity(Long productId, Integer quantity) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+        // Single conditional UPDATE: concurrent checkouts cannot lose updates or oversell
+        if (productRepository.decrementStock(productId, quantity) == 0) {
+            throw new InsufficientStockException("Insufficient stock or product not found");
+        }
+        publishStockChanges(List.of(productId));
+    }
+    
+    public void decrementStock(List<StockDecrementRequest> items) {
+        // Merge duplicate lines and update rows in id order so concurrent orders cannot deadlock
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (StockDecrementRequest item : items) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        
+        List<Object[]> batchArgs = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, quantity) -> batchArgs.add(new Object[]{quantity, productId, quantity}));
+        int[] updated = jdbcTemplate.batchUpdate(DECREMENT_STOCK_SQL, batchArgs);
+        
+        // Any line that could not be applied rolls back the whole order
+        int index = 0;
+        for (Long productId : quantities.keySet()) {
+            if (updated[index++] == 0) {
+                throw new InsufficientStockException("Insufficient stock or product not found: " + productId);
+            }
+        }
+        publishStockChanges(quantities.keySet());
+        eventPublisher.publishEvent(new ProductsOrderedEvent(quantities));
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<PopularProductResponse> getPopularProducts(int limit) {
+        Map<Long, Long> top = popularityTracker.top(Math.max(1, Math.min(limit, popularMaxResults)));
+        Map<Long, ProductSummary> products = new HashMap<>();
+        if (productSnapshotStore.isReady()) {
+            ProductSnapshot snapshot = productSnapshotStore.current();
+            for (Long id : top.keySet()) {
+                int index = snapshot.indexOf(id);
+                if (index >= 0) {
+                    products.put(id, snapshot.summary(index));
+                }
+            }
+        } else {
+            productRepository.findAllById(top.keySet()).stream()
+                    .filter(Product::getIsActive)
+                    .forEach(product -> products.put(product.getId(), convertToSummary(convertToResponse(product))));
+        }
         
-        product.setStockQuantity(product.getStockQuantity() - quantity);
-        productRepository.save(product);
+        List<PopularProductResponse> result = new ArrayList<>(top.size());
+        top.forEach((id, score) -> {
+            ProductSummary product = products.get(id);
+            if (product != null) {
+                result.add(new PopularProductResponse(product, score));
+            }
+        });
+        return result;
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public AvailabilityResponse getAvailability(Long productId) {
+        if (productSnapshotStore.isReady()) {
+            ProductSnapshot snapshot = productSnapshotStore.current();
+            int index = snapshot.indexOf(productId);
+            if (index < 0) {
+                throw new RuntimeException("Product not found");
+            }
+            return snapshot.availability(index);
+        }
+        return productRepository.findAvailability(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+    }
+    
+    // Stock was changed with a bulk statement; reload once so caches and indexes see the new values
+    public void publishStockChanges(Collection<Long> productIds) {
+        productRepository.findAllById(productIds).forEach(this::publishChange);
+    }
+    
+    private ProductResponse publishChange(Product product) {
+        // Evict now and again after commit (ProductCache listens for the event)
+        productCache.evict(product.getId());
+        ProductResponse response = convertToResponse(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(response));
+        return response;
+    }
+    
+    // Cursor format (before base64url): sortKey|value|id
+    private static String encodeCursor(ProductSummary last, String sortKey) {
+        String value = switch (sortKey) {
+            case "name" -> last.getName();
+            case "price" -> last.getPrice().toPlainString();
+            default -> "";
+        };
+        String raw = sortKey + "|" + value + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    // Returns {sort key value, id}
+    private static String[] decodeCursor(String cursor, String sortKey) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int first = raw.indexOf('|');
+            int last = raw.lastIndexOf('|');
+            if (first < 0 || first == last || !raw.substring(0, first).equals(sortKey)) {
+                throw new RuntimeException("Cursor does not match sort key");
+            }
+            String id = raw.substring(last + 1);
+            Long.parseLong(id);
+            return new String[]{raw.substring(first + 1, last), id};
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor", e);
+        }
+    }
+    
+    private static ProductSummary convertToSummary(ProductSummaryView view) {
+        return new ProductSummary(
+                view.getId(),
+                view.getName(),
+                view.getUnit(),
+                view.getPrice(),
+                view.getShelfLifeDays(),
+                view.getStockQuantity(),
+                view.getCategory(),
+                view.getImageUrl(),
+                view.getVersion()
+        );
+    }
+    
+    static ProductSummary convertToSummary(ProductResponse product) {
+        return new ProductSummary(
+                product.getId(),
+                product.getName(),
+                product.getUnit(),
+                product.getPrice(),
+                product.getShelfLifeDays(),
+                product.getStockQuantity(),
+                product.getCategory(),
+                product.getImageUrl(),
+                product.getVersion()
+        );
     }
     
-    private ProductResponse convertToResponse(Product product) {
-        return new ProductResponse(
+    static ProductResponse convertToResponse(Product product) {
+        ProductResponse response = new ProductResponse(
                 product.getId(),
                 product.getName(),
                 product.getDescription(),
@@ -126,7 +476,11 @@ public class ProductService {
                 product.getImageUrl(),
                 product.getIsActive(),
                 product.getCreatedAt(),
-                product.getUpdatedAt()
+                product.getUpdatedAt(),
+                product.getVersion()
         );
+        response.setCategoryId(product.getCategoryId());
+        response.setSku(product.getSku());
+        return response;
     }
 }
@@ -0,0 +1,379 @@
+package com.grocery.productcatalogservice.service;
+
+import com.grocery.productcatalogservice.dto.AvailabilityResponse;
+import com.grocery.productcatalogservice.dto.ProductResponse;
+import com.grocery.productcatalogservice.dto.ProductSummary;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Immutable column-oriented copy of the active catalog, ordered by id.
+ *
+ * Each attribute lives in its own primitive array (prices as long cents,
+ * categories and units dictionary-encoded), so lookups are a binary search
+ * over ids and category scans walk a single int[] with no per-row objects.
+ * Changes produce a new snapshot: stock, reservation, price and version
+ * updates to existing rows clone only those columns and share the rest.
+ */
+final class ProductSnapshot {
+    
+    static final ProductSnapshot EMPTY = new Builder(0).build();
+    
+    // Sentinel for a NULL shelf_life_days
+    private static final int NO_SHELF_LIFE = Integer.MIN_VALUE;
+    
+    final long[] ids;
+    final long[] versions;
+    final String[] names;
+    final int[] unitCodes;
+    final String[] units;
+    final long[] priceCents;
+    final int[] shelfLifeDays;
+    final int[] stock;
+    final int[] reserved;
+    // -1 for products without a category
+    final int[] categoryCodes;
+    final String[] categories;
+    final String[] imageUrls;
+    
+    // Latest updated_at applied to this snapshot; warm starts catch up from here
+    final LocalDateTime highWater;
+    
+    ProductSnapshot(long[] ids, long[] versions, String[] names, int[] unitCodes, String[] units,
+                    long[] priceCents, int[] shelfLifeDays, int[] stock, int[] reserved,
+                    int[] categoryCodes, String[] categories, String[] imageUrls, LocalDateTime highWater) {
+        this.ids = ids;
+        this.versions = versions;
+        this.names = names;
+        this.unitCodes = unitCodes;
+        this.units = units;
+        this.priceCents = priceCents;
+        this.shelfLifeDays = shelfLifeDays;
+        this.stock = stock;
+        this.reserved = reserved;
+        this.categoryCodes = categoryCodes;
+        this.categories = categories;
+        this.imageUrls = imageUrls;
+        this.highWater = highWater;
+    }
+    
+    int size() {
+        return ids.length;
+    }
+    
+    // Row index of the id, or a negative value when it is not in the snapshot
+    int indexOf(long id) {
+        return Arrays.binarySearch(ids, id);
+    }
+    
+    // Row index of the first id greater than the given one
+    int indexAfter(long id) {
+        int index = Arrays.binarySearch(ids, id);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+    
+    List<ProductSummary> slice(int from, int count) {
+        int start = Math.min(Math.max(from, 0), ids.length);
+        int end = (int) Math.min((long) start + count, ids.length);
+        List<ProductSummary> result = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            result.add(summary(i));
+        }
+        return result;
+    }
+    
+    List<ProductSummary> byCategory(String category) {
+        int code = Arrays.asList(categories).indexOf(category);
+        List<ProductSummary> result = new ArrayList<>();
+        if (code < 0) {
+            return result;
+        }
+        for (int i = 0; i < categoryCodes.length; i++) {
+            if (categoryCodes[i] == code) {
+                result.add(summary(i));
+            }
+        }
+        return result;
+    }
+    
+    AvailabilityResponse availability(int index) {
+        return new AvailabilityResponse(ids[index], stock[index], reserved[index]);
+    }
+    
+    ProductSummary summary(int i) {
+        return new ProductSummary(
+                ids[i],
+                names[i],
+                units[unitCodes[i]],
+                BigDecimal.valueOf(priceCents[i], 2),
+                shelfLifeDays[i] == NO_SHELF_LIFE ? null : shelfLifeDays[i],
+                stock[i],
+                categoryCodes[i] < 0 ? null : categories[categoryCodes[i]],
+                imageUrls[i],
+                versions[i]
+        );
+    }
+    
+    /**
+     * Returns a snapshot with the given rows replaced, added or (inactive rows)
+     * removed, plus reserved quantities overwritten for existing rows. Rows
+     * older than the version already held are ignored, so a late event cannot
+     * roll a product back.
+     */
+    ProductSnapshot withChanges(NavigableMap<Long, Row> changes, Map<Long, Integer> reservedQuantities) {
+        NavigableMap<Long, Row> rows = withoutStaleRows(changes);
+        if (onlyNumericChanges(rows)) {
+            long[] newVersions = rows.isEmpty() ? versions : versions.clone();
+            long[] newPrices = rows.isEmpty() ? priceCents : priceCents.clone();
+            int[] newStock = rows.isEmpty() ? stock : stock.clone();
+            int[] newReserved = reservedQuantities.isEmpty() ? reserved : reserved.clone();
+            LocalDateTime newHighWater = highWater;
+            for (Row row : rows.values()) {
+                int i = indexOf(row.id);
+                newVersions[i] = row.version;
+                newPrices[i] = row.priceCents;
+                newStock[i] = row.stock;
+                newHighWater = later(newHighWater, row.updatedAt);
+            }
+            reservedQuantities.forEach((id, quantity) -> {
+                int i = indexOf(id);
+                if (i >= 0) {
+                    newReserved[i] = quantity;
+                }
+            });
+            return new ProductSnapshot(ids, newVersions, names, unitCodes, units, newPrices, shelfLifeDays,
+                    newStock, newReserved, categoryCodes, categories, imageUrls, newHighWater);
+        }
+        
+        // Structural change: merge existing rows with the patch in id order
+        Builder builder = new Builder(ids.length + rows.size());
+        builder.highWater = highWater;
+        int i = 0;
+        for (Map.Entry<Long, Row> change : rows.entrySet()) {
+            long id = change.getKey();
+            for (; i < ids.length && ids[i] < id; i++) {
+                builder.add(row(i));
+            }
+            Row replacement = change.getValue();
+            boolean existing = i < ids.length && ids[i] == id;
+            if (replacement.active) {
+                int reservedQuantity = replacement.reserved >= 0 ? replacement.reserved : existing ? reserved[i] : 0;
+                builder.add(replacement, reservedQuantity);
+            } else {
+                builder.highWater = later(builder.highWater, replacement.updatedAt);
+            }
+            if (existing) {
+                i++;
+            }
+        }
+        for (; i < ids.length; i++) {
+            builder.add(row(i));
+        }
+        ProductSnapshot merged = builder.build();
+        return reservedQuantities.isEmpty() ? merged : merged.withChanges(new TreeMap<>(), reservedQuantities);
+    }
+    
+    private NavigableMap<Long, Row> withoutStaleRows(NavigableMap<Long, Row> rows) {
+        NavigableMap<Long, Row> fresh = rows;
+        for (Row row : rows.values()) {
+            int i = indexOf(row.id);
+            if (i >= 0 && row.version < versions[i]) {
+                if (fresh == rows) {
+                    fresh = new TreeMap<>(rows);
+                }
+                fresh.remove(row.id);
+            }
+        }
+        return fresh;
+    }
+    
+    // True when every change updates an existing row without touching its text or dictionary columns
+    private boolean onlyNumericChanges(Map<Long, Row> rows) {
+        for (Map.Entry<Long, Row> change : rows.entrySet()) {
+            Row row = change.getValue();
+            int i = indexOf(change.getKey());
+            if (!row.active || i < 0
+                    || !Objects.equals(row.name, names[i])
+                    || !Objects.equals(row.unit, units[unitCodes[i]])
+                    || row.shelfLifeDays != shelfLifeDays[i]
+                    || !Objects.equals(row.category, categoryCodes[i] < 0 ? null : categories[categoryCodes[i]])
+                    || !Objects.equals(row.imageUrl, imageUrls[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    Row row(int i) {
+        Row row = new Row();
+        row.id = ids[i];
+        row.version = versions[i];
+        row.name = names[i];
+        row.unit = units[unitCodes[i]];
+        row.priceCents = priceCents[i];
+        row.shelfLifeDays = shelfLifeDays[i];
+        row.stock = stock[i];
+        row.reserved = reserved[i];
+        row.category = categoryCodes[i] < 0 ? null : categories[categoryCodes[i]];
+        row.imageUrl = imageUrls[i];
+        return row;
+    }
+    
+    static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+    
+    static long toCents(BigDecimal price) {
+        return price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+    
+    static int toShelfLife(Integer days) {
+        return days == null ? NO_SHELF_LIFE : days;
+    }
+    
+    /**
+     * One product in transit between the database, events and a snapshot.
+     */
+    static final class Row {
+        
+        long id;
+        long version;
+        String name;
+        String unit;
+        long priceCents;
+        int shelfLifeDays;
+        int stock;
+        // -1 keeps whatever the current snapshot holds
+        int reserved = -1;
+        String category;
+        String imageUrl;
+        LocalDateTime updatedAt;
+        // Inactive rows remove the product from the snapshot
+        boolean active = true;
+        
+        static Row of(ProductResponse product) {
+            Row row = new Row();
+            row.id = product.getId();
+            row.version = product.getVersion() == null ? 0 : product.getVersion();
+            row.name = product.getName();
+            row.unit = product.getUnit();
+            row.priceCents = toCents(product.getPrice());
+            row.shelfLifeDays = toShelfLife(product.getShelfLifeDays());
+            row.stock = product.getStockQuantity();
+            row.category = product.getCategory();
+            row.imageUrl = product.getImageUrl();
+            row.updatedAt = product.getUpdatedAt();
+            row.active = Boolean.TRUE.equals(product.getIsActive());
+            return row;
+        }
+    }
+    
+    /**
+     * Appends rows in ascending id order and encodes the dictionary columns.
+     */
+    static final class Builder {
+        
+        private int size;
+        private long[] ids;
+        private long[] versions;
+        private String[] names;
+        private int[] unitCodes;
+        private long[] priceCents;
+        private int[] shelfLifeDays;
+        private int[] stock;
+        private int[] reserved;
+        private int[] categoryCodes;
+        private String[] imageUrls;
+        private final Map<String, Integer> units = new HashMap<>();
+        private final Map<String, Integer> categories = new HashMap<>();
+        private LocalDateTime highWater;
+        
+        Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 16);
+            ids = new long[capacity];
+            versions = new long[capacity];
+            names = new String[capacity];
+            unitCodes = new int[capacity];
+            priceCents = new long[capacity];
+            shelfLifeDays = new int[capacity];
+            stock = new int[capacity];
+            reserved = new int[capacity];
+            categoryCodes = new int[capacity];
+            imageUrls = new String[capacity];
+        }
+        
+        Builder add(Row row) {
+            return add(row, row.reserved);
+        }
+        
+        Builder add(Row row, int reservedQuantity) {
+            if (size == ids.length) {
+                grow();
+            }
+            ids[size] = row.id;
+            versions[size] = row.version;
+            names[size] = row.name;
+            unitCodes[size] = units.computeIfAbsent(row.unit, u -> units.size());
+            priceCents[size] = row.priceCents;
+            shelfLifeDays[size] = row.shelfLifeDays;
+            stock[size] = row.stock;
+            reserved[size] = Math.max(reservedQuantity, 0);
+            categoryCodes[size] = row.category == null ? -1 : categories.computeIfAbsent(row.category, c -> categories.size());
+            imageUrls[size] = row.imageUrl;
+            highWater = later(highWater, row.updatedAt);
+            size++;
+            return this;
+        }
+        
+        ProductSnapshot build() {
+            return new ProductSnapshot(
+                    Arrays.copyOf(ids, size),
+                    Arrays.copyOf(versions, size),
+                    Arrays.copyOf(names, size),
+                    Arrays.copyOf(unitCodes, size),
+                    dictionary(units),
+                    Arrays.copyOf(priceCents, size),
+                    Arrays.copyOf(shelfLifeDays, size),
+                    Arrays.copyOf(stock, size),
+                    Arrays.copyOf(reserved, size),
+                    Arrays.copyOf(categoryCodes, size),
+                    dictionary(categories),
+                    Arrays.copyOf(imageUrls, size),
+                    highWater
+            );
+        }
+        
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            names = Arrays.copyOf(names, capacity);
+            unitCodes = Arrays.copyOf(unitCodes, capacity);
+            priceCents = Arrays.copyOf(priceCents, capacity);
+            shelfLifeDays = Arrays.copyOf(shelfLifeDays, capacity);
+            stock = Arrays.copyOf(stock, capacity);
+            reserved = Arrays.copyOf(reserved, capacity);
+            categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+            imageUrls = Arrays.copyOf(imageUrls, capacity);
+        }
+        
+        private static String[] dictionary(Map<String, Integer> codes) {
+            String[] values = new String[codes.size()];
+            codes.forEach((value, code) -> values[code] = value);
+            return values;
+        }
+    }
+}
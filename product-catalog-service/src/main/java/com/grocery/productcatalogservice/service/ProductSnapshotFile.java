@@ -0,0 +1,192 @@
+package com.grocery.productcatalogservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Reads and writes {@link ProductSnapshot} as a single binary file.
+ *
+ * Layout (big-endian): magic, format version, high-water updated_at, row and
+ * dictionary counts, then each primitive column back to back, then the string
+ * columns length-prefixed in UTF-8, then a CRC32 of everything before it.
+ * Files are written to a temporary sibling and atomically renamed, and read
+ * through a read-only memory mapping so primitive columns are bulk-copied
+ * straight out of the page cache. A file with another magic, format version
+ * or checksum is ignored.
+ */
+@Component
+public class ProductSnapshotFile {
+    
+    private static final Logger log = LoggerFactory.getLogger(ProductSnapshotFile.class);
+    
+    private static final int MAGIC = 0x47435350; // "GCSP"
+    private static final int FORMAT_VERSION = 1;
+    
+    private final Path path;
+    
+    public ProductSnapshotFile(@Value("${product.snapshot.file:}") String file) {
+        this.path = file == null || file.isBlank() ? null : Path.of(file);
+    }
+    
+    public boolean isEnabled() {
+        return path != null;
+    }
+    
+    void write(ProductSnapshot snapshot) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (OutputStream file = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(
+                     new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), crc))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            LocalDateTime highWater = snapshot.highWater;
+            out.writeLong(highWater == null ? Long.MIN_VALUE : highWater.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(highWater == null ? 0 : highWater.getNano());
+            out.writeInt(snapshot.size());
+            out.writeInt(snapshot.units.length);
+            out.writeInt(snapshot.categories.length);
+            
+            for (long value : snapshot.ids) {
+                out.writeLong(value);
+            }
+            for (long value : snapshot.versions) {
+                out.writeLong(value);
+            }
+            for (long value : snapshot.priceCents) {
+                out.writeLong(value);
+            }
+            for (int[] column : new int[][]{snapshot.unitCodes, snapshot.shelfLifeDays, snapshot.stock,
+                    snapshot.reserved, snapshot.categoryCodes}) {
+                for (int value : column) {
+                    out.writeInt(value);
+                }
+            }
+            for (String[] column : new String[][]{snapshot.units, snapshot.categories, snapshot.names,
+                    snapshot.imageUrls}) {
+                for (String value : column) {
+                    writeString(out, value);
+                }
+            }
+            out.flush();
+            // The checksum itself is not part of the checked stream
+            new DataOutputStream(file).writeLong(crc.getValue());
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * Returns the snapshot stored in the file, or null when there is no usable file.
+     */
+    ProductSnapshot read() {
+        if (path == null || !Files.isRegularFile(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < Long.BYTES) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(0, (int) (length - Long.BYTES)));
+            if (crc.getValue() != buffer.getLong((int) (length - Long.BYTES))) {
+                log.warn("Ignoring catalog snapshot {}: checksum mismatch", path);
+                return null;
+            }
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                log.info("Ignoring catalog snapshot {}: unknown format", path);
+                return null;
+            }
+            long highWaterSeconds = buffer.getLong();
+            int highWaterNanos = buffer.getInt();
+            LocalDateTime highWater = highWaterSeconds == Long.MIN_VALUE
+                    ? null
+                    : LocalDateTime.ofEpochSecond(highWaterSeconds, highWaterNanos, ZoneOffset.UTC);
+            int rows = buffer.getInt();
+            int unitCount = buffer.getInt();
+            int categoryCount = buffer.getInt();
+            
+            long[] ids = readLongs(buffer, rows);
+            long[] versions = readLongs(buffer, rows);
+            long[] priceCents = readLongs(buffer, rows);
+            int[] unitCodes = readInts(buffer, rows);
+            int[] shelfLifeDays = readInts(buffer, rows);
+            int[] stock = readInts(buffer, rows);
+            int[] reserved = readInts(buffer, rows);
+            int[] categoryCodes = readInts(buffer, rows);
+            String[] units = readStrings(buffer, unitCount);
+            String[] categories = readStrings(buffer, categoryCount);
+            String[] names = readStrings(buffer, rows);
+            String[] imageUrls = readStrings(buffer, rows);
+            
+            return new ProductSnapshot(ids, versions, names, unitCodes, units, priceCents, shelfLifeDays,
+                    stock, reserved, categoryCodes, categories, imageUrls, highWater);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable catalog snapshot {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+    
+    Path getPath() {
+        return path;
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    private static long[] readLongs(ByteBuffer buffer, int count) {
+        long[] values = new long[count];
+        buffer.asLongBuffer().get(values);
+        buffer.position(buffer.position() + count * Long.BYTES);
+        return values;
+    }
+    
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        return values;
+    }
+    
+    private static String[] readStrings(ByteBuffer buffer, int count) {
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            int length = buffer.getInt();
+            if (length >= 0) {
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                values[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,308 @@
+package com.grocery.productcatalogservice.service;
+
+import com.grocery.productcatalogservice.event.CatalogBulkChangeEvent;
+import com.grocery.productcatalogservice.event.ProductChangedEvent;
+import com.grocery.productcatalogservice.event.StockReservationChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Holds the current {@link ProductSnapshot} and keeps it in step with the
+ * database.
+ *
+ * On boot the snapshot comes from the product.snapshot.file written by the
+ * previous run, when there is one, followed by a catch-up query for rows
+ * updated since; otherwise it is loaded with a streaming JDBC cursor. It is
+ * reloaded after bulk changes and every product.snapshot.refresh-interval-ms,
+ * written back to the file periodically and on shutdown, and patched from
+ * committed product and reservation events in between. Patches queued by
+ * concurrent writers are applied together, so a burst of stock updates costs
+ * one column copy rather than one per write, and the writer's own patch is
+ * visible by the time its listener returns.
+ */
+@Component
+public class ProductSnapshotStore {
+    
+    private static final Logger log = LoggerFactory.getLogger(ProductSnapshotStore.class);
+    
+    private static final String COLUMNS =
+            "SELECT id, version, name, unit, price, shelf_life_days, stock_quantity, reserved_quantity, " +
+            "category, image_url, updated_at, is_active FROM products ";
+    
+    private static final String LOAD_SQL = COLUMNS + "WHERE is_active = true ORDER BY id";
+    
+    private static final String CATCH_UP_SQL = COLUMNS + "WHERE updated_at >= ? ORDER BY id";
+    
+    private static final String RESERVED_HELD_SQL =
+            "SELECT id, reserved_quantity FROM products WHERE reserved_quantity > 0";
+    
+    private static final String RESERVED_SQL =
+            "SELECT id, reserved_quantity FROM products WHERE id IN (:ids)";
+    
+    private final JdbcTemplate cursorTemplate;
+    
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ProductSnapshotFile snapshotFile;
+    
+    // Re-read this much before the file's high-water mark: updated_at is stamped
+    // before commit, so a slow transaction can land behind it
+    @Value("${product.snapshot.catch-up-overlap:5m}")
+    private Duration catchUpOverlap;
+    
+    @Value("${product.snapshot.enabled:true}")
+    private boolean enabled;
+    
+    private final ConcurrentLinkedQueue<Patch> pending = new ConcurrentLinkedQueue<>();
+    
+    private final Object reloadLock = new Object();
+    
+    // Patches applied while a reload was reading the table; replayed onto its result
+    private List<Patch> replay;
+    
+    private volatile ProductSnapshot snapshot = ProductSnapshot.EMPTY;
+    private volatile ProductSnapshot lastPersisted;
+    private volatile boolean ready;
+    
+    public ProductSnapshotStore(DataSource dataSource,
+                                @Value("${product.snapshot.fetch-size:1000}") int fetchSize) {
+        this.cursorTemplate = new JdbcTemplate(dataSource);
+        this.cursorTemplate.setFetchSize(fetchSize);
+    }
+    
+    /**
+     * Serves from the snapshot file, when there is one, before the application
+     * is ready, then catches up with rows updated since the file was written.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void warmStart() {
+        if (!enabled || !snapshotFile.isEnabled()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        ProductSnapshot stored = snapshotFile.read();
+        if (stored == null || stored.highWater == null) {
+            return;
+        }
+        synchronized (this) {
+            snapshot = stored;
+            lastPersisted = stored;
+        }
+        ready = true;
+        log.info("Product snapshot mapped from {} with {} products in {} ms",
+                snapshotFile.getPath(), stored.size(), System.currentTimeMillis() - start);
+        try {
+            catchUp(stored.highWater.minus(catchUpOverlap));
+        } catch (RuntimeException e) {
+            // Keep serving the file; the scheduled reload will retry against the database
+            log.warn("Product snapshot catch-up failed: {}", e.getMessage());
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!ready) {
+            reload();
+        }
+    }
+    
+    @Scheduled(initialDelayString = "${product.snapshot.refresh-interval-ms:300000}",
+               fixedDelayString = "${product.snapshot.refresh-interval-ms:300000}")
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        // The scheduled and the bulk-change reload share one replay list, so they take turns
+        synchronized (reloadLock) {
+            long start = System.currentTimeMillis();
+            synchronized (this) {
+                replay = new ArrayList<>();
+            }
+            
+            ProductSnapshot.Builder builder = new ProductSnapshot.Builder(snapshot.size());
+            try {
+                TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+                transaction.setReadOnly(true);
+                transaction.executeWithoutResult(status ->
+                        cursorTemplate.query(LOAD_SQL, rs -> {
+                            builder.add(readRow(rs));
+                        }));
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    replay = null;
+                }
+                throw e;
+            }
+            
+            synchronized (this) {
+                ProductSnapshot loaded = builder.build();
+                for (Patch patch : replay) {
+                    loaded = loaded.withChanges(patch.rows, patch.reserved);
+                }
+                replay = null;
+                snapshot = loaded;
+            }
+            ready = true;
+            log.debug("Product snapshot loaded with {} products in {} ms",
+                    snapshot.size(), System.currentTimeMillis() - start);
+        }
+    }
+    
+    @Scheduled(initialDelayString = "${product.snapshot.persist-interval-ms:60000}",
+               fixedDelayString = "${product.snapshot.persist-interval-ms:60000}")
+    @PreDestroy
+    public void persist() {
+        ProductSnapshot current = snapshot;
+        if (!ready || !snapshotFile.isEnabled() || current == lastPersisted) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            snapshotFile.write(current);
+            lastPersisted = current;
+            log.debug("Product snapshot with {} products written to {} in {} ms",
+                    current.size(), snapshotFile.getPath(), System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            log.warn("Could not write product snapshot to {}: {}", snapshotFile.getPath(), e.getMessage());
+        }
+    }
+    
+    // Rows updated since the given time, including deactivations, plus every reserved quantity
+    private void catchUp(LocalDateTime since) {
+        long start = System.currentTimeMillis();
+        Patch patch = new Patch();
+        cursorTemplate.query(CATCH_UP_SQL, rs -> {
+            ProductSnapshot.Row row = readRow(rs);
+            row.active = rs.getBoolean("is_active");
+            patch.rows.put(row.id, row);
+            patch.reserved.put(row.id, row.reserved);
+        }, Timestamp.valueOf(since));
+        
+        // Holds do not touch updated_at, so reserved quantities are refreshed wholesale
+        ProductSnapshot current = snapshot;
+        for (int i = 0; i < current.size(); i++) {
+            if (current.reserved[i] != 0) {
+                patch.reserved.putIfAbsent(current.ids[i], 0);
+            }
+        }
+        cursorTemplate.query(RESERVED_HELD_SQL, rs -> {
+            patch.reserved.put(rs.getLong("id"), rs.getInt("reserved_quantity"));
+        });
+        apply(patch);
+        log.info("Product snapshot caught up with {} rows changed since {} in {} ms",
+                patch.rows.size(), since, System.currentTimeMillis() - start);
+    }
+    
+    private static ProductSnapshot.Row readRow(ResultSet rs) throws SQLException {
+        ProductSnapshot.Row row = new ProductSnapshot.Row();
+        row.id = rs.getLong("id");
+        row.version = rs.getLong("version");
+        row.name = rs.getString("name");
+        row.unit = rs.getString("unit");
+        row.priceCents = ProductSnapshot.toCents(rs.getBigDecimal("price"));
+        int shelfLife = rs.getInt("shelf_life_days");
+        row.shelfLifeDays = ProductSnapshot.toShelfLife(rs.wasNull() ? null : shelfLife);
+        row.stock = rs.getInt("stock_quantity");
+        row.reserved = rs.getInt("reserved_quantity");
+        row.category = rs.getString("category");
+        row.imageUrl = rs.getString("image_url");
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        row.updatedAt = updatedAt == null ? null : updatedAt.toLocalDateTime();
+        return row;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Patch patch = new Patch();
+        patch.rows.put(event.getProductId(), ProductSnapshot.Row.of(event.getProduct()));
+        apply(patch);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockReservationChanged(StockReservationChangedEvent event) {
+        if (!enabled || event.getProductIds().isEmpty()) {
+            return;
+        }
+        Patch patch = new Patch();
+        namedJdbcTemplate.query(RESERVED_SQL, new MapSqlParameterSource("ids", event.getProductIds()),
+                rs -> {
+                    patch.reserved.put(rs.getLong("id"), rs.getInt("reserved_quantity"));
+                });
+        apply(patch);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogBulkChange(CatalogBulkChangeEvent event) {
+        reload();
+    }
+    
+    public boolean isReady() {
+        return enabled && ready;
+    }
+    
+    ProductSnapshot current() {
+        return snapshot;
+    }
+    
+    private void apply(Patch patch) {
+        if (!enabled) {
+            return;
+        }
+        pending.add(patch);
+        synchronized (this) {
+            Patch combined = new Patch();
+            Patch next;
+            while ((next = pending.poll()) != null) {
+                combined.rows.putAll(next.rows);
+                combined.reserved.putAll(next.reserved);
+            }
+            if (combined.rows.isEmpty() && combined.reserved.isEmpty()) {
+                // Another writer already applied ours
+                return;
+            }
+            snapshot = snapshot.withChanges(combined.rows, combined.reserved);
+            if (replay != null) {
+                replay.add(combined);
+            }
+        }
+    }
+    
+    private static final class Patch {
+        
+        private final TreeMap<Long, ProductSnapshot.Row> rows = new TreeMap<>();
+        private final Map<Long, Integer> reserved = new HashMap<>();
+    }
+}
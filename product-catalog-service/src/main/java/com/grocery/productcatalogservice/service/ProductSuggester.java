@@ -0,0 +1,319 @@
+package com.grocery.productcatalogservice.service;
+
+import com.grocery.productcatalogservice.dto.ProductSummary;
+import com.grocery.productcatalogservice.dto.SuggestionResponse;
+import com.grocery.productcatalogservice.event.CatalogBulkChangeEvent;
+import com.grocery.productcatalogservice.event.ProductChangedEvent;
+import com.grocery.productcatalogservice.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Type-ahead over product names and categories.
+ *
+ * Suggestions are served from an immutable burst trie: every word start of a
+ * name or category is a key in one sorted array, a prefix resolves to a key
+ * range by binary search, and every prefix whose range is too large to scan
+ * carries its precomputed top-K suggestions. A lookup is therefore two binary
+ * searches plus either a small scan or a single map hit, whatever the catalog
+ * size. Product changes mark the trie dirty and it is rebuilt copy-on-write on
+ * a short schedule, so readers never block.
+ *
+ * Category weight is its number of active products; product weight is one
+ * plus its popularity score (see {@link #updatePopularity}).
+ */
+@Component
+public class ProductSuggester {
+    
+    private static final Logger log = LoggerFactory.getLogger(ProductSuggester.class);
+    
+    private static final int WARMUP_PAGE_SIZE = 500;
+    
+    // Prefix ranges up to this many keys are scanned instead of precomputed
+    private static final int SCAN_LIMIT = 64;
+    
+    private static final String PRODUCT = "product";
+    private static final String CATEGORY = "category";
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private ProductSnapshotStore productSnapshotStore;
+    
+    private final int maxResults;
+    
+    // Source of truth for rebuilds: productId -> {name, category}
+    private final Map<Long, String[]> products = new ConcurrentHashMap<>();
+    private final Map<Long, Long> popularity = new ConcurrentHashMap<>();
+    
+    private volatile Trie trie = Trie.EMPTY;
+    private volatile boolean dirty;
+    private volatile boolean ready;
+    
+    public ProductSuggester(@Value("${product.suggest.max-results:10}") int maxResults) {
+        this.maxResults = maxResults;
+    }
+    
+    // A snapshot restored from file is already current, so startup skips the database
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!productSnapshotStore.isReady()) {
+            reload();
+            return;
+        }
+        long start = System.currentTimeMillis();
+        ProductSnapshot snapshot = productSnapshotStore.current();
+        for (int i = 0; i < snapshot.size(); i++) {
+            int code = snapshot.categoryCodes[i];
+            products.put(snapshot.ids[i], new String[]{snapshot.names[i], code < 0 ? null : snapshot.categories[code]});
+        }
+        rebuild();
+        ready = true;
+        log.info("Suggestion trie built from snapshot with {} keys in {} ms",
+                trie.keys.length, System.currentTimeMillis() - start);
+    }
+    
+    public void reload() {
+        long start = System.currentTimeMillis();
+        Set<Long> seen = new HashSet<>();
+        long afterId = 0L;
+        List<ProductSummary> batch;
+        do {
+            batch = productRepository.findActiveSummariesAfterId(afterId, Limit.of(WARMUP_PAGE_SIZE));
+            for (ProductSummary product : batch) {
+                products.put(product.getId(), new String[]{product.getName(), product.getCategory()});
+                seen.add(product.getId());
+                afterId = product.getId();
+            }
+        } while (batch.size() == WARMUP_PAGE_SIZE);
+        products.keySet().retainAll(seen);
+        
+        rebuild();
+        ready = true;
+        log.info("Suggestion trie built with {} keys in {} ms", trie.keys.length, System.currentTimeMillis() - start);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        // Price and stock updates leave the suggestions as they are, so they cost no rebuild
+        if (event.isActive()) {
+            String[] fields = {event.getProduct().getName(), event.getProduct().getCategory()};
+            String[] previous = products.put(event.getProductId(), fields);
+            if (previous == null || !Arrays.equals(previous, fields)) {
+                dirty = true;
+            }
+        } else if (products.remove(event.getProductId()) != null) {
+            dirty = true;
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogBulkChange(CatalogBulkChangeEvent event) {
+        if (event.isTextChanged()) {
+            reload();
+        }
+    }
+    
+    /**
+     * Replaces the popularity scores used to weight product names.
+     */
+    public void updatePopularity(Map<Long, Long> scores) {
+        popularity.clear();
+        popularity.putAll(scores);
+        dirty = true;
+    }
+    
+    @Scheduled(fixedDelayString = "${product.suggest.refresh-interval-ms:1000}")
+    public void refresh() {
+        if (ready && dirty) {
+            rebuild();
+        }
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        int k = Math.max(1, Math.min(limit, maxResults));
+        if (key.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Trie current = trie;
+        int[] top = current.topK(key, maxResults);
+        List<SuggestionResponse> result = new ArrayList<>(Math.min(k, top.length));
+        for (int i = 0; i < top.length && i < k; i++) {
+            Suggestion suggestion = current.suggestions[top[i]];
+            result.add(new SuggestionResponse(suggestion.text, suggestion.type, suggestion.weight));
+        }
+        return result;
+    }
+    
+    private synchronized void rebuild() {
+        dirty = false;
+        
+        // Products sharing a name (and categories) collapse into one suggestion with summed weight
+        Map<String, Suggestion> byKey = new HashMap<>();
+        products.forEach((id, fields) -> {
+            long weight = 1 + popularity.getOrDefault(id, 0L);
+            merge(byKey, fields[0], PRODUCT, weight);
+            if (fields[1] != null) {
+                merge(byKey, fields[1], CATEGORY, 1);
+            }
+        });
+        trie = Trie.build(byKey.values().toArray(new Suggestion[0]), maxResults);
+    }
+    
+    private static void merge(Map<String, Suggestion> byKey, String text, String type, long weight) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        byKey.computeIfAbsent(type + ':' + normalize(text), k -> new Suggestion(text.trim(), type))
+                .weight += weight;
+    }
+    
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private static final class Suggestion {
+        
+        private final String text;
+        private final String type;
+        private long weight;
+        
+        private Suggestion(String text, String type) {
+            this.text = text;
+            this.type = type;
+        }
+    }
+    
+    private static final class Trie {
+        
+        private static final Trie EMPTY = new Trie(new String[0], new int[0], new Suggestion[0], Map.of());
+        
+        // Sorted lower-cased keys, one per word start; owners[i] indexes suggestions
+        private final String[] keys;
+        private final int[] owners;
+        private final Suggestion[] suggestions;
+        
+        // Precomputed top-K suggestion indexes for prefixes matching more than SCAN_LIMIT keys
+        private final Map<String, int[]> heavyPrefixes;
+        
+        private Trie(String[] keys, int[] owners, Suggestion[] suggestions, Map<String, int[]> heavyPrefixes) {
+            this.keys = keys;
+            this.owners = owners;
+            this.suggestions = suggestions;
+            this.heavyPrefixes = heavyPrefixes;
+        }
+        
+        private static Trie build(Suggestion[] suggestions, int k) {
+            List<Object[]> entries = new ArrayList<>();
+            for (int s = 0; s < suggestions.length; s++) {
+                String text = normalize(suggestions[s].text);
+                for (int i = 0; i < text.length(); i++) {
+                    boolean wordStart = i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1));
+                    if (wordStart && Character.isLetterOrDigit(text.charAt(i))) {
+                        entries.add(new Object[]{text.substring(i), s});
+                    }
+                }
+            }
+            entries.sort((a, b) -> ((String) a[0]).compareTo((String) b[0]));
+            String[] keys = new String[entries.size()];
+            int[] owners = new int[entries.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = (String) entries.get(i)[0];
+                owners[i] = (Integer) entries.get(i)[1];
+            }
+            
+            Trie trie = new Trie(keys, owners, suggestions, new HashMap<>());
+            trie.precompute("", 0, keys.length, k);
+            return trie;
+        }
+        
+        // Walks the implicit trie over the sorted keys, descending only into heavy ranges
+        private void precompute(String prefix, int from, int to, int k) {
+            if (to - from <= SCAN_LIMIT) {
+                return;
+            }
+            heavyPrefixes.put(prefix, scan(from, to, k));
+            int depth = prefix.length();
+            int i = from;
+            while (i < to && keys[i].length() == depth) {
+                i++;
+            }
+            while (i < to) {
+                char c = keys[i].charAt(depth);
+                int j = i + 1;
+                while (j < to && keys[j].charAt(depth) == c) {
+                    j++;
+                }
+                precompute(prefix + c, i, j, k);
+                i = j;
+            }
+        }
+        
+        private int[] topK(String prefix, int k) {
+            int[] cached = heavyPrefixes.get(prefix);
+            if (cached != null) {
+                return cached;
+            }
+            int from = lowerBound(prefix);
+            int to = lowerBound(prefix + Character.MAX_VALUE);
+            return scan(from, to, k);
+        }
+        
+        private int[] scan(int from, int to, int k) {
+            Set<Integer> distinct = new LinkedHashSet<>();
+            for (int i = from; i < to; i++) {
+                distinct.add(owners[i]);
+            }
+            Integer[] candidates = distinct.toArray(new Integer[0]);
+            Arrays.sort(candidates, (a, b) -> {
+                int byWeight = Long.compare(suggestions[b].weight, suggestions[a].weight);
+                return byWeight != 0 ? byWeight : suggestions[a].text.compareToIgnoreCase(suggestions[b].text);
+            });
+            int[] top = new int[Math.min(k, candidates.length)];
+            for (int i = 0; i < top.length; i++) {
+                top[i] = candidates[i];
+            }
+            return top;
+        }
+        
+        private int lowerBound(String key) {
+            int lo = 0;
+            int hi = keys.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid].compareTo(key) < 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+}
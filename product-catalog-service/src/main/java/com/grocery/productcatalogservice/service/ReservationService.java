@@ -0,0 +1,258 @@
+package com.grocery.productcatalogservice.service;
+
+import com.grocery.productcatalogservice.dto.ReservationResponse;
+import com.grocery.productcatalogservice.dto.StockDecrementRequest;
+import com.grocery.productcatalogservice.event.ProductsOrderedEvent;
+import com.grocery.productcatalogservice.event.StockReservationChangedEvent;
+import com.grocery.productcatalogservice.model.ReservationStatus;
+import com.grocery.productcatalogservice.model.StockReservation;
+import com.grocery.productcatalogservice.repository.ProductRepository;
+import com.grocery.productcatalogservice.repository.StockReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Short-lived stock holds for carts and checkouts.
+ *
+ * Every hold is mirrored in products.reserved_quantity, so availability is
+ * stock_quantity - reserved_quantity read from a single row. Holds expire after
+ * product.reservation.ttl; a scheduled sweep walks the (status, expires_at)
+ * index in batches and releases them, so no per-product scans are needed.
+ */
+@Service
+@Transactional
+public class ReservationService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReservationService.class);
+    
+    private static final String COMMIT_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity - ?, " +
+            "reserved_quantity = GREATEST(reserved_quantity - ?, 0), updated_at = LOCALTIMESTAMP, version = version + 1 " +
+            "WHERE id = ? AND is_active = true AND stock_quantity - reserved_quantity + ? >= ?";
+    
+    // Claims the order id; a second commit for the same order inserts nothing
+    private static final String CLAIM_ORDER_SQL =
+            "INSERT INTO stock_commits (order_id, owner_id, committed_at) VALUES (?, ?, LOCALTIMESTAMP) " +
+            "ON CONFLICT (order_id) DO NOTHING";
+    
+    private static final String RELEASE_SQL =
+            "UPDATE products SET reserved_quantity = GREATEST(reserved_quantity - ?, 0) WHERE id = ?";
+    
+    @Autowired
+    private StockReservationRepository reservationRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${product.reservation.ttl:15m}")
+    private Duration ttl;
+    
+    @Value("${product.reservation.sweep-batch-size:500}")
+    private int sweepBatchSize;
+    
+    /**
+     * Sets the owner's hold on a product to exactly {@code quantity} units and
+     * refreshes its expiry. Only the difference to the current hold is reserved.
+     */
+    public ReservationResponse hold(String ownerId, Long productId, int quantity) {
+        List<StockReservation> existing = reservationRepository
+                .lockByOwnerIdAndProductIdAndStatus(ownerId, productId, ReservationStatus.HELD);
+        int currentlyHeld = existing.stream().mapToInt(StockReservation::getQuantity).sum();
+        
+        int delta = quantity - currentlyHeld;
+        if (delta > 0 && productRepository.reserveStock(productId, delta) == 0) {
+            throw new InsufficientStockException("Insufficient stock or product not found");
+        }
+        if (delta < 0) {
+            productRepository.releaseStock(productId, -delta);
+        }
+        
+        StockReservation reservation;
+        if (existing.isEmpty()) {
+            reservation = new StockReservation(ownerId, productId, quantity, expiry());
+        } else {
+            // Collapse duplicates left behind by concurrent first holds
+            reservation = existing.get(0);
+            for (StockReservation duplicate : existing.subList(1, existing.size())) {
+                duplicate.setStatus(ReservationStatus.RELEASED);
+            }
+            reservation.setQuantity(quantity);
+            reservation.setExpiresAt(expiry());
+        }
+        if (delta != 0) {
+            eventPublisher.publishEvent(new StockReservationChangedEvent(List.of(productId)));
+        }
+        return convertToResponse(reservationRepository.save(reservation));
+    }
+    
+    /**
+     * Sets several holds at once, in product id order; a quantity of zero
+     * releases that hold. All or nothing.
+     */
+    public void holdAll(String ownerId, Map<Long, Integer> quantities) {
+        new TreeMap<>(quantities).forEach((productId, quantity) -> {
+            if (quantity < 0) {
+                throw new IllegalArgumentException("Quantity must not be negative: " + productId);
+            }
+            if (quantity == 0) {
+                release(ownerId, productId);
+            } else {
+                hold(ownerId, productId, quantity);
+            }
+        });
+    }
+    
+    public void release(String ownerId, Long productId) {
+        releaseAll(reservationRepository.lockByOwnerIdAndProductIdAndStatus(ownerId, productId, ReservationStatus.HELD),
+                ReservationStatus.RELEASED);
+    }
+    
+    public void releaseAll(String ownerId) {
+        releaseAll(reservationRepository.lockByOwnerIdAndStatus(ownerId, ReservationStatus.HELD),
+                ReservationStatus.RELEASED);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<ReservationResponse> getHolds(String ownerId) {
+        return reservationRepository.findByOwnerIdAndStatus(ownerId, ReservationStatus.HELD).stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Turns the owner's holds into real stock decrements for an order. Lines
+     * without a hold (or whose hold expired) are taken from free stock; holds
+     * for products not in the order are released. All or nothing, and done at
+     * most once per order id: replaying a commit that already succeeded changes
+     * nothing, and a concurrent replay waits on the first one's claim.
+     */
+    public void commit(String ownerId, Long orderId, List<StockDecrementRequest> items) {
+        if (jdbcTemplate.update(CLAIM_ORDER_SQL, orderId, ownerId) == 0) {
+            log.debug("Stock for order {} already committed", orderId);
+            return;
+        }
+        
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (StockDecrementRequest item : items) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        
+        List<StockReservation> holds = reservationRepository.lockByOwnerIdAndStatus(ownerId, ReservationStatus.HELD);
+        Map<Long, Integer> held = new TreeMap<>();
+        for (StockReservation hold : holds) {
+            held.merge(hold.getProductId(), hold.getQuantity(), Integer::sum);
+        }
+        
+        List<Object[]> batchArgs = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, quantity) -> {
+            int heldQuantity = held.getOrDefault(productId, 0);
+            batchArgs.add(new Object[]{quantity, heldQuantity, productId, heldQuantity, quantity});
+        });
+        int[] updated = jdbcTemplate.batchUpdate(COMMIT_SQL, batchArgs);
+        
+        int index = 0;
+        for (Long productId : quantities.keySet()) {
+            if (updated[index++] == 0) {
+                throw new InsufficientStockException("Insufficient stock or product not found: " + productId);
+            }
+        }
+        
+        List<StockReservation> leftover = new ArrayList<>();
+        for (StockReservation hold : holds) {
+            if (quantities.containsKey(hold.getProductId())) {
+                hold.setStatus(ReservationStatus.COMMITTED);
+            } else {
+                leftover.add(hold);
+            }
+        }
+        releaseAll(leftover, ReservationStatus.RELEASED);
+        productService.publishStockChanges(quantities.keySet());
+        eventPublisher.publishEvent(new StockReservationChangedEvent(quantities.keySet()));
+        eventPublisher.publishEvent(new ProductsOrderedEvent(quantities));
+    }
+    
+    @Scheduled(fixedDelayString = "${product.reservation.sweep-interval-ms:30000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void expireHolds() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int expired;
+        int total = 0;
+        do {
+            // One short transaction per batch keeps row locks brief
+            expired = transaction.execute(status -> {
+                List<StockReservation> batch = reservationRepository.lockExpired(
+                        ReservationStatus.HELD, LocalDateTime.now(), PageRequest.of(0, sweepBatchSize));
+                releaseAll(batch, ReservationStatus.EXPIRED);
+                return batch.size();
+            });
+            total += expired;
+        } while (expired == sweepBatchSize);
+        
+        if (total > 0) {
+            log.debug("Expired {} stock reservations", total);
+        }
+    }
+    
+    private void releaseAll(List<StockReservation> reservations, ReservationStatus status) {
+        if (reservations.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> released = new TreeMap<>();
+        for (StockReservation reservation : reservations) {
+            reservation.setStatus(status);
+            released.merge(reservation.getProductId(), reservation.getQuantity(), Integer::sum);
+        }
+        reservationRepository.saveAll(reservations);
+        
+        List<Object[]> batchArgs = new ArrayList<>(released.size());
+        released.forEach((productId, quantity) -> batchArgs.add(new Object[]{quantity, productId}));
+        jdbcTemplate.batchUpdate(RELEASE_SQL, batchArgs);
+        eventPublisher.publishEvent(new StockReservationChangedEvent(released.keySet()));
+    }
+    
+    private LocalDateTime expiry() {
+        return LocalDateTime.now().plus(ttl);
+    }
+    
+    private ReservationResponse convertToResponse(StockReservation reservation) {
+        return new ReservationResponse(
+                reservation.getId(),
+                reservation.getOwnerId(),
+                reservation.getProductId(),
+                reservation.getQuantity(),
+                reservation.getStatus(),
+                reservation.getExpiresAt()
+        );
+    }
+}
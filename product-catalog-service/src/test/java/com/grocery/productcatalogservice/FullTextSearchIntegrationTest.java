@@ -0,0 +1,115 @@
+package com.grocery.productcatalogservice;
+
+import com.grocery.productcatalogservice.config.FullTextSearchSchemaInitializer;
+import com.grocery.productcatalogservice.dto.ProductRequest;
+import com.grocery.productcatalogservice.dto.ProductSummary;
+import com.grocery.productcatalogservice.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.config.import=optional:configserver:",
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=update",
+        "product.search.mode=fulltext"
+})
+@Testcontainers
+class FullTextSearchIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("product_catalog_test_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private FullTextSearchSchemaInitializer schemaInitializer;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testSchemaCanBeAppliedAgain() {
+        // When: the statements already ran at startup
+        schemaInitializer.initialize();
+
+        // Then
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns " +
+                        "WHERE table_name = 'products' AND column_name = 'search_vector'", Integer.class));
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_indexes WHERE tablename = 'products' AND indexname IN " +
+                        "('idx_products_search_vector', 'idx_products_name_trgm', 'idx_products_category_trgm')",
+                Integer.class));
+    }
+
+    @Test
+    void testNameMatchesRankAboveDescriptionMatches() {
+        // Given
+        Long sauceId = createProduct("Pasta sauce", "Slow cooked from ripe tomatoes", "Pantry");
+        Long tomatoesId = createProduct("Cherry tomatoes", "Sweet and small", "Produce");
+
+        // When
+        List<Long> found = search("tomatoes");
+
+        // Then
+        assertEquals(List.of(tomatoesId, sauceId), found);
+    }
+
+    @Test
+    void testMisspelledNameIsFoundByTrigramSimilarity() {
+        // Given
+        Long zucchiniId = createProduct("Zucchini", "Green summer squash", "Produce");
+
+        // When
+        List<Long> found = search("zuchini");
+
+        // Then
+        assertEquals(List.of(zucchiniId), found);
+    }
+
+    @Test
+    void testInactiveProductsAreNotFound() {
+        // Given
+        Long kaleId = createProduct("Curly kale", null, "Produce");
+        productService.deleteProduct(kaleId);
+
+        // When / Then
+        assertTrue(search("kale").isEmpty());
+    }
+
+    private List<Long> search(String term) {
+        return productService.searchProducts(term, PageRequest.of(0, 10)).getContent().stream()
+                .map(ProductSummary::getId)
+                .toList();
+    }
+
+    private Long createProduct(String name, String description, String category) {
+        ProductRequest request = new ProductRequest(name, description, "each", new BigDecimal("2.49"), 10);
+        request.setCategory(category);
+        return productService.createProduct(request).getId();
+    }
+}
@@ -0,0 +1,117 @@
+package com.grocery.productcatalogservice;
+
+import com.grocery.productcatalogservice.dto.ProductRequest;
+import com.grocery.productcatalogservice.dto.ProductResponse;
+import com.grocery.productcatalogservice.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.config.import=optional:configserver:",
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=update",
+        "product.batch.max-size=3"
+})
+@AutoConfigureMockMvc
+@Testcontainers
+class ProductBatchIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("product_catalog_test_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testBatchKeepsRequestOrderAndOmitsInactiveAndUnknownIds() {
+        // Given
+        Long applesId = createProduct("Batch apples");
+        Long pearsId = createProduct("Batch pears");
+        Long plumsId = createProduct("Batch plums");
+        productService.deleteProduct(plumsId);
+
+        // When: pears is cached by the first call, apples is not
+        productService.getProductById(pearsId);
+        List<ProductResponse> products = productService.getProductsByIds(List.of(pearsId, plumsId, 999999L, applesId));
+
+        // Then
+        assertEquals(List.of(pearsId, applesId), products.stream().map(ProductResponse::getId).toList());
+    }
+
+    @Test
+    void testRepeatedIdsAreReturnedOnceAndCountOnceTowardsTheLimit() {
+        // Given
+        Long breadId = createProduct("Batch bread");
+
+        // When
+        List<ProductResponse> products = productService.getProductsByIds(List.of(breadId, breadId, breadId, breadId));
+
+        // Then
+        assertEquals(1, products.size());
+    }
+
+    @Test
+    void testGetAndPostServeTheSameBatch() throws Exception {
+        // Given
+        Long riceId = createProduct("Batch rice");
+        Long oatsId = createProduct("Batch oats");
+
+        // When / Then
+        mockMvc.perform(get("/api/products/batch").param("ids", oatsId + "," + riceId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(oatsId))
+                .andExpect(jsonPath("$[1].id").value(riceId));
+        mockMvc.perform(post("/api/products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + oatsId + "," + riceId + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(oatsId))
+                .andExpect(jsonPath("$[1].id").value(riceId));
+    }
+
+    @Test
+    void testBatchOverMaxSizeIsRejected() throws Exception {
+        // When / Then
+        mockMvc.perform(post("/api/products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1,2,3,4]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Long createProduct(String name) {
+        return productService.createProduct(
+                new ProductRequest(name, null, "each", new BigDecimal("1.29"), 10)).getId();
+    }
+}
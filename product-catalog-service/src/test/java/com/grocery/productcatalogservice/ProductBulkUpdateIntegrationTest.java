@@ -0,0 +1,239 @@
+package com.grocery.productcatalogservice;
+
+import com.grocery.productcatalogservice.dto.BulkPriceUpdateRequest;
+import com.grocery.productcatalogservice.dto.BulkUpdateResult;
+import com.grocery.productcatalogservice.dto.CatalogFormat;
+import com.grocery.productcatalogservice.dto.CategoryRequest;
+import com.grocery.productcatalogservice.dto.ProductRequest;
+import com.grocery.productcatalogservice.event.CatalogBulkChangeEvent;
+import com.grocery.productcatalogservice.service.CategoryService;
+import com.grocery.productcatalogservice.service.ProductBulkUpdateService;
+import com.grocery.productcatalogservice.service.ProductBulkUpdateService.StockMode;
+import com.grocery.productcatalogservice.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.config.import=optional:configserver:",
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=update",
+        "product.import.chunk-size=1"
+})
+@Testcontainers
+class ProductBulkUpdateIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("product_catalog_test_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @TestConfiguration
+    static class BulkChanges {
+
+        final List<CatalogBulkChangeEvent> published = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        void onCatalogBulkChange(CatalogBulkChangeEvent event) {
+            published.add(event);
+        }
+    }
+
+    @Autowired
+    private ProductBulkUpdateService bulkUpdateService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private BulkChanges bulkChanges;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        bulkChanges.published.clear();
+    }
+
+    @Test
+    void testSetStockIsClampedToReservedQuantity() throws IOException {
+        // Given
+        Long productId = createProduct("Set butter", "3.49", 10, null);
+        reserve(productId, 4);
+
+        // When
+        BulkUpdateResult result = updateStock("id,quantity\n" + productId + ",1\n", StockMode.SET);
+
+        // Then
+        assertEquals(1, result.getAffectedRows());
+        assertEquals(4, stockOf(productId));
+    }
+
+    @Test
+    void testAdjustStockIsClampedToReservedQuantity() throws IOException {
+        // Given
+        Long productId = createProduct("Adjusted cheese", "4.99", 10, null);
+        reserve(productId, 3);
+
+        // When: repeated ids are summed before the update
+        BulkUpdateResult result = updateStock(
+                "id,quantity\n" + productId + ",-5\n" + productId + ",-4\n", StockMode.ADJUST);
+
+        // Then
+        assertEquals(1, result.getAffectedRows());
+        assertEquals(3, stockOf(productId));
+    }
+
+    @Test
+    void testUnknownIdsAndBadLinesAreRejected() throws IOException {
+        // Given
+        Long productId = createProduct("Counted eggs", "2.99", 6, null);
+
+        // When
+        BulkUpdateResult result = updateStock(
+                "{\"id\":" + productId + ",\"quantity\":12}\n{\"id\":999999,\"quantity\":1}\nnot json\n",
+                CatalogFormat.NDJSON, StockMode.SET);
+
+        // Then
+        assertEquals(3, result.getRowsRead());
+        assertEquals(1, result.getAffectedRows());
+        assertEquals(2, result.getRejectedRows());
+        assertEquals(12, stockOf(productId));
+    }
+
+    @Test
+    void testCommittedChunksArePublishedWhenLaterChunkFails() {
+        // Given
+        Long firstId = createProduct("First flour", "1.49", 10, null);
+        Long secondId = createProduct("Second flour", "1.49", 10, null);
+
+        // When: the second chunk overflows stock_quantity and fails after the first has committed
+        assertThrows(RuntimeException.class, () -> updateStock(
+                "id,quantity\n" + firstId + ",5\n" + secondId + "," + Integer.MAX_VALUE + "\n", StockMode.ADJUST));
+
+        // Then
+        assertEquals(15, stockOf(firstId));
+        assertEquals(10, stockOf(secondId));
+        assertEquals(1, bulkChanges.published.size());
+        assertEquals(1, bulkChanges.published.get(0).getAffectedRows());
+        assertFalse(bulkChanges.published.get(0).isTextChanged());
+    }
+
+    @Test
+    void testPercentChangeRoundsToCentsAndSkipsNonPositivePrices() {
+        // Given
+        Long roundedId = createProduct("Rounded tea", "1.99", 5, null);
+        Long cheapId = createProduct("Cheap tea", "0.01", 5, null);
+
+        // When
+        BulkPriceUpdateRequest raise = new BulkPriceUpdateRequest();
+        raise.setIds(List.of(roundedId));
+        raise.setPercent(new BigDecimal("10"));
+        BulkUpdateResult raised = bulkUpdateService.updatePrices(raise);
+        BulkPriceUpdateRequest cut = new BulkPriceUpdateRequest();
+        cut.setIds(List.of(cheapId));
+        cut.setPercent(new BigDecimal("-60"));
+        BulkUpdateResult cutResult = bulkUpdateService.updatePrices(cut);
+
+        // Then: 1.99 * 1.1 = 2.189 rounds to 2.19; 0.01 * 0.4 would round to 0.00 and is left alone
+        assertEquals(1, raised.getAffectedRows());
+        assertEquals(0, new BigDecimal("2.19").compareTo(priceOf(roundedId)));
+        assertEquals(0, cutResult.getAffectedRows());
+        assertEquals(0, new BigDecimal("0.01").compareTo(priceOf(cheapId)));
+        assertEquals(1, bulkChanges.published.size());
+    }
+
+    @Test
+    void testSubtreeTargetsDescendantsOnly() {
+        // Given
+        Integer drinks = categoryService.createCategory(new CategoryRequest("Bulk drinks", null)).getId();
+        Integer juice = categoryService.createCategory(new CategoryRequest("Bulk juice", drinks)).getId();
+        Integer snacks = categoryService.createCategory(new CategoryRequest("Bulk snacks", null)).getId();
+        Long cola = createProduct("Bulk cola", "1.00", 5, drinks);
+        Long orangeJuice = createProduct("Bulk orange juice", "2.00", 5, juice);
+        Long crisps = createProduct("Bulk crisps", "1.50", 5, snacks);
+
+        // When
+        BulkPriceUpdateRequest request = new BulkPriceUpdateRequest();
+        request.setCategoryId(drinks);
+        request.setAmount(new BigDecimal("0.25"));
+        BulkUpdateResult result = bulkUpdateService.updatePrices(request);
+
+        // Then
+        assertEquals(2, result.getAffectedRows());
+        assertEquals(0, new BigDecimal("1.25").compareTo(priceOf(cola)));
+        assertEquals(0, new BigDecimal("2.25").compareTo(priceOf(orangeJuice)));
+        assertEquals(0, new BigDecimal("1.50").compareTo(priceOf(crisps)));
+    }
+
+    @Test
+    void testPriceRequestNeedsExactlyOneTarget() {
+        // Given
+        BulkPriceUpdateRequest request = new BulkPriceUpdateRequest();
+        request.setCategory("Dairy");
+        request.setIds(List.of(1L));
+        request.setAmount(BigDecimal.ONE);
+
+        // When / Then
+        assertThrows(RuntimeException.class, () -> bulkUpdateService.updatePrices(request));
+        assertTrue(bulkChanges.published.isEmpty());
+    }
+
+    private BulkUpdateResult updateStock(String body, StockMode mode) throws IOException {
+        return updateStock(body, CatalogFormat.CSV, mode);
+    }
+
+    private BulkUpdateResult updateStock(String body, CatalogFormat format, StockMode mode) throws IOException {
+        return bulkUpdateService.updateStock(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format, mode);
+    }
+
+    private void reserve(Long productId, int quantity) {
+        jdbcTemplate.update("UPDATE products SET reserved_quantity = ? WHERE id = ?", quantity, productId);
+    }
+
+    private int stockOf(Long productId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT stock_quantity FROM products WHERE id = ?", Integer.class, productId);
+    }
+
+    private BigDecimal priceOf(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT price FROM products WHERE id = ?", BigDecimal.class, productId);
+    }
+
+    private Long createProduct(String name, String price, int stock, Integer categoryId) {
+        ProductRequest request = new ProductRequest(name, null, "each", new BigDecimal(price), stock);
+        request.setCategoryId(categoryId);
+        return productService.createProduct(request).getId();
+    }
+}
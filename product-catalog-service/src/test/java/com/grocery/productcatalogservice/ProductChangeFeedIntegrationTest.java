@@ -0,0 +1,144 @@
+package com.grocery.productcatalogservice;
+
+import com.grocery.productcatalogservice.dto.CatalogFormat;
+import com.grocery.productcatalogservice.dto.CursorPage;
+import com.grocery.productcatalogservice.dto.ProductChangeResponse;
+import com.grocery.productcatalogservice.dto.ProductRequest;
+import com.grocery.productcatalogservice.service.ProductBulkUpdateService;
+import com.grocery.productcatalogservice.service.ProductBulkUpdateService.StockMode;
+import com.grocery.productcatalogservice.service.ProductChangeFeedService;
+import com.grocery.productcatalogservice.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A feed reader must never step past a change whose transaction commits after a later one
+@SpringBootTest(properties = {
+        "spring.config.import=optional:configserver:",
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=update"
+})
+@Testcontainers
+class ProductChangeFeedIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("product_catalog_test_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private ProductChangeFeedService changeFeedService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductBulkUpdateService bulkUpdateService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testReaderDoesNotSkipLateCommittingChange() throws Exception {
+        // Given
+        Long earlyId = createProduct("Early writer");
+        Long lateId = createProduct("Late writer");
+        String cursor = changeFeedService.getHeadCursor();
+
+        // When: the first writer takes its transaction id, then a second writer commits before it
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> slowWriter = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    reprice(earlyId, "2.49");
+                    written.countDown();
+                    try {
+                        release.await(30, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertTrue(written.await(30, TimeUnit.SECONDS));
+        reprice(lateId, "3.49");
+        CursorPage<ProductChangeResponse> whileOpen = changeFeedService.getChanges(cursor, 100);
+
+        release.countDown();
+        slowWriter.get(30, TimeUnit.SECONDS);
+        CursorPage<ProductChangeResponse> afterCommit = changeFeedService.getChanges(whileOpen.getNextCursor(), 100);
+
+        // Then: the committed later change is held back until the older transaction ends, so
+        // resuming from the cursor returned meanwhile still delivers both, in transaction order
+        assertFalse(productIds(whileOpen).contains(lateId));
+        assertEquals(List.of(earlyId, lateId), productIds(afterCommit));
+    }
+
+    @Test
+    void testBulkWriteRecordsOnlyTheRowsItWrote() throws Exception {
+        // Given
+        Long repricedId = createProduct("Repriced alongside");
+        Long restockedId = createProduct("Restocked in bulk");
+        String cursor = changeFeedService.getHeadCursor();
+
+        // When: one transaction writes a product through the service, then a stock file touches another
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            reprice(repricedId, "2.49");
+            try {
+                bulkUpdateService.updateStock(new ByteArrayInputStream(
+                        ("id,quantity\n" + restockedId + ",25\n").getBytes(StandardCharsets.UTF_8)),
+                        CatalogFormat.CSV, StockMode.SET);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        // Then: each row is in the feed once; the repriced row shares updated_at but was not written in bulk
+        List<Long> recorded = productIds(changeFeedService.getChanges(cursor, 100));
+        assertEquals(1, recorded.stream().filter(repricedId::equals).count());
+        assertEquals(1, recorded.stream().filter(restockedId::equals).count());
+    }
+
+    private void reprice(Long productId, String price) {
+        ProductRequest request = new ProductRequest();
+        request.setPrice(new BigDecimal(price));
+        productService.updateProduct(productId, request);
+    }
+
+    private List<Long> productIds(CursorPage<ProductChangeResponse> page) {
+        return page.getContent().stream()
+                .map(ProductChangeResponse::getProductId)
+                .collect(Collectors.toList());
+    }
+
+    private Long createProduct(String name) {
+        return productService.createProduct(
+                new ProductRequest(name, null, "each", new BigDecimal("1.99"), 10)).getId();
+    }
+}
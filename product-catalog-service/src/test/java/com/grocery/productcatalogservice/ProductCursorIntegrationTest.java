@@ -0,0 +1,166 @@
+package com.grocery.productcatalogservice;
+
+import com.grocery.productcatalogservice.dto.CursorPage;
+import com.grocery.productcatalogservice.dto.ProductRequest;
+import com.grocery.productcatalogservice.dto.ProductSummary;
+import com.grocery.productcatalogservice.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.config.import=optional:configserver:",
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=update"
+})
+@AutoConfigureMockMvc
+@Testcontainers
+class ProductCursorIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("product_catalog_test_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testCursorEncodesSortKeyValueAndId() {
+        // Given
+        createProduct("Cursor encoded", "4.25");
+
+        // When
+        CursorPage<ProductSummary> page = productService.getProductsAfter(null, 1, "price", false);
+
+        // Then: the cursor is the url-safe base64 of "sort|value|id" of the last row on the page
+        ProductSummary last = page.getContent().get(0);
+        String raw = new String(Base64.getUrlDecoder().decode(page.getNextCursor()), StandardCharsets.UTF_8);
+        assertEquals("price|" + last.getPrice().toPlainString() + "|" + last.getId(), raw);
+    }
+
+    @Test
+    void testNameCursorSeeksPastEqualNamesById() {
+        // Given: two products share a name, so the id breaks the tie
+        Long firstTwin = createProduct("Cursor name b", "1.00");
+        Long secondTwin = createProduct("Cursor name b", "1.00");
+        Long before = createProduct("Cursor name a", "1.00");
+        Long after = createProduct("Cursor name c", "1.00");
+
+        // When
+        List<Long> walked = walk("name", 1);
+
+        // Then
+        assertEquals(List.of(before, firstTwin, secondTwin, after), only(walked, before, firstTwin, secondTwin, after));
+    }
+
+    @Test
+    void testPriceCursorSeeksPastEqualPricesById() {
+        // Given
+        Long firstTwin = createProduct("Cursor twin one", "7.77");
+        Long secondTwin = createProduct("Cursor twin two", "7.77");
+        Long cheaper = createProduct("Cursor cheaper", "7.76");
+        Long dearer = createProduct("Cursor dearer", "7.78");
+
+        // When
+        List<Long> walked = walk("price", 2);
+
+        // Then
+        assertEquals(List.of(cheaper, firstTwin, secondTwin, dearer),
+                only(walked, cheaper, firstTwin, secondTwin, dearer));
+    }
+
+    @Test
+    void testTotalIsOnlyCountedWhenAsked() {
+        // Given
+        createProduct("Cursor counted", "2.00");
+        Long deletedId = createProduct("Cursor deleted", "2.00");
+        productService.deleteProduct(deletedId);
+
+        // When
+        CursorPage<ProductSummary> counted = productService.getProductsAfter(null, 1, "name", true);
+        CursorPage<ProductSummary> uncounted = productService.getProductsAfter(null, 1, "name", false);
+
+        // Then: the total matches a full walk, which skips the deleted product
+        List<Long> walked = walk("name", 50);
+        assertEquals(Long.valueOf(walked.size()), counted.getTotalElements());
+        assertFalse(walked.contains(deletedId));
+        assertNull(uncounted.getTotalElements());
+    }
+
+    @Test
+    void testCursorOfAnotherSortKeyIsRejected() {
+        // Given
+        createProduct("Cursor mismatched", "3.00");
+        String nameCursor = productService.getProductsAfter(null, 1, "name", false).getNextCursor();
+        createProduct("Cursor mismatched too", "3.00");
+
+        // When / Then
+        assertThrows(RuntimeException.class, () -> productService.getProductsAfter(nameCursor, 1, "price", false));
+        assertThrows(RuntimeException.class, () -> productService.getProductsAfter("not a cursor", 1, "name", false));
+        assertThrows(RuntimeException.class, () -> productService.getProductsAfter(null, 1, "stock", false));
+    }
+
+    @Test
+    void testPageSizeOutsideBoundsIsRejected() throws Exception {
+        // When / Then: size + 1 would overflow for Integer.MAX_VALUE
+        mockMvc.perform(get("/api/products/cursor").param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products/cursor").param("size", String.valueOf(Integer.MAX_VALUE)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products/cursor").param("size", String.valueOf(ProductService.CURSOR_MAX_SIZE)))
+                .andExpect(status().isOk());
+        assertThrows(RuntimeException.class,
+                () -> productService.getProductsAfter(null, Integer.MAX_VALUE, "id", false));
+    }
+
+    // Follows nextCursor to the end and returns every id in page order
+    private List<Long> walk(String sort, int size) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<ProductSummary> page = productService.getProductsAfter(cursor, size, sort, false);
+            page.getContent().forEach(product -> ids.add(product.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private static List<Long> only(List<Long> walked, Long... ids) {
+        List<Long> wanted = List.of(ids);
+        return walked.stream().filter(wanted::contains).toList();
+    }
+
+    private Long createProduct(String name, String price) {
+        return productService.createProduct(
+                new ProductRequest(name, null, "each", new BigDecimal(price), 5)).getId();
+    }
+}
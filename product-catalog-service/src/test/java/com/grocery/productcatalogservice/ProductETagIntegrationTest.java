@@ -0,0 +1,171 @@
+package com.grocery.productcatalogservice;
+
+import com.grocery.productcatalogservice.dto.BulkPriceUpdateRequest;
+import com.grocery.productcatalogservice.dto.CategoryRequest;
+import com.grocery.productcatalogservice.dto.ProductRequest;
+import com.grocery.productcatalogservice.service.CategoryService;
+import com.grocery.productcatalogservice.service.ProductBulkUpdateService;
+import com.grocery.productcatalogservice.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.config.import=optional:configserver:",
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=update"
+})
+@AutoConfigureMockMvc
+@Testcontainers
+class ProductETagIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("product_catalog_test_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductBulkUpdateService bulkUpdateService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Test
+    void testMatchingTagIsAnsweredWithNotModified() throws Exception {
+        // Given
+        Long productId = createProduct("Tagged milk", null);
+        String etag = etagOf("/api/products/" + productId);
+
+        // When / Then: weak and wildcard tags match as well, an unrelated tag does not
+        mockMvc.perform(get("/api/products/" + productId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/products/" + productId).header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/products/" + productId).header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/products/" + productId).header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testTagChangesWhenProductIsUpdated() throws Exception {
+        // Given
+        Long productId = createProduct("Updated butter", null);
+        String before = etagOf("/api/products/" + productId);
+
+        // When
+        ProductRequest reprice = new ProductRequest();
+        reprice.setPrice(new BigDecimal("3.29"));
+        productService.updateProduct(productId, reprice);
+
+        // Then
+        assertNotModifiedOnlyFor("/api/products/" + productId, before);
+    }
+
+    @Test
+    void testTagChangesAfterBulkPriceUpdate() throws Exception {
+        // Given
+        Long productId = createProduct("Bulk priced cheese", null);
+        String before = etagOf("/api/products/" + productId);
+
+        // When: the update is one SQL statement, not a save through the entity
+        BulkPriceUpdateRequest request = new BulkPriceUpdateRequest();
+        request.setIds(List.of(productId));
+        request.setAmount(new BigDecimal("0.50"));
+        bulkUpdateService.updatePrices(request);
+
+        // Then
+        assertNotModifiedOnlyFor("/api/products/" + productId, before);
+    }
+
+    @Test
+    void testTagChangesAfterCategoryRename() throws Exception {
+        // Given
+        Integer categoryId = categoryService.createCategory(new CategoryRequest("Tagged bakery", null)).getId();
+        Long productId = createProduct("Renamed loaf", categoryId);
+        String before = etagOf("/api/products/" + productId);
+
+        // When: the rename rewrites the denormalized category name on every product in it
+        categoryService.renameCategory(categoryId, new CategoryRequest("Tagged breads", null));
+
+        // Then
+        assertNotModifiedOnlyFor("/api/products/" + productId, before);
+    }
+
+    @Test
+    void testListTagCoversPageMetadataAndEveryVersion() throws Exception {
+        // Given
+        Integer categoryId = categoryService.createCategory(new CategoryRequest("Tagged pantry", null)).getId();
+        createProduct("Listed rice", categoryId);
+        Long pastaId = createProduct("Listed pasta", categoryId);
+        String category = etagOf("/api/products/category/Tagged pantry");
+        String firstPage = etagOf("/api/products?page=0&size=1");
+
+        // When
+        String widerPage = etagOf("/api/products?page=0&size=2");
+        ProductRequest reprice = new ProductRequest();
+        reprice.setPrice(new BigDecimal("1.79"));
+        productService.updateProduct(pastaId, reprice);
+
+        // Then: a different page size is a different representation, and any version bump retags the list
+        assertNotEquals(firstPage, widerPage);
+        assertNotModifiedOnlyFor("/api/products/category/Tagged pantry", category);
+    }
+
+    // The old tag no longer matches, and the new one does
+    private void assertNotModifiedOnlyFor(String path, String staleTag) throws Exception {
+        String currentTag = etagOf(path);
+        assertNotEquals(staleTag, currentTag);
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, staleTag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, currentTag))
+                .andExpect(status().isNotModified());
+    }
+
+    private String etagOf(String path) throws Exception {
+        String etag = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+
+    private Long createProduct(String name, Integer categoryId) {
+        ProductRequest request = new ProductRequest(name, null, "each", new BigDecimal("2.99"), 10);
+        request.setCategoryId(categoryId);
+        return productService.createProduct(request).getId();
+    }
+}
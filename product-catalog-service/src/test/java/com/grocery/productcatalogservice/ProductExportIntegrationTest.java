@@ -0,0 +1,165 @@
+package com.grocery.productcatalogservice;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grocery.productcatalogservice.dto.ProductRequest;
+import com.grocery.productcatalogservice.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.config.import=optional:configserver:",
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=update",
+        "product.export.fetch-size=1"
+})
+@AutoConfigureMockMvc
+@Testcontainers
+class ProductExportIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("product_catalog_test_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testCsvExportOfOneCategoryIsGzippedAndQuoted() throws Exception {
+        // Given
+        Long cheeseId = createProduct("Export cheddar", "Aged 12 months, \"extra\" sharp", "Export cheese");
+        createProduct("Export baguette", null, "Export bread");
+
+        // When
+        List<String> lines = export(get("/api/products/export").param("format", "csv").param("category", "Export cheese"),
+                "text/csv", "products.csv.gz");
+
+        // Then: header plus the one product; commas and quotes in a value are quoted
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("id,name,description,unit,price,"));
+        assertTrue(lines.get(1).startsWith(cheeseId + ",Export cheddar,\"Aged 12 months, \"\"extra\"\" sharp\",each,4.50,"));
+    }
+
+    @Test
+    void testNdjsonExportIncludesDeactivatedProducts() throws Exception {
+        // Given
+        Long yogurtId = createProduct("Export yogurt", "Plain", "Export dairy");
+        Long kefirId = createProduct("Export kefir", "Cultured", "Export dairy");
+        productService.deleteProduct(kefirId);
+
+        // When
+        List<String> lines = export(get("/api/products/export").param("category", "Export dairy"),
+                "application/x-ndjson", "products.ndjson.gz");
+
+        // Then: rows come in id order, one JSON object per line
+        assertEquals(2, lines.size());
+        JsonNode yogurt = objectMapper.readTree(lines.get(0));
+        JsonNode kefir = objectMapper.readTree(lines.get(1));
+        assertEquals(yogurtId, yogurt.get("id").asLong());
+        assertEquals("Plain", yogurt.get("description").asText());
+        assertTrue(yogurt.get("isActive").asBoolean());
+        assertEquals(kefirId, kefir.get("id").asLong());
+        assertFalse(kefir.get("isActive").asBoolean());
+    }
+
+    @Test
+    void testUpdatedSinceLeavesOutOlderRows() throws Exception {
+        // Given
+        createProduct("Export old jam", null, "Export preserves");
+        Long freshId = createProduct("Export fresh jam", null, "Export preserves");
+        jdbcTemplate.update("UPDATE products SET updated_at = ? WHERE name = ?",
+                Timestamp.valueOf(LocalDateTime.of(2020, 1, 1, 0, 0)), "Export old jam");
+
+        // When
+        List<String> lines = export(get("/api/products/export")
+                        .param("category", "Export preserves")
+                        .param("updatedSince", "2021-01-01T00:00:00"),
+                "application/x-ndjson", "products.ndjson.gz");
+
+        // Then
+        assertEquals(1, lines.size());
+        assertEquals(freshId, objectMapper.readTree(lines.get(0)).get("id").asLong());
+    }
+
+    // Runs the streaming export and returns the decompressed body line by line
+    private List<String> export(MockHttpServletRequestBuilder exportRequest, String contentType, String fileName)
+            throws Exception {
+        MvcResult started = mockMvc.perform(exportRequest)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(contentType))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\""))
+                .andReturn().getResponse().getContentAsByteArray();
+        return gunzipLines(body);
+    }
+
+    private static List<String> gunzipLines(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            List<String> lines = new ArrayList<>();
+            for (String line : text.split("\n")) {
+                if (!line.isEmpty()) {
+                    lines.add(line);
+                }
+            }
+            return lines;
+        }
+    }
+
+    private Long createProduct(String name, String description, String category) {
+        ProductRequest request = new ProductRequest(name, description, "each", new BigDecimal("4.50"), 10);
+        request.setCategory(category);
+        return productService.createProduct(request).getId();
+    }
+}
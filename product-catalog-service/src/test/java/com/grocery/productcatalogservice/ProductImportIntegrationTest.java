@@ -0,0 +1,106 @@
+package com.grocery.productcatalogservice;
+
+import com.grocery.productcatalogservice.dto.CatalogFormat;
+import com.grocery.productcatalogservice.dto.ImportResult;
+import com.grocery.productcatalogservice.service.ProductImportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.config.import=optional:configserver:",
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=update"
+})
+@Testcontainers
+class ProductImportIntegrationTest {
+
+    private static final String HEADER = "name,unit,price,stockQuantity,sku\n";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("product_catalog_test_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testReimportUpdatesBySku() throws IOException {
+        // Given
+        importCsv("Oat milk,1 L,1.99,10,SKU-OAT-1\nRye bread,500 g,2.49,5,SKU-RYE-1\n");
+
+        // When
+        ImportResult result = importCsv("Oat milk,1 L,2.19,12,SKU-OAT-1\nRye bread,500 g,2.49,4,SKU-RYE-1\n");
+
+        // Then
+        assertEquals(0, result.getInserted());
+        assertEquals(2, result.getUpdated());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM products WHERE sku = 'SKU-OAT-1'", Integer.class));
+        assertEquals(0, new BigDecimal("2.19").compareTo(jdbcTemplate.queryForObject(
+                "SELECT price FROM products WHERE sku = 'SKU-OAT-1'", BigDecimal.class)));
+    }
+
+    @Test
+    void testImportKeepsStockAboveReserved() throws IOException {
+        // Given
+        importCsv("Butter,250 g,3.49,5,SKU-BUTTER-1\n");
+        jdbcTemplate.update("UPDATE products SET reserved_quantity = 3 WHERE sku = 'SKU-BUTTER-1'");
+
+        // When
+        importCsv("Butter,250 g,3.49,1,SKU-BUTTER-1\n");
+
+        // Then
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT stock_quantity FROM products WHERE sku = 'SKU-BUTTER-1'", Integer.class));
+    }
+
+    @Test
+    void testRowRejectedByDatabaseFailsAlone() throws IOException {
+        // Given: the middle row passes validation but overflows numeric(10, 2)
+        String rows = "Apples,1 kg,2.99,20,SKU-APPLE-1\n" +
+                "Truffle,100 g,123456789012.00,1,SKU-TRUFFLE-1\n" +
+                "Pears,1 kg,3.29,15,SKU-PEAR-1\n";
+
+        // When
+        ImportResult result = importCsv(rows);
+
+        // Then
+        assertEquals(2, result.getInserted());
+        assertEquals(1, result.getFailed());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(3, result.getErrors().get(0).getRow());
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM products WHERE sku IN ('SKU-APPLE-1', 'SKU-PEAR-1')", Integer.class));
+    }
+
+    private ImportResult importCsv(String rows) throws IOException {
+        return productImportService.importProducts(
+                new ByteArrayInputStream((HEADER + rows).getBytes(StandardCharsets.UTF_8)), CatalogFormat.CSV);
+    }
+}
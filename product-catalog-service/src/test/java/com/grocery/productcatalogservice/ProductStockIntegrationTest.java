@@ -0,0 +1,162 @@
+package com.grocery.productcatalogservice;
+
+import com.grocery.productcatalogservice.dto.ProductRequest;
+import com.grocery.productcatalogservice.dto.ProductResponse;
+import com.grocery.productcatalogservice.dto.StockDecrementRequest;
+import com.grocery.productcatalogservice.service.InsufficientStockException;
+import com.grocery.productcatalogservice.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.config.import=optional:configserver:",
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=update"
+})
+@Testcontainers
+class ProductStockIntegrationTest {
+
+    private static final int THREADS = 8;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("product_catalog_test_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testSoldOutProductCanBeRepriced() {
+        // Given
+        Long productId = createProduct("Sold-out milk", 1);
+        productService.updateStockQuantity(productId, 1);
+
+        // When
+        ProductRequest reprice = new ProductRequest();
+        reprice.setPrice(new BigDecimal("2.49"));
+        ProductResponse updated = productService.updateProduct(productId, reprice);
+
+        // Then
+        assertEquals(0, updated.getStockQuantity());
+        assertEquals(new BigDecimal("2.49"), updated.getPrice());
+    }
+
+    @Test
+    void testSoldOutProductCanBeDeleted() {
+        // Given
+        Long productId = createProduct("Sold-out bread", 1);
+        productService.updateStockQuantity(productId, 1);
+
+        // When
+        productService.deleteProduct(productId);
+
+        // Then
+        assertFalse(jdbcTemplate.queryForObject(
+                "SELECT is_active FROM products WHERE id = ?", Boolean.class, productId));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT stock_quantity FROM products WHERE id = ?", Integer.class, productId));
+    }
+
+    @Test
+    void testConcurrentCheckoutsSellLastUnitOnce() throws Exception {
+        // Given
+        Long productId = createProduct("Last loaf", 1);
+
+        // When
+        int sold = race(() -> productService.updateStockQuantity(productId, 1));
+
+        // Then
+        assertEquals(1, sold);
+        assertEquals(0, stockOf(productId));
+    }
+
+    @Test
+    void testConcurrentBatchCheckoutsSellLastUnitsOnce() throws Exception {
+        // Given
+        Long milkId = createProduct("Last milk", 1);
+        Long eggsId = createProduct("Last eggs", 1);
+        AtomicInteger turn = new AtomicInteger();
+
+        // When: every order wants both products, half of them listing the lines in reverse
+        int sold = race(() -> {
+            List<StockDecrementRequest> lines = turn.getAndIncrement() % 2 == 0
+                    ? List.of(new StockDecrementRequest(milkId, 1), new StockDecrementRequest(eggsId, 1))
+                    : List.of(new StockDecrementRequest(eggsId, 1), new StockDecrementRequest(milkId, 1));
+            productService.decrementStock(lines);
+        });
+
+        // Then
+        assertEquals(1, sold);
+        assertEquals(0, stockOf(milkId));
+        assertEquals(0, stockOf(eggsId));
+    }
+
+    // Starts THREADS checkouts at once and returns how many went through
+    private int race(Runnable checkout) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        checkout.run();
+                        succeeded.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        // This checkout lost the race; any other error fails the test
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return succeeded.get();
+    }
+
+    private int stockOf(Long productId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT stock_quantity FROM products WHERE id = ?", Integer.class, productId);
+    }
+
+    private Long createProduct(String name, int stock) {
+        return productService.createProduct(
+                new ProductRequest(name, null, "each", new BigDecimal("1.99"), stock)).getId();
+    }
+}
@@ -0,0 +1,112 @@
+package com.grocery.productcatalogservice;
+
+import com.grocery.productcatalogservice.dto.CategoryRequest;
+import com.grocery.productcatalogservice.dto.ProductRequest;
+import com.grocery.productcatalogservice.service.CategoryService;
+import com.grocery.productcatalogservice.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Listings carry ProductSummary, which has no description; only the single-product read returns it
+@SpringBootTest(properties = {
+        "spring.config.import=optional:configserver:",
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=update"
+})
+@AutoConfigureMockMvc
+@Testcontainers
+class ProductSummaryIntegrationTest {
+
+    private static final String DESCRIPTION = "Stone-ground from heritage wheat, long description text";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("product_catalog_test_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    private Integer categoryId;
+
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        categoryId = categoryService.createCategory(new CategoryRequest("Summary flours " + System.nanoTime(), null)).getId();
+        ProductRequest request = new ProductRequest("Summary flour", DESCRIPTION, "each", new BigDecimal("2.19"), 10);
+        request.setCategoryId(categoryId);
+        productId = productService.createProduct(request).getId();
+    }
+
+    @Test
+    void testSingleProductKeepsDescription() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/api/products/" + productId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value(DESCRIPTION));
+    }
+
+    @Test
+    void testPagedListingsOmitDescription() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/api/products").param("size", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].id", hasItem(productId.intValue())))
+                .andExpect(jsonPath("$..description").isEmpty());
+        mockMvc.perform(get("/api/products/cursor").param("size", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].id", hasItem(productId.intValue())))
+                .andExpect(jsonPath("$..description").isEmpty());
+        mockMvc.perform(get("/api/products/search").param("q", "Summary flour"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].id", hasItem(productId.intValue())))
+                .andExpect(jsonPath("$..description").isEmpty());
+    }
+
+    @Test
+    void testCategoryListingsOmitDescription() throws Exception {
+        // Given
+        String category = productService.getProductById(productId).getCategory();
+
+        // When / Then
+        mockMvc.perform(get("/api/products/category/{category}", category))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", hasItem(productId.intValue())))
+                .andExpect(jsonPath("$..description").isEmpty());
+        mockMvc.perform(get("/api/categories/{id}/products", categoryId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].id", hasItem(productId.intValue())))
+                .andExpect(jsonPath("$..description").isEmpty());
+    }
+}
@@ -0,0 +1,150 @@
+package com.grocery.productcatalogservice;
+
+import com.grocery.productcatalogservice.dto.ProductRequest;
+import com.grocery.productcatalogservice.dto.StockDecrementRequest;
+import com.grocery.productcatalogservice.service.InsufficientStockException;
+import com.grocery.productcatalogservice.service.ProductService;
+import com.grocery.productcatalogservice.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Holds, commits and the expiry sweep must keep products.reserved_quantity equal to the live holds
+@SpringBootTest(properties = {
+        "spring.config.import=optional:configserver:",
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=update",
+        "product.reservation.sweep-batch-size=1"
+})
+@Testcontainers
+class ReservationIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("product_catalog_test_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testExpiredHoldRestoresReservedQuantity() {
+        // Given
+        Long productId = createProduct("Strawberries", 5);
+        reservationService.hold("expiry-owner", productId, 3);
+        assertEquals(3, reservedOf(productId));
+        backdateHolds("expiry-owner");
+
+        // When
+        reservationService.expireHolds();
+
+        // Then
+        assertEquals(0, reservedOf(productId));
+        assertEquals(5, stockOf(productId));
+        assertEquals("EXPIRED", statusOf("expiry-owner", productId));
+    }
+
+    @Test
+    void testConcurrentSweepsReleaseEachHoldOnce() {
+        // Given: one expired hold and one live hold on the same product
+        Long productId = createProduct("Blueberries", 10);
+        reservationService.hold("sweep-expired", productId, 2);
+        reservationService.hold("sweep-live", productId, 3);
+        backdateHolds("sweep-expired");
+
+        // When: two sweeps (as from two instances) walk the expired holds at once
+        CompletableFuture.allOf(
+                CompletableFuture.runAsync(reservationService::expireHolds),
+                CompletableFuture.runAsync(reservationService::expireHolds)
+        ).join();
+
+        // Then: SKIP LOCKED lets each hold be released exactly once, so the live hold stays reserved
+        assertEquals(3, reservedOf(productId));
+        assertEquals("EXPIRED", statusOf("sweep-expired", productId));
+        assertEquals("HELD", statusOf("sweep-live", productId));
+    }
+
+    @Test
+    void testCommitConsumesHoldOncePerOrder() {
+        // Given
+        Long productId = createProduct("Raspberries", 5);
+        reservationService.hold("commit-owner", productId, 2);
+        List<StockDecrementRequest> lines = List.of(new StockDecrementRequest(productId, 2));
+
+        // When: the order service replays its commit for the same order
+        reservationService.commit("commit-owner", 9001L, lines);
+        reservationService.commit("commit-owner", 9001L, lines);
+
+        // Then
+        assertEquals(3, stockOf(productId));
+        assertEquals(0, reservedOf(productId));
+        assertEquals("COMMITTED", statusOf("commit-owner", productId));
+    }
+
+    @Test
+    void testShortCommitIsRefusedWithoutClaimingTheOrder() {
+        // Given
+        Long productId = createProduct("Gooseberries", 1);
+        List<StockDecrementRequest> lines = List.of(new StockDecrementRequest(productId, 2));
+
+        // When / Then: a refusal is the only failure the order service treats as final
+        assertThrows(InsufficientStockException.class, () -> reservationService.commit("short-owner", 9002L, lines));
+        assertEquals(1, stockOf(productId));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_commits WHERE order_id = ?", Integer.class, 9002L));
+    }
+
+    private void backdateHolds(String ownerId) {
+        jdbcTemplate.update("UPDATE stock_reservations SET expires_at = ? WHERE owner_id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)), ownerId);
+    }
+
+    private int reservedOf(Long productId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT reserved_quantity FROM products WHERE id = ?", Integer.class, productId);
+    }
+
+    private int stockOf(Long productId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT stock_quantity FROM products WHERE id = ?", Integer.class, productId);
+    }
+
+    private String statusOf(String ownerId, Long productId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT status FROM stock_reservations WHERE owner_id = ? AND product_id = ?",
+                String.class, ownerId, productId);
+    }
+
+    private Long createProduct(String name, int stock) {
+        return productService.createProduct(
+                new ProductRequest(name, null, "each", new BigDecimal("3.49"), stock)).getId();
+    }
+}
@@ -0,0 +1,113 @@
+package com.grocery.productcatalogservice.service;
+
+import com.grocery.productcatalogservice.dto.CategoryResponse;
+import com.grocery.productcatalogservice.model.Category;
+import com.grocery.productcatalogservice.repository.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CategoryTreeTest {
+
+    private CategoryTree tree;
+
+    @BeforeEach
+    void setUp() {
+        CategoryRepository repository = mock(CategoryRepository.class);
+        when(repository.findAll()).thenReturn(List.of(
+                category(1, "Dairy", null, "/1/", 0),
+                category(4, "Milk", 1, "/1/4/", 1),
+                category(9, "Organic", 4, "/1/4/9/", 2),
+                category(12, "Lactose free", 4, "/1/4/12/", 2),
+                category(40, "Cheese", 1, "/1/40/", 1),
+                category(5, "Butter", 1, "/1/5/", 1),
+                category(39, "Yogurt", 1, "/1/39/", 1),
+                category(2, "Bakery", null, "/2/", 0),
+                category(7, "Organic", 2, "/2/7/", 1),
+                // Never finished being created
+                category(50, "Pending", 2, null, 1)));
+        tree = new CategoryTree();
+        ReflectionTestUtils.setField(tree, "categoryRepository", repository);
+        tree.reload();
+    }
+
+    @Test
+    void testUpperBoundCoversExactlyTheSubtree() {
+        // Given
+        CategoryTree.Node milk = tree.get(4);
+        String lower = milk.getPath();
+        String upper = milk.getPathUpperBound();
+
+        // Then
+        assertEquals("/1/40", upper);
+        assertTrue(inRange("/1/4/", lower, upper));
+        assertTrue(inRange("/1/4/9/", lower, upper));
+        assertTrue(inRange("/1/4/12/", lower, upper));
+        // Siblings whose ids share a prefix or sort next to 4 stay outside
+        assertFalse(inRange("/1/40/", lower, upper));
+        assertFalse(inRange("/1/39/", lower, upper));
+        assertFalse(inRange("/1/5/", lower, upper));
+        assertFalse(inRange("/1/", lower, upper));
+    }
+
+    @Test
+    void testRootUpperBoundExcludesOtherRoots() {
+        // Given
+        CategoryTree.Node dairy = tree.get(1);
+
+        // Then
+        assertEquals("/10", dairy.getPathUpperBound());
+        assertTrue(inRange("/1/40/", dairy.getPath(), dairy.getPathUpperBound()));
+        assertFalse(inRange("/2/7/", dairy.getPath(), dairy.getPathUpperBound()));
+        assertFalse(inRange("/10/", dairy.getPath(), dairy.getPathUpperBound()));
+    }
+
+    @Test
+    void testResolveByPathOrUniqueName() {
+        assertEquals(9, tree.resolve("dairy > milk > ORGANIC").getId());
+        assertEquals(7, tree.resolve("Bakery>Organic").getId());
+        assertEquals(12, tree.resolve("  Lactose free ").getId());
+        // Ambiguous, unknown and unfinished names resolve to nothing
+        assertNull(tree.resolve("Organic"));
+        assertNull(tree.resolve("Dairy > Organic"));
+        assertNull(tree.resolve("Pending"));
+        assertNull(tree.resolve(" "));
+    }
+
+    @Test
+    void testMenuIsSortedByName() {
+        // When
+        List<CategoryResponse> menu = tree.menu();
+
+        // Then
+        assertEquals(List.of("Bakery", "Dairy"), names(menu));
+        assertEquals(List.of("Butter", "Cheese", "Milk", "Yogurt"), names(menu.get(1).getChildren()));
+        assertEquals(List.of("Lactose free", "Organic"), names(menu.get(1).getChildren().get(2).getChildren()));
+        assertNull(tree.get(50));
+    }
+
+    private static boolean inRange(String path, String lower, String upper) {
+        return path.compareTo(lower) >= 0 && path.compareTo(upper) < 0;
+    }
+
+    private static List<String> names(List<CategoryResponse> categories) {
+        return categories.stream().map(CategoryResponse::getName).collect(Collectors.toList());
+    }
+
+    private static Category category(Integer id, String name, Integer parentId, String path, int depth) {
+        Category category = new Category();
+        category.setId(id);
+        category.setName(name);
+        category.setParentId(parentId);
+        category.setPath(path);
+        category.setDepth(depth);
+        return category;
+    }
+}
@@ -0,0 +1,144 @@
+package com.grocery.productcatalogservice.service;
+
+import com.grocery.productcatalogservice.event.ProductsOrderedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PopularityTrackerTest {
+
+    private ProductSuggester suggester;
+    private PopularityTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        suggester = new ProductSuggester(10);
+        // Three one-minute buckets, orders weighted 5x, at most 2 results (8 candidates)
+        tracker = tracker(Duration.ofMinutes(3), 2);
+    }
+
+    @Test
+    void testViewsAndWeightedOrdersAddUp() {
+        // When
+        tracker.recordView(1L);
+        tracker.recordView(1L);
+        tracker.onProductsOrdered(new ProductsOrderedEvent(Map.of(1L, 3, 2L, 1)));
+
+        // Then
+        assertEquals(17, tracker.estimate(1L));
+        assertEquals(5, tracker.estimate(2L));
+        assertEquals(0, tracker.estimate(3L));
+        assertEquals(Map.of(1L, 17L, 2L, 5L), tracker.top(10));
+    }
+
+    @Test
+    void testCountsExpireOnceTheirBucketLeavesTheWindow() {
+        // Given
+        tracker.recordView(1L);
+        tracker.advance();
+        tracker.recordView(2L);
+        tracker.recordView(2L);
+
+        // When: the window slides past the first bucket only
+        tracker.advance();
+        tracker.advance();
+
+        // Then
+        assertEquals(0, tracker.estimate(1L));
+        assertEquals(2, tracker.estimate(2L));
+        assertEquals(Map.of(2L, 2L), tracker.top(10));
+
+        // When: the second bucket leaves too
+        tracker.advance();
+
+        // Then
+        assertEquals(0, tracker.estimate(2L));
+        assertTrue(tracker.top(10).isEmpty());
+    }
+
+    @Test
+    void testWindowShorterThanBucketKeepsTwoBuckets() {
+        // Given
+        PopularityTracker shortWindow = tracker(Duration.ofSeconds(10), 2);
+        shortWindow.recordView(1L);
+
+        // When / Then: counts survive exactly one slide
+        shortWindow.advance();
+        assertEquals(1, shortWindow.estimate(1L));
+        shortWindow.advance();
+        assertEquals(0, shortWindow.estimate(1L));
+    }
+
+    @Test
+    void testTopIsOrderedByScoreThenIdAndLimited() {
+        // Given
+        tracker.record(3L, 4);
+        tracker.record(1L, 4);
+        tracker.record(2L, 9);
+
+        // When / Then
+        assertEquals(List.of(2L, 1L, 3L), List.copyOf(tracker.top(10).keySet()));
+        assertEquals(List.of(2L, 1L), List.copyOf(tracker.top(2).keySet()));
+    }
+
+    @Test
+    void testFullCandidateSetAdmitsOnlyStrongerProducts() {
+        // Given: 8 candidates with scores 10..17
+        for (long id = 1; id <= 8; id++) {
+            tracker.record(id, 9 + id);
+        }
+
+        // When
+        tracker.record(100L, 5);
+        tracker.record(200L, 20);
+
+        // Then: the weak newcomer is not tracked, the strong one displaces the weakest
+        Map<Long, Long> top = tracker.top(20);
+        assertEquals(8, top.size());
+        assertFalse(top.containsKey(100L));
+        assertFalse(top.containsKey(1L));
+        assertEquals(20L, top.get(200L));
+    }
+
+    @Test
+    void testTrackedProductThatGrewIsNotDisplaced() {
+        // Given: 8 candidates with scores 10..17, then the weakest one keeps being viewed
+        for (long id = 1; id <= 8; id++) {
+            tracker.record(id, 9 + id);
+        }
+        tracker.record(1L, 10);
+
+        // When
+        tracker.record(300L, 15);
+
+        // Then: the stale root is rescored first, so the next weakest makes room instead
+        Map<Long, Long> top = tracker.top(20);
+        assertEquals(20L, top.get(1L));
+        assertEquals(15L, top.get(300L));
+        assertFalse(top.containsKey(2L));
+    }
+
+    @Test
+    void testAdvanceHandsScoresToSuggester() {
+        // Given
+        tracker.record(7L, 3);
+
+        // When
+        tracker.advance();
+
+        // Then
+        assertEquals(Map.of(7L, 3L), ReflectionTestUtils.getField(suggester, "popularity"));
+    }
+
+    private PopularityTracker tracker(Duration window, int maxResults) {
+        PopularityTracker created = new PopularityTracker(2048, window, 60_000, 5, maxResults);
+        ReflectionTestUtils.setField(created, "productSuggester", suggester);
+        return created;
+    }
+}
@@ -0,0 +1,167 @@
+package com.grocery.productcatalogservice.service;
+
+import com.grocery.productcatalogservice.dto.ProductResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCacheTest {
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testHitsAndMissesAreCounted() {
+        // Given
+        ProductCache cache = cache(10, Duration.ofMinutes(5));
+        cache.put(1L, product(1L), cache.beginLoad(1L));
+
+        // When
+        ProductResponse hit = cache.get(1L);
+        ProductResponse miss = cache.get(2L);
+
+        // Then
+        assertEquals(1L, hit.getId());
+        assertNull(miss);
+        assertEquals(1.0, requests("hit"));
+        assertEquals(1.0, requests("miss"));
+    }
+
+    @Test
+    void testEvictedIdIsNoLongerServed() {
+        // Given
+        ProductCache cache = cache(10, Duration.ofMinutes(5));
+        cache.put(1L, product(1L), cache.beginLoad(1L));
+        cache.put(2L, product(2L), cache.beginLoad(2L));
+
+        // When
+        cache.evict(1L);
+        cache.evictAll(List.of(2L, 3L));
+
+        // Then
+        assertNull(cache.get(1L));
+        assertNull(cache.get(2L));
+        assertEquals(0, cache.size());
+        assertEquals(2.0, evictions("explicit"));
+    }
+
+    @Test
+    void testLoadStartedBeforeEvictionOfSameIdIsNotStored() {
+        // Given
+        ProductCache cache = cache(10, Duration.ofMinutes(5));
+        long staleToken = cache.beginLoad(1L);
+
+        // When: a write evicts the id while the read is still loading the old row
+        cache.evict(1L);
+        cache.put(1L, product(1L), staleToken);
+
+        // Then
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void testEvictionOfOtherIdDoesNotDiscardLoad() {
+        // Given
+        ProductCache cache = cache(10, Duration.ofMinutes(5));
+        long token = cache.beginLoad(1L);
+
+        // When
+        cache.evict(2L);
+        cache.put(1L, product(1L), token);
+
+        // Then
+        assertNotNull(cache.get(1L));
+    }
+
+    @Test
+    void testClearDiscardsEveryLoadInFlight() {
+        // Given
+        ProductCache cache = cache(10, Duration.ofMinutes(5));
+        cache.put(1L, product(1L), cache.beginLoad(1L));
+        long token = cache.beginLoad(2L);
+
+        // When
+        cache.clear();
+        cache.put(2L, product(2L), token);
+
+        // Then
+        assertEquals(0, cache.size());
+        assertEquals(1.0, evictions("explicit"));
+    }
+
+    @Test
+    void testSizeEvictionSparesRecentlyReadEntries() {
+        // Given
+        ProductCache cache = cache(2, Duration.ofMinutes(5));
+        cache.put(1L, product(1L), cache.beginLoad(1L));
+        cache.put(2L, product(2L), cache.beginLoad(2L));
+        cache.get(1L);
+
+        // When
+        cache.put(3L, product(3L), cache.beginLoad(3L));
+
+        // Then
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(1L));
+        assertNull(cache.get(2L));
+        assertNotNull(cache.get(3L));
+        assertEquals(1.0, evictions("size"));
+    }
+
+    @Test
+    void testExpiredEntryIsDroppedOnRead() {
+        // Given
+        ProductCache cache = cache(10, Duration.ZERO);
+        cache.put(1L, product(1L), cache.beginLoad(1L));
+
+        // When
+        ProductResponse read = cache.get(1L);
+
+        // Then
+        assertNull(read);
+        assertEquals(0, cache.size());
+        assertEquals(1.0, evictions("expired"));
+        assertEquals(1.0, requests("miss"));
+    }
+
+    @Test
+    void testDisabledCacheStoresNothing() {
+        // Given
+        ProductCache cache = new ProductCache(meterRegistry, false, 10, Duration.ofMinutes(5));
+
+        // When
+        cache.put(1L, product(1L), cache.beginLoad(1L));
+
+        // Then
+        assertNull(cache.get(1L));
+        assertEquals(0, cache.size());
+    }
+
+    private ProductCache cache(int maxSize, Duration ttl) {
+        return new ProductCache(meterRegistry, true, maxSize, ttl);
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("product.cache.requests").tag("result", result).counter().count();
+    }
+
+    private double evictions(String cause) {
+        return meterRegistry.get("product.cache.evictions").tag("cause", cause).counter().count();
+    }
+
+    private static ProductResponse product(Long id) {
+        return new ProductResponse(id, "Product " + id, null, "each", new BigDecimal("1.99"), null, 10,
+                "Pantry", null, true, null, null, 0L);
+    }
+}
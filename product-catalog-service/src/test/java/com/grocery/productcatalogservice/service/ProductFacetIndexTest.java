@@ -0,0 +1,171 @@
+package com.grocery.productcatalogservice.service;
+
+import com.grocery.productcatalogservice.dto.FacetSearchResult;
+import com.grocery.productcatalogservice.dto.ProductSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductFacetIndexTest {
+
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductFacetIndex(
+                List.of(new BigDecimal("1"), new BigDecimal("2"), new BigDecimal("5"), new BigDecimal("10"),
+                        new BigDecimal("20")),
+                List.of(3, 7, 14, 30));
+        index.index(product(1L, "Dairy", "1.50", 5, 7));
+        index.index(product(2L, "Dairy", "3.00", 0, 10));
+        index.index(product(3L, "Bakery", "3.50", 2, 3));
+    }
+
+    @Test
+    void testCountsIgnoreOwnFacetSelection() {
+        // When
+        FacetSearchResult result = index.search(Map.of(ProductFacetIndex.CATEGORY, List.of("Dairy")), 0, 10);
+
+        // Then: sibling categories keep their counts, other facets count only the matches
+        assertEquals(List.of(1L, 2L), ids(result));
+        assertEquals(Map.of("Bakery", 1, "Dairy", 2), result.getFacets().get(ProductFacetIndex.CATEGORY));
+        assertEquals(Map.of("1-2", 1, "2-5", 1), result.getFacets().get(ProductFacetIndex.PRICE));
+        assertEquals(Map.of("true", 1, "false", 1), result.getFacets().get(ProductFacetIndex.IN_STOCK));
+        assertEquals(Map.of("7-14", 2), result.getFacets().get(ProductFacetIndex.SHELF_LIFE));
+    }
+
+    @Test
+    void testValuesAreOredWithinAndAndedAcrossFacets() {
+        // When
+        FacetSearchResult result = index.search(Map.of(
+                ProductFacetIndex.CATEGORY, List.of("Dairy", "Bakery"),
+                ProductFacetIndex.IN_STOCK, List.of("true")), 0, 10);
+
+        // Then
+        assertEquals(List.of(1L, 3L), ids(result));
+        assertEquals(2, result.getTotalElements());
+    }
+
+    @Test
+    void testInStockCountsReservedUnitsAsUnavailable() {
+        // When: every unit of product 3 is held by carts
+        index.updateReserved(3L, 2);
+
+        // Then
+        assertEquals(List.of(1L), ids(inStock()));
+
+        // When: the holds are released
+        index.updateReserved(3L, 0);
+
+        // Then
+        assertEquals(List.of(1L, 3L), ids(inStock()));
+    }
+
+    @Test
+    void testReindexKeepsKnownReservedQuantity() {
+        // Given
+        index.index(product(4L, "Bakery", "2.50", 3, 3), 3);
+
+        // When: a price change arrives without reservation data
+        index.index(product(4L, "Bakery", "2.75", 3, 3));
+
+        // Then
+        assertFalse(ids(inStock()).contains(4L));
+    }
+
+    @Test
+    void testRemovedOrdinalIsReused() {
+        // Given
+        int ordinals = documentCount();
+
+        // When
+        index.remove(2L);
+        index.index(product(4L, "Produce", "0.99", 8, null));
+
+        // Then
+        assertEquals(ordinals, documentCount());
+        assertEquals(3, index.size());
+        FacetSearchResult result = index.search(Map.of(), 0, 10);
+        assertEquals(List.of(1L, 3L, 4L), ids(result));
+        assertEquals(Map.of("Bakery", 1, "Dairy", 1, "Produce", 1), result.getFacets().get(ProductFacetIndex.CATEGORY));
+    }
+
+    @Test
+    void testPageBeyondLastMatchIsEmpty() {
+        // When
+        FacetSearchResult result = index.search(Map.of(), 5, 10);
+
+        // Then
+        assertTrue(result.getContent().isEmpty());
+        assertEquals(3, result.getTotalElements());
+    }
+
+    @Test
+    void testPagesFollowIdOrderWhenOrdinalsAreReused() {
+        // Given: product 5 takes the ordinal freed by product 1, ahead of products 2 and 3
+        index.remove(1L);
+        index.index(product(5L, "Bakery", "2.50", 4, 3));
+
+        // When
+        FacetSearchResult first = index.search(Map.of(), 0, 2);
+        FacetSearchResult second = index.search(Map.of(), 1, 2);
+
+        // Then
+        assertEquals(List.of(2L, 3L), ids(first));
+        assertEquals(List.of(5L), ids(second));
+        assertEquals(3, second.getTotalElements());
+    }
+
+    @Test
+    void testNarrowFilterPagesInIdOrder() {
+        // Given: many products outside the filter, and a match that reuses a low ordinal
+        for (long id = 10; id < 60; id++) {
+            index.index(product(id, "Produce", "0.99", 10, null));
+        }
+        index.remove(1L);
+        index.index(product(100L, "Bakery", "4.00", 1, 3));
+
+        // When
+        FacetSearchResult first = index.search(Map.of(ProductFacetIndex.CATEGORY, List.of("Bakery")), 0, 1);
+        FacetSearchResult second = index.search(Map.of(ProductFacetIndex.CATEGORY, List.of("Bakery")), 1, 1);
+
+        // Then
+        assertEquals(List.of(3L), ids(first));
+        assertEquals(List.of(100L), ids(second));
+        assertEquals(2, first.getTotalElements());
+    }
+
+    @Test
+    void testBandLabels() {
+        assertEquals("0-1", index.priceBand(new BigDecimal("0.50")));
+        assertEquals("2-5", index.priceBand(new BigDecimal("2")));
+        assertEquals("20+", index.priceBand(new BigDecimal("25")));
+        assertEquals("none", index.shelfLifeBand(null));
+        assertEquals("3-7", index.shelfLifeBand(3));
+        assertEquals("30+", index.shelfLifeBand(45));
+    }
+
+    private FacetSearchResult inStock() {
+        return index.search(Map.of(ProductFacetIndex.IN_STOCK, List.of("true")), 0, 10);
+    }
+
+    private int documentCount() {
+        return ((List<?>) ReflectionTestUtils.getField(index, "documents")).size();
+    }
+
+    private static List<Long> ids(FacetSearchResult result) {
+        return result.getContent().stream().map(ProductSummary::getId).collect(Collectors.toList());
+    }
+
+    private static ProductSummary product(Long id, String category, String price, int stock, Integer shelfLifeDays) {
+        return new ProductSummary(id, "Product " + id, "each", new BigDecimal(price), shelfLifeDays, stock,
+                category, null, 0L);
+    }
+}
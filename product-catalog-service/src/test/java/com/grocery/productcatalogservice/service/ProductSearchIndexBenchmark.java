@@ -0,0 +1,152 @@
+package com.grocery.productcatalogservice.service;
+
+import com.grocery.productcatalogservice.dto.ProductResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Latency benchmark for typo-tolerant search over a synthetic catalog.
+ *
+ * Not part of the regular build (the class name does not match the surefire
+ * test patterns). Run it explicitly with a heap large enough for the catalog:
+ *
+ *   mvn test -Dtest=ProductSearchIndexBenchmark -DargLine=-Xmx5g
+ *
+ * benchmark.skus (default 1,000,000) sets the catalog size. Two budgets are
+ * asserted for misspelled queries: benchmark.expansion-p99-ms (default 5) for
+ * the BK-tree candidate expansion alone, and benchmark.p99-ms (default 50) for
+ * the whole search, which also ranks the tens of thousands of products a
+ * corrected produce word matches.
+ */
+class ProductSearchIndexBenchmark {
+
+    private static final int WARMUP_QUERIES = 2_000;
+    private static final int MEASURED_QUERIES = 10_000;
+
+    private static final String[] PRODUCE = {
+            "banana", "tomato", "tomatoes", "potato", "avocado", "strawberry", "blueberry", "raspberry",
+            "cucumber", "zucchini", "broccoli", "cauliflower", "spinach", "lettuce", "carrot", "onion",
+            "garlic", "ginger", "mango", "pineapple", "apple", "orange", "lemon", "grapefruit", "peach",
+            "yogurt", "cheddar", "mozzarella", "parmesan", "butter", "milk", "cream", "coffee", "chocolate",
+            "cereal", "granola", "oatmeal", "spaghetti", "macaroni", "lasagna", "tortilla", "bagel", "croissant",
+            "sausage", "chicken", "salmon", "shrimp", "turkey", "almond", "cashew", "peanut", "hazelnut"
+    };
+
+    private static final String[] VARIANTS = {
+            "organic", "fresh", "frozen", "sliced", "smoked", "roasted", "unsalted", "sweetened", "wholegrain",
+            "family", "value", "premium", "classic", "original", "light", "spicy", "honey", "vanilla"
+    };
+
+    @Test
+    void fuzzySearchP99StaysWithinBudget() {
+        int skus = Integer.getInteger("benchmark.skus", 1_000_000);
+        double expansionBudgetMs = Double.parseDouble(System.getProperty("benchmark.expansion-p99-ms", "5"));
+        double budgetMs = Double.parseDouble(System.getProperty("benchmark.p99-ms", "50"));
+        Random random = new Random(42);
+
+        // Given: a catalog whose names mix common grocery words with ~50k distinct brand words
+        String[] brands = new String[50_000];
+        for (int i = 0; i < brands.length; i++) {
+            brands[i] = pseudoWord(random);
+        }
+        ProductSearchIndex index = newIndex();
+        long buildStart = System.nanoTime();
+        for (long id = 1; id <= skus; id++) {
+            String name = brands[random.nextInt(brands.length)] + " "
+                    + VARIANTS[random.nextInt(VARIANTS.length)] + " "
+                    + PRODUCE[random.nextInt(PRODUCE.length)];
+            index.index(new ProductResponse(id, name, null, "each", BigDecimal.ONE, null, 10,
+                    "grocery", null, true, null, null, 0L));
+        }
+        System.out.printf("Indexed %,d products in %,d ms%n", skus, (System.nanoTime() - buildStart) / 1_000_000);
+
+        // When: shoppers search with one typo in a produce or brand word long enough to be corrected
+        List<String> queries = new ArrayList<>();
+        while (queries.size() < WARMUP_QUERIES + MEASURED_QUERIES) {
+            String word = random.nextBoolean()
+                    ? PRODUCE[random.nextInt(PRODUCE.length)]
+                    : brands[random.nextInt(brands.length)];
+            if (word.length() > 4) {
+                queries.add(typo(word, random));
+            }
+        }
+        long[] expansionNanos = new long[MEASURED_QUERIES];
+        long[] searchNanos = new long[MEASURED_QUERIES];
+        int misses = 0;
+        for (int i = 0; i < queries.size(); i++) {
+            String query = queries.get(i);
+            long start = System.nanoTime();
+            index.corrections(query);
+            long expanded = System.nanoTime();
+            long hits = index.search(query, PageRequest.of(0, 20)).getTotalElements();
+            long searched = System.nanoTime();
+            if (i >= WARMUP_QUERIES) {
+                expansionNanos[i - WARMUP_QUERIES] = expanded - start;
+                searchNanos[i - WARMUP_QUERIES] = searched - expanded;
+                if (hits == 0) {
+                    misses++;
+                }
+            }
+        }
+
+        // Then
+        double expansionP99 = p99(expansionNanos);
+        double searchP99 = p99(searchNanos);
+        System.out.printf("Fuzzy search over %,d SKUs: expansion p99 %.2f ms, search p50 %.2f ms, p99 %.2f ms, "
+                + "%d/%d queries without hits%n",
+                skus, expansionP99, searchNanos[MEASURED_QUERIES / 2] / 1e6, searchP99, misses, MEASURED_QUERIES);
+        assertTrue(expansionP99 <= expansionBudgetMs,
+                "expansion p99 " + expansionP99 + " ms exceeds the " + expansionBudgetMs + " ms budget");
+        assertTrue(searchP99 <= budgetMs, "search p99 " + searchP99 + " ms exceeds the " + budgetMs + " ms budget");
+        assertTrue(misses < MEASURED_QUERIES / 100, "too many misspelled queries found nothing: " + misses);
+    }
+
+    // Sorts in place
+    private static double p99(long[] nanos) {
+        Arrays.sort(nanos);
+        return nanos[nanos.length * 99 / 100] / 1e6;
+    }
+
+    private static ProductSearchIndex newIndex() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        ReflectionTestUtils.setField(index, "fuzzyEnabled", true);
+        ReflectionTestUtils.setField(index, "fuzzyMinLength", 4);
+        ReflectionTestUtils.setField(index, "fuzzyMaxVisits", 4000);
+        ReflectionTestUtils.setField(index, "fuzzyMaxExpansions", 20);
+        return index;
+    }
+
+    private static String pseudoWord(Random random) {
+        String consonants = "bcdfghklmnprstvz";
+        String vowels = "aeiou";
+        StringBuilder word = new StringBuilder();
+        int syllables = 2 + random.nextInt(2);
+        for (int i = 0; i < syllables; i++) {
+            word.append(consonants.charAt(random.nextInt(consonants.length())));
+            word.append(vowels.charAt(random.nextInt(vowels.length())));
+        }
+        return word.toString();
+    }
+
+    // One random insertion, deletion or substitution
+    private static String typo(String word, Random random) {
+        StringBuilder typo = new StringBuilder(word);
+        int position = 1 + random.nextInt(word.length() - 1);
+        char letter = (char) ('a' + random.nextInt(26));
+        switch (random.nextInt(3)) {
+            case 0 -> typo.insert(position, letter);
+            case 1 -> typo.deleteCharAt(position);
+            default -> typo.setCharAt(position, letter);
+        }
+        return typo.toString();
+    }
+}
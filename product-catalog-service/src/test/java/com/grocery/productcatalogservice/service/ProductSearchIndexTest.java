@@ -0,0 +1,169 @@
+package com.grocery.productcatalogservice.service;
+
+import com.grocery.productcatalogservice.dto.ProductResponse;
+import com.grocery.productcatalogservice.dto.ProductSummary;
+import com.grocery.productcatalogservice.event.ProductChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        ReflectionTestUtils.setField(index, "fuzzyEnabled", true);
+        ReflectionTestUtils.setField(index, "fuzzyMinLength", 4);
+        ReflectionTestUtils.setField(index, "fuzzyMaxVisits", 4000);
+        ReflectionTestUtils.setField(index, "fuzzyMaxExpansions", 20);
+    }
+
+    @Test
+    void testExactNameHitOutranksPrefixAndDescriptionHits() {
+        // Given
+        index.index(product(1L, "Milkshake powder", "Drinks", null));
+        index.index(product(2L, "Oat milk", "Dairy", null));
+        index.index(product(3L, "Chocolate bar", "Sweets", "Made with milk"));
+
+        // When
+        List<Long> ranked = ids(index.search("milk", PageRequest.of(0, 10)));
+
+        // Then
+        assertEquals(List.of(2L, 1L, 3L), ranked);
+    }
+
+    @Test
+    void testInfixAndMisspelledTokensMatch() {
+        // Given
+        index.index(product(1L, "Banana chips", "Snacks", null));
+        index.index(product(2L, "Apple juice", "Drinks", null));
+
+        // When / Then
+        assertEquals(List.of(1L), ids(index.search("nana", PageRequest.of(0, 10))));
+        assertEquals(List.of(1L), ids(index.search("bananna", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void testEveryQueryTokenMustMatch() {
+        // Given
+        index.index(product(1L, "Oat milk", "Dairy", null));
+        index.index(product(2L, "Dark chocolate", "Sweets", null));
+
+        // When
+        Page<ProductSummary> page = index.search("oat chocolate", PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(0, page.getTotalElements());
+    }
+
+    @Test
+    void testPagesFollowRankOrderWithTiesById() {
+        // Given
+        for (long id = 1; id <= 5; id++) {
+            index.index(product(id, "Tomato " + id, "Vegetables", null));
+        }
+
+        // When
+        Page<ProductSummary> second = index.search("tomato", PageRequest.of(1, 2));
+
+        // Then
+        assertEquals(5, second.getTotalElements());
+        assertEquals(List.of(3L, 4L), ids(second));
+    }
+
+    @Test
+    void testReindexReplacesTermsOfPreviousVersion() {
+        // Given
+        index.index(product(1L, "Oat milk", "Dairy", null));
+
+        // When
+        index.index(product(1L, "Almond milk", "Dairy", null));
+
+        // Then
+        assertEquals(1, index.size());
+        assertEquals(0, index.search("oat", PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(List.of(1L), ids(index.search("almond", PageRequest.of(0, 10))));
+        assertEquals("Almond milk", index.search("milk", PageRequest.of(0, 10)).getContent().get(0).getName());
+    }
+
+    @Test
+    void testRemovedProductIsNoLongerFound() {
+        // Given
+        index.index(product(1L, "Oat milk", "Dairy", null));
+        index.index(product(2L, "Whole milk", "Dairy", null));
+
+        // When
+        index.remove(1L);
+
+        // Then
+        assertEquals(1, index.size());
+        assertEquals(List.of(2L), ids(index.search("milk", PageRequest.of(0, 10))));
+        assertEquals(0, index.search("oat", PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void testOlderVersionDoesNotReplaceNewerOne() {
+        // Given
+        index.index(product(1L, "Almond milk", "Dairy", null, 2L, "1.99", true));
+
+        // When: an event for the previous version arrives late
+        index.index(product(1L, "Oat milk", "Dairy", null, 1L, "1.99", true));
+        index.onProductChanged(new ProductChangedEvent(product(1L, "Oat milk", "Dairy", null, 1L, "1.99", false)));
+
+        // Then
+        assertEquals(0, index.search("oat", PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(List.of(1L), ids(index.search("almond", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void testPriceChangeServesNewSummary() {
+        // Given
+        index.index(product(1L, "Oat milk", "Dairy", "Barista edition", 1L, "1.99", true));
+
+        // When
+        index.index(product(1L, "Oat milk", "Dairy", "Barista edition", 2L, "2.49", true));
+
+        // Then
+        Page<ProductSummary> page = index.search("barista", PageRequest.of(0, 10));
+        assertEquals(1, page.getTotalElements());
+        assertEquals(new BigDecimal("2.49"), page.getContent().get(0).getPrice());
+    }
+
+    @Test
+    void testInactiveEventRemovesProduct() {
+        // Given
+        index.index(product(1L, "Oat milk", "Dairy", null, 1L, "1.99", true));
+
+        // When
+        index.onProductChanged(new ProductChangedEvent(product(1L, "Oat milk", "Dairy", null, 2L, "1.99", false)));
+
+        // Then
+        assertEquals(0, index.size());
+        assertEquals(0, index.search("milk", PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    private static List<Long> ids(Page<ProductSummary> page) {
+        return page.getContent().stream().map(ProductSummary::getId).collect(Collectors.toList());
+    }
+
+    private static ProductResponse product(Long id, String name, String category, String description) {
+        return new ProductResponse(id, name, description, "each", new BigDecimal("1.99"), null, 10,
+                category, null, true, null, null, 0L);
+    }
+
+    private static ProductResponse product(Long id, String name, String category, String description,
+                                           long version, String price, boolean active) {
+        return new ProductResponse(id, name, description, "each", new BigDecimal(price), null, 10,
+                category, null, active, null, null, version);
+    }
+}
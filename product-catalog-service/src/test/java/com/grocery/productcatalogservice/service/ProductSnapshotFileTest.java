@@ -0,0 +1,117 @@
+package com.grocery.productcatalogservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSnapshotFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testWrittenSnapshotReadsBackIdentically() throws IOException {
+        // Given
+        ProductSnapshotFile file = new ProductSnapshotFile(dir.resolve("catalog.snapshot").toString());
+        ProductSnapshot snapshot = snapshot(LocalDateTime.of(2024, 5, 1, 8, 30, 15, 123_456_000));
+
+        // When
+        file.write(snapshot);
+        ProductSnapshot read = file.read();
+
+        // Then
+        assertNotNull(read);
+        assertArrayEquals(snapshot.ids, read.ids);
+        assertArrayEquals(snapshot.versions, read.versions);
+        assertArrayEquals(snapshot.names, read.names);
+        assertArrayEquals(snapshot.unitCodes, read.unitCodes);
+        assertArrayEquals(snapshot.units, read.units);
+        assertArrayEquals(snapshot.priceCents, read.priceCents);
+        assertArrayEquals(snapshot.shelfLifeDays, read.shelfLifeDays);
+        assertArrayEquals(snapshot.stock, read.stock);
+        assertArrayEquals(snapshot.reserved, read.reserved);
+        assertArrayEquals(snapshot.categoryCodes, read.categoryCodes);
+        assertArrayEquals(snapshot.categories, read.categories);
+        assertArrayEquals(snapshot.imageUrls, read.imageUrls);
+        assertEquals(snapshot.highWater, read.highWater);
+    }
+
+    @Test
+    void testEmptySnapshotWithoutHighWaterRoundTrips() throws IOException {
+        // Given
+        ProductSnapshotFile file = new ProductSnapshotFile(dir.resolve("empty.snapshot").toString());
+
+        // When
+        file.write(ProductSnapshot.EMPTY);
+        ProductSnapshot read = file.read();
+
+        // Then
+        assertNotNull(read);
+        assertEquals(0, read.size());
+        assertNull(read.highWater);
+    }
+
+    @Test
+    void testCorruptedFileIsRejected() throws IOException {
+        // Given
+        ProductSnapshotFile file = new ProductSnapshotFile(dir.resolve("catalog.snapshot").toString());
+        file.write(snapshot(LocalDateTime.of(2024, 5, 1, 8, 30)));
+        byte[] bytes = Files.readAllBytes(file.getPath());
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(file.getPath(), bytes);
+
+        // When / Then
+        assertNull(file.read());
+    }
+
+    @Test
+    void testTruncatedFileIsRejected() throws IOException {
+        // Given
+        ProductSnapshotFile file = new ProductSnapshotFile(dir.resolve("catalog.snapshot").toString());
+        file.write(snapshot(LocalDateTime.of(2024, 5, 1, 8, 30)));
+        byte[] bytes = Files.readAllBytes(file.getPath());
+        Files.write(file.getPath(), Arrays.copyOf(bytes, bytes.length - 3));
+
+        // When / Then
+        assertNull(file.read());
+    }
+
+    @Test
+    void testMissingOrUnconfiguredFileReadsAsNothing() {
+        assertNull(new ProductSnapshotFile(dir.resolve("absent.snapshot").toString()).read());
+        assertFalse(new ProductSnapshotFile("").isEnabled());
+        assertNull(new ProductSnapshotFile("").read());
+    }
+
+    private static ProductSnapshot snapshot(LocalDateTime updatedAt) {
+        ProductSnapshot.Builder builder = new ProductSnapshot.Builder(3);
+        builder.add(row(1L, "Crème fraîche", "200 g", 249, 14, 12, "Dairy", "https://img.example/creme.png",
+                updatedAt), 3);
+        builder.add(row(2L, "Sourdough", "each", 349, null, 0, "Bakery", null, updatedAt), 0);
+        builder.add(row(4L, "Tea bags", "box", 279, null, 40, null, null, updatedAt), 0);
+        return builder.build();
+    }
+
+    private static ProductSnapshot.Row row(Long id, String name, String unit, long priceCents, Integer shelfLifeDays,
+                                           int stock, String category, String imageUrl, LocalDateTime updatedAt) {
+        ProductSnapshot.Row row = new ProductSnapshot.Row();
+        row.id = id;
+        row.version = id * 10;
+        row.name = name;
+        row.unit = unit;
+        row.priceCents = priceCents;
+        row.shelfLifeDays = ProductSnapshot.toShelfLife(shelfLifeDays);
+        row.stock = stock;
+        row.category = category;
+        row.imageUrl = imageUrl;
+        row.updatedAt = updatedAt;
+        return row;
+    }
+}
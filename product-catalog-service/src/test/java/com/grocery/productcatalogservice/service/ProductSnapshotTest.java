@@ -0,0 +1,156 @@
+package com.grocery.productcatalogservice.service;
+
+import com.grocery.productcatalogservice.dto.ProductSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSnapshotTest {
+
+    private static final LocalDateTime LOADED_AT = LocalDateTime.of(2024, 5, 1, 8, 0);
+
+    private ProductSnapshot base;
+
+    @BeforeEach
+    void setUp() {
+        base = new ProductSnapshot.Builder(3)
+                .add(row(1L, "Whole milk", 199, 10, "Dairy", LOADED_AT), 2)
+                .add(row(3L, "Sourdough", 349, 5, "Bakery", LOADED_AT), 0)
+                .add(row(5L, "Tea bags", 279, 20, null, LOADED_AT), 0)
+                .build();
+    }
+
+    @Test
+    void testNumericChangeClonesOnlyNumericColumns() {
+        // Given
+        ProductSnapshot.Row repriced = row(3L, "Sourdough", 399, 4, "Bakery", LOADED_AT.plusMinutes(5));
+        repriced.version = 2;
+
+        // When
+        ProductSnapshot changed = base.withChanges(rows(repriced), Map.of());
+
+        // Then
+        assertSame(base.names, changed.names);
+        assertSame(base.categoryCodes, changed.categoryCodes);
+        assertSame(base.reserved, changed.reserved);
+        assertEquals(new BigDecimal("3.99"), changed.summary(1).getPrice());
+        assertEquals(4, changed.summary(1).getStockQuantity());
+        assertEquals(2L, changed.summary(1).getVersion());
+        assertEquals(LOADED_AT.plusMinutes(5), changed.highWater);
+        // The original snapshot is untouched
+        assertEquals(new BigDecimal("3.49"), base.summary(1).getPrice());
+        assertEquals(LOADED_AT, base.highWater);
+    }
+
+    @Test
+    void testReservedQuantitiesOverwriteKnownRowsOnly() {
+        // When
+        ProductSnapshot changed = base.withChanges(new TreeMap<>(), Map.of(1L, 4, 99L, 7));
+
+        // Then
+        assertSame(base.stock, changed.stock);
+        assertEquals(4, changed.availability(0).getReservedQuantity());
+        assertEquals(6, changed.availability(0).getAvailableQuantity());
+        assertEquals(2, base.availability(0).getReservedQuantity());
+        assertTrue(changed.indexOf(99L) < 0);
+    }
+
+    @Test
+    void testStructuralChangeMergesInIdOrder() {
+        // Given
+        ProductSnapshot.Row added = row(2L, "Greek yogurt", 249, 8, "Dairy", LOADED_AT.plusMinutes(1));
+        ProductSnapshot.Row removed = row(3L, "Sourdough", 349, 5, "Bakery", LOADED_AT.plusMinutes(2));
+        removed.active = false;
+        ProductSnapshot.Row renamed = row(5L, "Green tea bags", 279, 20, "Drinks", LOADED_AT.plusMinutes(3));
+
+        // When
+        ProductSnapshot changed = base.withChanges(rows(added, removed, renamed), Map.of(2L, 3));
+
+        // Then
+        assertEquals(List.of(1L, 2L, 5L), ids(changed.slice(0, 10)));
+        assertEquals("Green tea bags", changed.summary(2).getName());
+        assertEquals(List.of(1L, 2L), ids(changed.byCategory("Dairy")));
+        assertTrue(changed.byCategory("Bakery").isEmpty());
+        assertEquals(2, changed.availability(0).getReservedQuantity());
+        assertEquals(3, changed.availability(1).getReservedQuantity());
+        assertEquals(LOADED_AT.plusMinutes(3), changed.highWater);
+        assertEquals(3, base.size());
+    }
+
+    @Test
+    void testRenameKeepsReservedQuantity() {
+        // When
+        ProductSnapshot changed = base.withChanges(
+                rows(row(1L, "Semi-skimmed milk", 199, 10, "Dairy", LOADED_AT)), Map.of());
+
+        // Then
+        assertEquals("Semi-skimmed milk", changed.summary(0).getName());
+        assertEquals(2, changed.availability(0).getReservedQuantity());
+    }
+
+    @Test
+    void testOlderRowsDoNotRollProductsBack() {
+        // Given
+        ProductSnapshot.Row repriced = row(3L, "Sourdough", 399, 4, "Bakery", LOADED_AT.plusMinutes(5));
+        repriced.version = 2;
+        ProductSnapshot current = base.withChanges(rows(repriced), Map.of());
+        ProductSnapshot.Row staleRename = row(3L, "Rye sourdough", 349, 5, "Bakery", LOADED_AT);
+        ProductSnapshot.Row staleRemoval = row(3L, "Sourdough", 349, 5, "Bakery", LOADED_AT);
+        staleRemoval.active = false;
+        ProductSnapshot.Row added = row(4L, "Bagels", 299, 6, "Bakery", LOADED_AT);
+
+        // When: a reload replays patches that were read before the row it loaded
+        ProductSnapshot changed = current.withChanges(rows(staleRename, added), Map.of())
+                .withChanges(rows(staleRemoval), Map.of());
+
+        // Then
+        assertEquals(List.of(1L, 3L, 4L, 5L), ids(changed.slice(0, 10)));
+        assertEquals("Sourdough", changed.summary(1).getName());
+        assertEquals(new BigDecimal("3.99"), changed.summary(1).getPrice());
+        assertEquals(2L, changed.summary(1).getVersion());
+    }
+
+    @Test
+    void testSliceAndIndexAfterClampToBounds() {
+        assertEquals(List.of(3L, 5L), ids(base.slice(1, 10)));
+        assertTrue(base.slice(5, 10).isEmpty());
+        assertEquals(1, base.indexAfter(1L));
+        assertEquals(2, base.indexAfter(4L));
+        assertEquals(3, base.indexAfter(5L));
+    }
+
+    private static TreeMap<Long, ProductSnapshot.Row> rows(ProductSnapshot.Row... rows) {
+        TreeMap<Long, ProductSnapshot.Row> byId = new TreeMap<>();
+        for (ProductSnapshot.Row row : rows) {
+            byId.put(row.id, row);
+        }
+        return byId;
+    }
+
+    private static List<Long> ids(List<ProductSummary> products) {
+        return products.stream().map(ProductSummary::getId).collect(Collectors.toList());
+    }
+
+    static ProductSnapshot.Row row(Long id, String name, long priceCents, int stock, String category,
+                                   LocalDateTime updatedAt) {
+        ProductSnapshot.Row row = new ProductSnapshot.Row();
+        row.id = id;
+        row.version = 1;
+        row.name = name;
+        row.unit = "each";
+        row.priceCents = priceCents;
+        row.shelfLifeDays = ProductSnapshot.toShelfLife(null);
+        row.stock = stock;
+        row.category = category;
+        row.updatedAt = updatedAt;
+        return row;
+    }
+}
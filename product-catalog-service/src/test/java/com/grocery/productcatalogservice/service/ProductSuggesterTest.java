@@ -0,0 +1,127 @@
+package com.grocery.productcatalogservice.service;
+
+import com.grocery.productcatalogservice.dto.ProductResponse;
+import com.grocery.productcatalogservice.dto.SuggestionResponse;
+import com.grocery.productcatalogservice.event.ProductChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSuggesterTest {
+
+    private ProductSuggester suggester;
+
+    @BeforeEach
+    void setUp() {
+        suggester = new ProductSuggester(10);
+        // Skip the database warm-up; changes are applied through events and refresh()
+        ReflectionTestUtils.setField(suggester, "ready", true);
+    }
+
+    @Test
+    void testPrefixMatchesAnyWordStart() {
+        // Given
+        change(1L, "Greek yogurt", null, true);
+        suggester.refresh();
+
+        // When / Then
+        assertEquals(List.of("Greek yogurt"), texts(suggester.suggest("YOG", 10)));
+        assertEquals(List.of(), texts(suggester.suggest("ogu", 10)));
+    }
+
+    @Test
+    void testTopKOrderedByWeightThenText() {
+        // Given
+        change(1L, "Apple juice", null, true);
+        change(2L, "Apple pie", null, true);
+        change(3L, "Apricot jam", null, true);
+        suggester.updatePopularity(Map.of(2L, 5L));
+        suggester.refresh();
+
+        // When
+        List<SuggestionResponse> suggestions = suggester.suggest("ap", 10);
+
+        // Then
+        assertEquals(List.of("Apple pie", "Apple juice", "Apricot jam"), texts(suggestions));
+        assertEquals(6, suggestions.get(0).getWeight());
+        assertEquals(List.of("Apple pie", "Apple juice"), texts(suggester.suggest("ap", 2)));
+    }
+
+    @Test
+    void testHeavyPrefixMatchesScannedTopK() {
+        // Given: more keys under "b" than are scanned per lookup, so short prefixes are precomputed
+        for (long id = 1; id <= 100; id++) {
+            change(id, "Bread " + id, null, true);
+        }
+        suggester.updatePopularity(Map.of(42L, 10L, 7L, 5L));
+        suggester.refresh();
+
+        // When / Then
+        assertEquals(List.of("Bread 42", "Bread 7", "Bread 1"), texts(suggester.suggest("b", 3)));
+        assertEquals(List.of("Bread 42", "Bread 4", "Bread 40"), texts(suggester.suggest("bread 4", 3)));
+        assertEquals(10, suggester.suggest("bread", 50).size());
+    }
+
+    @Test
+    void testCategoryWeightIsItsProductCount() {
+        // Given
+        change(1L, "Whole milk", "Dairy", true);
+        change(2L, "Butter", "Dairy", true);
+        suggester.refresh();
+
+        // When
+        List<SuggestionResponse> suggestions = suggester.suggest("dai", 10);
+
+        // Then
+        assertEquals(1, suggestions.size());
+        assertEquals("Dairy", suggestions.get(0).getText());
+        assertEquals("category", suggestions.get(0).getType());
+        assertEquals(2, suggestions.get(0).getWeight());
+    }
+
+    @Test
+    void testDeactivatedProductIsDroppedOnRefresh() {
+        // Given
+        change(1L, "Oat milk", null, true);
+        suggester.refresh();
+
+        // When
+        change(1L, "Oat milk", null, false);
+        suggester.refresh();
+
+        // Then
+        assertTrue(suggester.suggest("oat", 10).isEmpty());
+    }
+
+    @Test
+    void testOnlyNameOrCategoryChangesMarkTrieDirty() {
+        // Given
+        change(1L, "Oat milk", "Dairy", true);
+        suggester.refresh();
+
+        // When: the same name and category again, as a price or stock update sends them
+        change(1L, "Oat milk", "Dairy", true);
+
+        // Then
+        assertEquals(false, ReflectionTestUtils.getField(suggester, "dirty"));
+        change(1L, "Oat milk", "Plant milk", true);
+        assertEquals(true, ReflectionTestUtils.getField(suggester, "dirty"));
+    }
+
+    private void change(Long id, String name, String category, boolean active) {
+        ProductResponse product = new ProductResponse(id, name, null, "each", new BigDecimal("1.99"), null, 10,
+                category, null, active, null, null, 0L);
+        suggester.onProductChanged(new ProductChangedEvent(product));
+    }
+
+    private static List<String> texts(List<SuggestionResponse> suggestions) {
+        return suggestions.stream().map(SuggestionResponse::getText).collect(Collectors.toList());
+    }
+}